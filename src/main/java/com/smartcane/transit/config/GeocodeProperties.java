@@ -0,0 +1,31 @@
+package com.smartcane.transit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 지오코딩(vWorld) 캐시 파라미터
+ */
+@Getter @Setter
+@Configuration
+@ConfigurationProperties(prefix = "smartcane.geocode")
+public class GeocodeProperties {
+
+    // --- 1차(메모리) 캐시 ---
+    private int    memoryMaxEntries    = 10_000;   // LRU 최대 항목 수
+
+    // --- 유효 기간 ---
+    private long   ttlHours            = 24 * 30;  // 성공 결과 보관 (주소 좌표는 거의 안 바뀜)
+    private long   negativeTtlMinutes  = 30;       // 실패(NOT_FOUND 등) 결과 보관
+
+    // --- 2차(디스크) 캐시: redis 프로파일이 아닐 때 사용 ---
+    private String storeFile           = "./data/geocode-cache.tsv";
+    private int    storeMaxEntries     = 200_000;  // 압축 시 남길 최대 항목 수 (최근 저장 순)
+    private long   storeCompactBytes   = 16L << 20; // 파일이 이 크기를 넘으면 압축 (16MB)
+
+    // --- 일괄(batch) 지오코딩 ---
+    private int    batchMaxSize        = 200;      // 요청당 최대 주소 수
+    private int    batchConcurrency    = 8;        // vWorld 동시 호출 상한
+}
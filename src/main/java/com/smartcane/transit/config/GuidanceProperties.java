@@ -29,5 +29,54 @@ public class GuidanceProperties {
     // description 안내를 언제부터 쓸지 (m)
     private double descriptionTriggerM = 40.0;
 
-    // (선택) 업링크 권고: 클라에서 1초/3m 이상 변화 시 업링크
+    // 컴파일된 경로 지오메트리 캐시 크기 (trip 수 기준)
+    private int    geometryCacheMaxTrips = 5_000;
+
+    // 매칭용 지오메트리 단순화 허용오차(m) — arriveRadiusWalkM 보다 충분히 작게, 0 이면 원본 사용
+    private double geometrySimplifyToleranceM = 3.0;
+
+    // 변경분만 응답 모드: 남은 거리가 이 구간(m) 안에서만 바뀌면 "변경 없음"으로 본다
+    private double guidanceChangeBucketM = 10.0;
+    // 같은 모드에서 다음 안내 지점 ETA 가 이 구간(초) 안에서만 바뀌면 "변경 없음"으로 본다
+    private int    guidanceChangeEtaBucketSec = 10;
+
+    // 배치 업링크(/progress/batch) 한 번에 받는 최대 샘플 수
+    private int    progressBatchMaxSize = 300;
+
+    // --- 경로 이탈 자동 재탐색 ---
+    private boolean replanEnabled       = true;
+    private int    replanOffRouteSamples = 3;   // 연속 N회 이탈이면 재탐색
+    private int    replanDebounceSec     = 30;  // 재탐색 사이 최소 간격
+    private int    replanTimeoutSec      = 8;   // SK 호출 타임아웃
+
+    // --- 후보 경로 추적 (계획과 다른 버스를 탄 경우 재탐색 없이 전환) ---
+    private int    candidateItineraries   = 1;    // /plan 에서 남길 상위 itinerary 수 (1 = 기존처럼 하나만)
+    private double candidateSwitchMarginM = 20.0; // 다른 후보가 이만큼 더 가까워야 전환 근거로 본다
+    private int    candidateSwitchSamples = 3;    // 연속 N회 근거가 쌓이면 전환
+
+    // --- 도착 예상 시간(ETA) ---
+    private double etaDefaultWalkSpeedMps = 1.0;  // 보행 속도 추정 전 기본값
+    private double etaWalkSpeedAlpha      = 0.2;  // 보행 속도 EWMA 에서 새 샘플 비중
+    private double etaMinWalkSpeedMps     = 0.4;  // ETA 계산에 쓰는 속도 하한 (오래 멈춰 있어도 ETA 가 폭주하지 않게)
+    private double etaMaxWalkSpeedMps     = 2.5;  // 이보다 빠른 샘플 간 속도는 GPS 튐/차량으로 보고 버림
+    private int    etaMaxSampleGapSec     = 30;   // 샘플 간격이 이보다 길면 속도 갱신 생략
+
+    // --- 업링크 권고 (응답의 nextUplinkSec / nextUplinkMeters) ---
+    // 가장 촘촘한 권고가 기존 고정 규칙(1초/3m), 다음 안내 지점까지 멀수록/차 안에서는 성기게
+    private boolean uplinkAdviceEnabled  = true;
+    private double uplinkFraction        = 0.25;  // 다음 안내 지점까지 ETA/거리의 이 비율마다 한 번
+    private int    uplinkMinSec          = 1;
+    private double uplinkMinM            = 3.0;
+    private int    uplinkMaxWalkSec      = 10;    // WALKING/TRANSFER
+    private double uplinkMaxWalkM        = 40.0;
+    private int    uplinkMaxWaitSec      = 15;    // WAITING_TRANSIT (출발 감지용으로 거리 권고는 짧게 유지)
+    private double uplinkWaitM           = 10.0;
+    private int    uplinkMaxOnboardSec   = 60;    // ONBOARD
+    private double uplinkMaxOnboardM     = 500.0;
+    private double uplinkLoadHighRps     = 500.0; // 이 노드의 progress 처리량이 이보다 많으면 권고 간격을 늘린다
+    private double uplinkLoadMaxStretch  = 3.0;   // 부하 시 최대 몇 배까지
+
+    // --- 단말 지오펜스 (응답의 geofences: 다음 안내 지점 몇 개) ---
+    private int    geofenceZoneCount       = 3;
+    private double geofenceApproachRadiusM = 100.0; // 하차 직전 정류장 접근 구역 반경 (보행 지점은 lookAheadWalkM, 정류장은 arriveRadiusTransitM)
 }
@@ -0,0 +1,25 @@
+package com.smartcane.transit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 길찾기 계획(/plan) 관련 파라미터
+ */
+@Getter @Setter
+@Configuration
+@ConfigurationProperties(prefix = "smartcane.plan")
+public class PlanProperties {
+
+    // --- 멱등 키(Idempotency-Key) ---
+    private long idempotencyTtlSec = 120;  // 같은 키 재시도 시 이전 결과를 돌려주는 시간
+
+    // --- 계획 해시 캐시 (planHash 로 meta 복원) ---
+    private long planCacheTtlHours = 24;      // trip 최대 길이보다 넉넉하게
+    private int  planCacheMaxEntries = 5_000; // 메모리 저장소 LRU 상한 (redis 프로파일에서는 미사용)
+
+    // --- 압축 계획 응답 (?geometry=compact) ---
+    private double compactToleranceM = 2.0;   // Douglas–Peucker 허용오차(m)
+}
@@ -13,4 +13,19 @@ public class PublicDataProperties {
     private String arrivalBaseUrl; // arrival-base-url 매핑
     private String stationBaseUrl; // station-base-url 매핑
     private String serviceKey;     // service-key 매핑
+
+    // --- 오프라인 정류장 목록 (전국 버스정류장 위치정보 CSV) ---
+    private String stopCatalogFile;                  // 없으면 원격 API 만 사용
+    private String stopCatalogCharset = "UTF-8";     // 공공데이터 원본은 보통 MS949
+    private double stopCatalogCellM = 250.0;         // 공간 격자 한 칸 크기(m)
+    private double stopMatchMaxM = 150.0;            // 좌표 → 정류장 매칭 최대 거리(m)
+
+    // --- 주변 정류장 검색 (/stops/nearby) 타일 캐시 ---
+    private double nearbyTileDeg = 0.004;            // 타일 한 변(도) ≈ 위도 440m
+    private long   nearbyTileTtlSec = 600;           // 타일 보관 시간
+    private int    nearbyTileMaxEntries = 20_000;    // 타일 LRU 최대 개수
+    private double nearbyMaxRadiusM = 1_000.0;       // 검색 반경 상한
+    private int    nearbyMaxPageSize = 100;          // 페이지 크기 상한
+    private int    nearbyRemoteConcurrency = 4;      // 한 질의에서 동시에 원격 조회하는 타일 수 상한
+    private int    nearbyRemoteRows = 100;           // 타일 원격 조회 numOfRows (totalCount 가 더 크면 캐시하지 않음)
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.smartcane.transit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 내장 대중교통 경로 탐색(RAPTOR over GTFS) 파라미터
+ * - SK 호출이 실패/지연될 때의 대체 경로, 또는 피드가 덮는 지역의 1차 경로로 사용
+ */
+@Getter @Setter
+@Configuration
+@ConfigurationProperties(prefix = "smartcane.raptor")
+public class RaptorProperties {
+
+    private boolean enabled = false;          // 피드 로드 여부 (꺼져 있으면 SK 만 사용)
+    private String  feedDir = "data/gtfs";    // stops/routes/trips/stop_times.txt 가 있는 디렉터리
+    private boolean primary = false;          // 출발/도착이 피드 범위 안이면 SK 보다 먼저 사용
+    private int     skTimeoutSec = 6;         // 이 시간 안에 SK 응답이 없으면 대체 경로로
+
+    // --- 탐색 ---
+    private int    maxRounds       = 5;       // 최대 탑승 횟수 (환승 = rounds - 1)
+    private double walkSpeedMps    = 1.0;     // 보행 속도 (접근성 고려해 보수적으로)
+    private double accessRadiusM   = 800.0;   // 출발/도착 지점에서 정류장까지 최대 보행 거리
+    private double transferRadiusM = 300.0;   // 정류장 간 도보 환승 최대 거리
+    private int    minTransferSec  = 60;      // 환승 시 최소 여유 시간
+}
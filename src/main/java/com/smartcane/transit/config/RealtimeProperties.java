@@ -0,0 +1,29 @@
+package com.smartcane.transit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 실시간 채널(WebSocket/푸시) 및 버스 도착 모니터 설정
+ */
+@Getter @Setter
+@Configuration
+@ConfigurationProperties(prefix = "smartcane.realtime")
+public class RealtimeProperties {
+
+    // --- WebSocket 진행 채널 ---
+    private long wsWriteBehindSec = 10;       // 세션에 고정된 TripState 를 store 에 내려쓰는 최대 간격
+    private long wsSendTimeLimitMs = 5_000;   // 느린 클라이언트 전송 제한 시간
+    private int  wsSendBufferBytes = 256 * 1024;
+
+    // --- SSE 구독 (/trips/{tripId}/events) ---
+    private long sseTimeoutMs = 60 * 60 * 1000L;   // 연결 최대 유지 시간 (trip 최대 길이 정도)
+    private long sseHeartbeatMs = 20_000;          // 프록시 idle 끊김 방지용 주석 이벤트 간격
+
+    // --- 버스 도착 모니터 ---
+    private long arrivalPollMs = 15_000;      // 구독 중인 대기(WAITING_TRANSIT) trip 폴링 주기
+    private long arrivalCacheTtlSec = 20;     // 도착 정보 캐시 유효 시간 (진행 응답에서 재사용)
+    private int  arrivalPollConcurrency = 8;  // 폴링 시 동시 원격 호출 수
+}
@@ -0,0 +1,41 @@
+package com.smartcane.transit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 경로(itinerary) 점수 가중치 — 점수가 낮을수록 우선 (단위: "초 환산")
+ *
+ * score = tierPenaltySec × 등급(버스 0 / 지하철+버스 1 / 그 외 2)
+ *       + timeWeight × totalTime(s)
+ *       + walkTimeWeight × totalWalkTime(s)
+ *       + walkDistanceWeight × totalWalkDistance(m)
+ *       + transferPenaltySec × transferCount
+ *
+ * 기본값은 기존 정책(버스 위주 → 지하철+버스 → 그 외, 같은 등급이면 최단 시간)과 같은 순서가 나오도록 잡았다.
+ * profiles 에 이름별 가중치를 두고 /plan 요청의 profile 로 고른다 (없으면 defaults).
+ */
+@Getter @Setter
+@Configuration
+@ConfigurationProperties(prefix = "smartcane.route-scoring")
+public class RouteScoringProperties {
+
+    private Weights defaults = new Weights();
+
+    /** 프로필 이름 → 가중치 (예: low-vision, wheelchair) */
+    private Map<String, Weights> profiles = new LinkedHashMap<>();
+
+    @Getter @Setter
+    public static class Weights {
+        private double tierPenaltySec     = 1_000_000.0; // 등급 차이가 시간 차이보다 항상 크게
+        private double timeWeight         = 1.0;
+        private double walkTimeWeight     = 0.0;
+        private double walkDistanceWeight = 0.0;
+        private double transferPenaltySec = 0.0;
+    }
+}
@@ -36,9 +36,10 @@ public class SecurityConfig {
                                 ).permitAll()
                                 // ✅ 지오코드, 경로 안내 API는 전부 오픈 (테스트용)
                                 .requestMatchers(
-                                        "/api/geocode",
+                                        "/api/geocode", "/api/geocode/**",
                                         "/api/transit/**",
-                                        "/api/routes/**"
+                                        "/api/routes/**",
+                                        "/ws/**"
                                 ).permitAll()
                                 // 나머지는 우선 전부 오픈해도 됨 (개발 단계라면)
                                 .anyRequest().permitAll()
@@ -27,6 +27,8 @@ public class WebClientConfig {
                 .defaultHeader("accept", "application/json")
                 .defaultHeader("content-type", "application/json")
                 .defaultHeader("appKey", props.getAppKey())
+                // 8MB 는 전체 응답을 한 번에 DTO 로 받는 searchRawRoutes 용.
+                // /plan 경로(searchPreferredRoutes)는 DataBuffer 스트림으로 읽어서 이 한도에 걸리지 않는다.
                 .exchangeStrategies(
                         ExchangeStrategies.builder()
                                 .codecs(c -> c.defaultCodecs().maxInMemorySize(8 * 1024 * 1024))
@@ -0,0 +1,26 @@
+package com.smartcane.transit.config;
+
+import com.smartcane.transit.controller.ProgressWebSocketHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * 장시간 trip 용 WebSocket 진행 채널 등록
+ * - /ws/trips/{tripId}/progress
+ */
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final ProgressWebSocketHandler progressWebSocketHandler;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(progressWebSocketHandler, "/ws/trips/*/progress")
+                .setAllowedOrigins("*"); // CORS 설정과 동일하게 우선 전부 허용
+    }
+}
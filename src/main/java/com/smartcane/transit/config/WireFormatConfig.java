@@ -0,0 +1,39 @@
+package com.smartcane.transit.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * 바이너리 전송 포맷(application/cbor) 설정
+ * - jackson-dataformat-cbor 가 classpath 에 있으면 Spring 이 기본 CBOR 컨버터를 이미 등록한다.
+ *   그 컨버터는 spring.jackson.* 설정을 모르므로, 같은 자리를 Boot 의 Jackson2ObjectMapperBuilder 로 만든 것으로 바꾼다
+ *   (뒤에 하나 더 붙이면 앞의 기본 컨버터가 먼저 선택되어 쓰이지 않는다)
+ * - Content-Type / Accept 가 application/cbor 인 요청에만 적용 (기본은 JSON 그대로)
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        MappingJackson2CborHttpMessageConverter cbor = new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.factory(new CBORFactory()).build());
+
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2CborHttpMessageConverter) {
+                converters.set(i, cbor);
+                return;
+            }
+        }
+        converters.add(cbor);
+    }
+}
@@ -1,66 +1,56 @@
 // src/main/java/com/smartcane/transit/geocode/GeocodeController.java
 package com.smartcane.transit.controller;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcane.transit.config.GeocodeProperties;
+import com.smartcane.transit.dto.request.GeocodeBatchRequest;
+import com.smartcane.transit.dto.response.GeocodeBatchItem;
 import com.smartcane.transit.dto.response.GeocodeResult;
-import org.springframework.beans.factory.annotation.Value;
+import com.smartcane.transit.service.geocode.GeocodeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestClient;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 
 @RestController
 @RequestMapping("/api/geocode")
 @CrossOrigin(origins = "http://localhost:5173") // 프론트(dev)에서 호출 허용
+@RequiredArgsConstructor
 public class GeocodeController {
 
-    @Value("${vworld.api.key}")
-    private String apiKey;
-
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GeocodeService geocodeService;
+    private final GeocodeProperties props;
 
+    /**
+     * 주소 → 좌표.
+     * 같은 주소(정규화 기준)는 캐시에서 바로 응답하고, vWorld 는 캐시 미스일 때만 호출한다.
+     */
     @GetMapping
     public ResponseEntity<GeocodeResult> geocode(@RequestParam String address) {
-        // vWorld URL 생성
-        String url = UriComponentsBuilder
-                .fromHttpUrl("https://api.vworld.kr/req/address")
-                .queryParam("service", "address")
-                .queryParam("request", "getcoord")
-                .queryParam("version", "2.0")
-                .queryParam("crs", "epsg:4326")
-                .queryParam("address", address)
-                .queryParam("refine", "true")
-                .queryParam("simple", "false")
-                .queryParam("format", "json")
-                .queryParam("type", "road")
-                .queryParam("key", apiKey)
-                .build()
-                .toUriString();
-
-        String body = RestClient.create()
-                .get()
-                .uri(url)
-                .retrieve()
-                .body(String.class);
-
-        try {
-            JsonNode root = objectMapper.readTree(body);
-            JsonNode response = root.path("response");
-            String status = response.path("status").asText();
-
-            if (!"OK".equals(status)) {
-                throw new IllegalStateException("vWorld 응답 status != OK");
-            }
-
-            JsonNode point = response.path("result").path("point");
-            double x = point.path("x").asDouble();
-            double y = point.path("y").asDouble();
+        GeocodeResult result = geocodeService.geocode(address)
+                .orElseThrow(() -> new IllegalStateException("vWorld 응답 status=NOT_FOUND (address=" + address + ")"));
+        return ResponseEntity.ok(result);
+    }
 
-            GeocodeResult result = new GeocodeResult(x, y);
-            return ResponseEntity.ok(result);
-        } catch (Exception e) {
-            throw new RuntimeException("vWorld 응답 파싱 실패", e);
+    /**
+     * POST /api/geocode/batch
+     * - 주소 목록 일괄 변환. 중복 주소는 한 번만 조회하고, 캐시 히트는 즉시 내려준다.
+     * - Accept: application/x-ndjson 이면 완료되는 순서대로 한 줄씩 스트리밍
+     *   (application/json 이면 모두 모아 배열로 응답)
+     * - 일부 주소가 실패해도 나머지 결과는 정상적으로 내려가며, 실패 건은 error 필드로 표시
+     */
+    @PostMapping(value = "/batch",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<GeocodeBatchItem> geocodeBatch(@RequestBody GeocodeBatchRequest request) {
+        if (request == null || request.addresses() == null || request.addresses().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "addresses 가 비어 있습니다.");
+        }
+        if (request.addresses().size() > props.getBatchMaxSize()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "한 번에 최대 " + props.getBatchMaxSize() + "개 주소까지 요청할 수 있습니다.");
         }
+        return geocodeService.geocodeBatch(request.addresses());
     }
 }
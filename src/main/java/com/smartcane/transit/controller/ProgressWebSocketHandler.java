@@ -0,0 +1,148 @@
+package com.smartcane.transit.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcane.transit.config.RealtimeProperties;
+import com.smartcane.transit.dto.request.ProgressUpdateRequest;
+import com.smartcane.transit.dto.response.GuidanceResponse;
+import com.smartcane.transit.service.ProgressCoordinator;
+import com.smartcane.transit.service.ProgressCoordinator.PinnedTrip;
+import com.smartcane.transit.service.realtime.TripSubscriber;
+import com.smartcane.transit.service.realtime.TripUpdateBroadcaster;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WS /ws/trips/{tripId}/progress
+ * - 클라이언트 → 서버 : ProgressUpdateRequest (JSON 텍스트 프레임)
+ * - 서버 → 클라이언트 : GuidanceResponse, 그리고 서버 발 푸시(TripPushMessage, type 포함)
+ * - 연결 동안 TripState 는 코디네이터에 고정(write-behind), 연결 종료 시 저장
+ *   (같은 trip 의 HTTP progress/event 도 고정된 상태를 거치므로 서로 덮어쓰지 않는다)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProgressWebSocketHandler extends TextWebSocketHandler {
+
+    public static final String PATH = "/ws/trips/{tripId}/progress";
+
+    private static final UriTemplate PATH_TEMPLATE = new UriTemplate(PATH);
+    private static final String ATTR_PINNED = "pinnedTrip";
+    private static final String ATTR_OUT = "out";
+    private static final String ATTR_SUBSCRIBER = "subscriber";
+
+    private final ProgressCoordinator coordinator;
+    private final TripUpdateBroadcaster broadcaster;
+    private final RealtimeProperties props;
+    private final ObjectMapper objectMapper;
+
+    /** 종료 시 flush 용 */
+    private final Map<String, PinnedTrip> openTrips = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        String tripId = tripIdOf(session.getUri());
+        if (tripId == null || tripId.isBlank()) {
+            session.close(CloseStatus.BAD_DATA.withReason("tripId 가 없습니다."));
+            return;
+        }
+
+        PinnedTrip pinned;
+        try {
+            pinned = coordinator.pin(tripId);
+        } catch (RuntimeException e) {
+            log.warn("[WS] trip 고정 실패 tripId={} : {}", tripId, e.getMessage());
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("unknown trip"));
+            return;
+        }
+
+        // sendMessage 는 스레드 안전하지 않으므로 (응답 + 푸시 동시 전송) 데코레이터로 직렬화
+        WebSocketSession out = new ConcurrentWebSocketSessionDecorator(
+                session, (int) props.getWsSendTimeLimitMs(), props.getWsSendBufferBytes());
+        TripSubscriber subscriber = message -> out.isOpen() && send(out, message);
+
+        session.getAttributes().put(ATTR_PINNED, pinned);
+        session.getAttributes().put(ATTR_OUT, out);
+        session.getAttributes().put(ATTR_SUBSCRIBER, subscriber);
+        openTrips.put(session.getId(), pinned);
+        broadcaster.subscribe(tripId, subscriber);
+
+        log.info("[WS] 연결 tripId={} session={}", tripId, session.getId());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        PinnedTrip pinned = (PinnedTrip) session.getAttributes().get(ATTR_PINNED);
+        WebSocketSession out = (WebSocketSession) session.getAttributes().get(ATTR_OUT);
+        if (pinned == null || out == null) return;
+
+        ProgressUpdateRequest p;
+        try {
+            p = objectMapper.readValue(message.getPayload(), ProgressUpdateRequest.class);
+        } catch (JsonProcessingException e) {
+            send(out, Map.of("type", "ERROR", "message", "잘못된 진행 프레임입니다."));
+            return;
+        }
+
+        try {
+            GuidanceResponse guidance = coordinator.updatePinned(pinned, p);
+            send(out, guidance);
+        } catch (RuntimeException e) {
+            log.warn("[WS] 진행 처리 실패 tripId={} : {}", pinned.tripId(), e.getMessage());
+            send(out, Map.of("type", "ERROR", "message", String.valueOf(e.getMessage())));
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.debug("[WS] 전송 오류 session={} : {}", session.getId(), exception.getMessage());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        PinnedTrip pinned = (PinnedTrip) session.getAttributes().get(ATTR_PINNED);
+        TripSubscriber subscriber = (TripSubscriber) session.getAttributes().get(ATTR_SUBSCRIBER);
+        openTrips.remove(session.getId());
+        if (pinned == null) return;
+
+        if (subscriber != null) {
+            broadcaster.unsubscribe(pinned.tripId(), subscriber);
+        }
+        coordinator.release(pinned);
+        log.info("[WS] 종료 tripId={} session={} status={}", pinned.tripId(), session.getId(), status);
+    }
+
+    /** 서버 종료 시 열려 있는 세션의 상태를 내려쓰기 */
+    @PreDestroy
+    void flushAll() {
+        openTrips.values().forEach(coordinator::flush);
+    }
+
+    private boolean send(WebSocketSession out, Object payload) {
+        try {
+            out.sendMessage(new TextMessage(objectMapper.writeValueAsString(payload)));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.debug("[WS] 전송 실패 session={} : {}", out.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static String tripIdOf(URI uri) {
+        if (uri == null || !PATH_TEMPLATE.matches(uri.getPath())) return null;
+        return PATH_TEMPLATE.match(uri.getPath()).get("tripId");
+    }
+}
@@ -2,29 +2,39 @@ package com.smartcane.transit.controller;
 
 import com.smartcane.transit.dto.request.*;
 import com.smartcane.transit.dto.response.*;
+import com.smartcane.transit.service.NearbyStopService;
+import com.smartcane.transit.service.ProgressCoordinator;
 import com.smartcane.transit.service.RouteProgressService;
-import com.smartcane.transit.service.RouteService;
+import com.smartcane.transit.service.TripPlanService;
 import com.smartcane.transit.service.TripState;
 import com.smartcane.transit.service.TripStore;
+import com.smartcane.transit.service.realtime.TripEventStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import reactor.core.publisher.Mono;
 
-import java.util.UUID;
-
 @Tag(name = "실시간 길안내", description = "길찾기 계획 수립 및 진행 상태 업데이트 API")
 @RestController
 @RequestMapping("/api/transit") // ✅ 초기 설계에 맞춘 베이스 경로
 @RequiredArgsConstructor
 public class RouteController {
 
-    private final RouteService routeService;
+    /** 변경분만 응답 모드 opt-in 헤더 */
+    public static final String GUIDANCE_MODE_HEADER = "X-Guidance-Mode";
+    public static final String GUIDANCE_MODE_CHANGES_ONLY = "changes-only";
+
+    private final TripPlanService tripPlanService;
     private final RouteProgressService progressService;
     private final TripStore tripStore; // 상태 조회용 (InMemoryTripStore → 이후 Redis 교체)
+    private final NearbyStopService nearbyStopService;
+    private final TripEventStreamService tripEventStreamService;
 
 
     /**
@@ -46,31 +56,41 @@ public class RouteController {
             description = """
         SK 길찾기 API를 호출해 경로를 조회하고, 서버에서 tripId를 발급합니다.
         iOS/테스트 클라이언트에서는 이 tripId를 저장해 두었다가 이후 progress API 호출 시 사용합니다.
+        Idempotency-Key 헤더를 보내면 같은 키로 재시도해도 SK 를 다시 호출하지 않고 같은 tripId 를 돌려줍니다.
+        geometry=compact 를 주면 라인스트링을 단순화한 Encoded Polyline(polyline6)으로 내려줍니다.
         """
     )
     @PostMapping(value = "/plan", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<RoutePlanInitResponse> plan(@RequestBody RoutePlanRequest query) {
-        String tripId = UUID.randomUUID().toString(); // 서버 발급 tripId
-
-        return routeService.searchRoutes(query)      // Mono<SkTransitRootDto>
-                .map((SkTransitRootDto root) -> {
-                    // ✅ 이 시점의 root.metaData().plan().itineraries() 는
-                    //    이미 "버스 우선 → 지하철+버스" 로 필터된 상태
-                    SkTransitRootDto.MetaDataDto meta = root.metaData();
-
-                    // 초기 Trip 상태 등록 (보행 시작 기준)
-                    tripStore.init(
-                            tripId,
-                            meta,
-                            0,      // itineraryIndex
-                            0,      // legIndex
-                            null,   // stepIndex
-                            TripState.PHASE_WALKING
-                    );
-
-                    // iOS 에게는 tripId + MetaData 만 내려줌
-                    return new RoutePlanInitResponse(tripId, meta);
-                });
+    public Mono<RoutePlanInitResponse> plan(@RequestBody RoutePlanRequest query,
+                                            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                            @RequestParam(value = "geometry", required = false) String geometry) {
+        return withGeometry(tripPlanService.plan(query, idempotencyKey), geometry);
+    }
+
+    /**
+     * POST /api/transit/plan/places
+     *
+     * 출발/도착을 좌표 또는 주소로 받아 지오코딩 → 길찾기 → tripId 발급까지 한 번에 처리.
+     * (기존: /api/geocode 2회 + /plan 1회 = 순차 왕복 3번)
+     */
+    @Operation(
+            summary = "주소 기반 길찾기 계획 수립",
+            description = """
+        origin/destination 에 좌표(lon/lat) 또는 주소(address)를 넣으면
+        양 끝 지오코딩을 동시에 수행한 뒤 바로 경로를 조회하고 tripId 를 발급합니다.
+        응답 형식과 Idempotency-Key 동작은 /plan 과 같습니다.
+        """
+    )
+    @PostMapping(value = "/plan/places", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<RoutePlanInitResponse> planPlaces(@RequestBody PlacePlanRequest request,
+                                                  @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                  @RequestParam(value = "geometry", required = false) String geometry) {
+        return withGeometry(tripPlanService.planPlaces(request, idempotencyKey), geometry);
+    }
+
+    /** geometry=compact 면 응답만 압축 표현으로 변환 (기본: 원본) */
+    private Mono<RoutePlanInitResponse> withGeometry(Mono<RoutePlanInitResponse> plan, String geometry) {
+        return "compact".equalsIgnoreCase(geometry) ? plan.map(tripPlanService::compact) : plan;
     }
 
     /**
@@ -81,12 +101,71 @@ public class RouteController {
 
     @Operation(
             summary = "진행 상황 업로드",
-            description = "현재 위치/센서 데이터를 업로드하면 다음 안내(다음 타겟, 상태) 정보를 응답합니다."
+            description = "현재 위치/센서 데이터를 업로드하면 다음 안내(다음 타겟, 상태) 정보를 응답합니다. "
+                    + "X-Guidance-Mode: changes-only 를 보내면 직전 안내와 달라진 게 없을 때 304 를 응답합니다."
     )
     @PostMapping("/trips/{tripId}/progress")
-    public GuidanceResponse progress(@PathVariable String tripId,
-                                     @RequestBody ProgressUpdateEnvelope req) {
-        return progressService.updateProgress(tripId, req);
+    public ResponseEntity<GuidanceResponse> progress(@PathVariable String tripId,
+                                                     @RequestHeader(value = GUIDANCE_MODE_HEADER, required = false) String guidanceMode,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                     @RequestBody ProgressUpdateEnvelope req) {
+        var result = progressService.updateProgressConditional(tripId, req);
+        return conditional(result, guidanceMode, ifNoneMatch, result.guidance());
+    }
+
+    /**
+     * POST /api/transit/trips/{tripId}/progress (Content-Type: application/cbor)
+     * - 저대역 단말용: 정수 마이크로도 좌표의 압축 업링크 → 압축 안내 응답
+     * - 같은 경로의 JSON 버전과 처리 로직은 동일 (metaData 동봉 불가)
+     */
+    @Operation(
+            summary = "진행 상황 업로드 (CBOR)",
+            description = "application/cbor 로 CompactProgressUpdate 를 보내면 CompactGuidance 를 CBOR 로 응답합니다."
+    )
+    @PostMapping(value = "/trips/{tripId}/progress",
+            consumes = MediaType.APPLICATION_CBOR_VALUE,
+            produces = MediaType.APPLICATION_CBOR_VALUE)
+    public ResponseEntity<CompactGuidance> progressCompact(@PathVariable String tripId,
+                                                           @RequestHeader(value = GUIDANCE_MODE_HEADER, required = false) String guidanceMode,
+                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                           @RequestBody CompactProgressUpdate req) {
+        var result = progressService.updateProgressConditional(
+                tripId, new ProgressUpdateEnvelope(null, req.toRequest()));
+        return conditional(result, guidanceMode, ifNoneMatch, CompactGuidance.from(result.guidance()));
+    }
+
+    /**
+     * 변경분만 응답 모드
+     * - 항상 ETag(안내 지문)를 붙인다
+     * - X-Guidance-Mode: changes-only 이고 직전 안내와 달라진 게 없으면 → 304 (본문 없음)
+     * - If-None-Match 가 현재 지문과 같아도 → 304
+     */
+    private static <T> ResponseEntity<T> conditional(ProgressCoordinator.ConditionalGuidance result,
+                                                     String guidanceMode,
+                                                     String ifNoneMatch,
+                                                     T body) {
+        boolean changesOnly = GUIDANCE_MODE_CHANGES_ONLY.equalsIgnoreCase(guidanceMode);
+        boolean notModified = (changesOnly && !result.changed())
+                || (ifNoneMatch != null && ifNoneMatch.equals(result.etag()));
+        if (notModified) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(result.etag()).build();
+        }
+        return ResponseEntity.ok().eTag(result.etag()).body(body);
+    }
+
+    /**
+     * POST /api/transit/trips/{tripId}/progress/batch
+     * - 백그라운드 복귀/재연결 시 쌓인 샘플을 한 번에 업로드
+     * - 상태는 한 번만 로드/저장하고, 마지막 안내 + 중간 전이 이벤트만 응답
+     */
+    @Operation(
+            summary = "진행 상황 배치 업로드",
+            description = "시간순 샘플 배열을 한 번에 반영하고, 마지막 샘플 기준 안내와 배치 도중의 상태 전이 목록을 응답합니다."
+    )
+    @PostMapping("/trips/{tripId}/progress/batch")
+    public ProgressBatchResponse progressBatch(@PathVariable String tripId,
+                                               @RequestBody ProgressBatchRequest req) {
+        return progressService.updateProgressBatch(tripId, req);
     }
 
     /**
@@ -106,68 +185,52 @@ public class RouteController {
     /**
      * POST /api/transit/trips/{tripId}/event
      * - (옵션) 승/하차/환승 확정 이벤트 업링크
-     * - 최소 구현: phase 업데이트 정도만 처리(향후 고도화)
+     * - phase 전이는 TripStateMachine 전이 표를 따른다 (허용되지 않는 전이는 409)
      */
     @Operation(
             summary = "Trip 이벤트 전송",
-            description = "BOARD, ALIGHT, TRANSFER_CONFIRMED, ARRIVED, CANCEL 등의 이벤트로 Trip 상태를 갱신합니다."
+            description = "BOARD, ALIGHT, TRANSFER_CONFIRMED, ARRIVED, CANCEL 등의 이벤트로 Trip 상태를 갱신합니다. (JSON 또는 CBOR)"
     )
-    @PostMapping("/trips/{tripId}/event")
+    @PostMapping(value = "/trips/{tripId}/event",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public ResponseEntity<Void> pushEvent(@PathVariable String tripId,
                                           @RequestBody TripEventRequest event) {
-        TripState state = tripStore.load(tripId);
+        TripState state = progressService.applyEvent(tripId, event);
         if (state == null) return ResponseEntity.notFound().build();
-
-        String type = event.type(); // "BOARD" / "ALIGHT" / "TRANSFER_CONFIRMED" / "ARRIVED" / "CANCEL"
-
-        switch (type) {
-            case "BOARD" -> {
-                // 버스/지하철 탑승 완료
-                state.setPhase(TripState.PHASE_ONBOARD);
-                // 필요하면 여기서 arrivalStreak 리셋 등도 가능
-                state.setArrivalStreak(0);
-            }
-            case "ALIGHT" -> {
-                // 버스/지하철 하차 완료 → 보통 환승 or 최종 보행 준비 상태
-                state.setPhase(TripState.PHASE_TRANSFER);
-                state.setArrivalStreak(0);
-            }
-            case "TRANSFER_CONFIRMED" -> {
-                // 사용자가 "이제 다음 구간 보행 시작" 같은 제스처를 했다고 가정
-                state.setPhase(TripState.PHASE_WALKING);
-                state.setArrivalStreak(0);
-            }
-            case "ARRIVED" -> {
-                // 사용자가 "도착 맞음"을 눌렀다거나, 앱에서 강제 종료 전에 마지막 상태 저장
-                state.setPhase(TripState.PHASE_ARRIVED);
-            }
-            case "CANCEL" -> {
-                state.setPhase(TripState.PHASE_CANCELLED);
-            }
-            default -> {
-                // no-op
-            }
-        }
-
-        tripStore.save(tripId, state);
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * GET /api/transit/trips/{tripId}/events
+     * - SSE 구독: 버스 도착 정보 변화(BUS_ARRIVAL), phase 전이(PHASE_CHANGED)를 발생 즉시 푸시
+     * - 구독 직후 현재 상태(STATE)를 한 번 보낸다
+     */
+    @Operation(
+            summary = "Trip 이벤트 구독(SSE)",
+            description = "정류장 대기 중 버스 도착 정보 변화와 자동 탑승 감지 등 상태 전이를 Server-Sent Events 로 받습니다."
+    )
+    @GetMapping(value = "/trips/{tripId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeEvents(@PathVariable String tripId) {
+        return tripEventStreamService.subscribe(tripId);
+    }
+
     /**
      * GET /api/transit/stops/nearby
      * - 반경 내 정류장/역 검색(보조)
-     * - 현재는 스텁: 추후 SK 주변정류장/역 조회 API 연동
+     * - 타일 단위로 캐시된 정류장 목록을 합쳐 거리순으로 응답 (limit: 가까운 k개, page/size: 페이징)
      */
     @Operation(
-            summary = "주변 정류장 조회(Stub)",
-            description = "현재는 501을 반환하는 스텁입니다. 추후 SK 주변 정류장 API 연동 예정."
+            summary = "주변 정류장 조회",
+            description = "반경(radiusM) 안의 정류장을 거리순으로 조회합니다. limit 으로 가까운 k개만, page/size 로 페이징할 수 있습니다."
     )
     @GetMapping("/stops/nearby")
-    public ResponseEntity<Void> nearbyStops(@RequestParam double lon,
-                                            @RequestParam double lat,
-                                            @RequestParam(defaultValue = "150") double radiusM) {
-        // TODO: SK 주변 정류장/역 검색 API 연동 후 DTO로 응답
-        return ResponseEntity.status(501).build(); // Not Implemented
+    public Mono<NearbyStopsResponse> nearbyStops(@RequestParam double lon,
+                                                 @RequestParam double lat,
+                                                 @RequestParam(defaultValue = "150") double radiusM,
+                                                 @RequestParam(required = false) Integer limit,
+                                                 @RequestParam(defaultValue = "0") int page,
+                                                 @RequestParam(defaultValue = "20") int size) {
+        return nearbyStopService.nearby(lat, lon, radiusM, limit, page, size);
     }
 
     // ------------------------------
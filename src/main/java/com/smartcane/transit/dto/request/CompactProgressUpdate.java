@@ -0,0 +1,50 @@
+package com.smartcane.transit.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 저대역 링크(지팡이 단말)용 압축 진행 업링크 — application/cbor 전용
+ * - 좌표: 정수 마이크로도(1e-6°, ≈ 0.11m)
+ * - 속도: cm/s, 반경/프리뷰: dm
+ * - 키 이름은 1~2글자 (CBOR 에서도 키 문자열은 그대로 실리므로)
+ * - metaData 는 싣지 않는다 (서버에 plan 이 있어야 함)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CompactProgressUpdate(
+        @JsonProperty("a") int latE6,
+        @JsonProperty("o") int lonE6,
+        @JsonProperty("s") Integer speedCmps,         // 선택
+        @JsonProperty("t") Long timestampEpochMs,     // 선택
+        @JsonProperty("h") Integer headingDeg,        // 선택 (0~359)
+        @JsonProperty("r") Integer arriveRadiusDm,    // 선택
+        @JsonProperty("k") Integer lookAheadDm        // 선택
+) {
+
+    public static int toE6(double deg) {
+        return (int) Math.round(deg * 1_000_000.0);
+    }
+
+    public static CompactProgressUpdate from(ProgressUpdateRequest p) {
+        return new CompactProgressUpdate(
+                toE6(p.lat()), toE6(p.lon()),
+                p.speedMps() != null ? (int) Math.round(p.speedMps() * 100.0) : null,
+                p.timestampEpochMs(),
+                p.headingDeg() != null ? (int) Math.round(p.headingDeg()) : null,
+                p.arriveRadiusM() != null ? (int) Math.round(p.arriveRadiusM() * 10.0) : null,
+                p.lookAheadM() != null ? (int) Math.round(p.lookAheadM() * 10.0) : null
+        );
+    }
+
+    public ProgressUpdateRequest toRequest() {
+        return new ProgressUpdateRequest(
+                lonE6 / 1_000_000.0,
+                latE6 / 1_000_000.0,
+                speedCmps != null ? speedCmps / 100.0 : null,
+                timestampEpochMs,
+                headingDeg != null ? headingDeg.doubleValue() : null,
+                arriveRadiusDm != null ? arriveRadiusDm / 10.0 : null,
+                lookAheadDm != null ? lookAheadDm / 10.0 : null
+        );
+    }
+}
@@ -0,0 +1,10 @@
+package com.smartcane.transit.dto.request;
+
+import java.util.List;
+
+/**
+ * 일괄 지오코딩 요청 (보호자 포털의 저장 장소 가져오기 등)
+ */
+public record GeocodeBatchRequest(
+        List<String> addresses
+) {}
@@ -0,0 +1,17 @@
+package com.smartcane.transit.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * 주소/좌표 혼합 길찾기 요청 (/api/transit/plan/places)
+ * - 지오코딩 + 경로 탐색 + tripId 발급을 한 번의 호출로 처리
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PlacePlanRequest(
+        PlaceQuery origin,
+        PlaceQuery destination,
+        Integer lang,         // 0(ko) 등
+        Integer count,        // 경로 개수
+        String searchDttm,    // "yyyyMMddHHmm"
+        String profile        // 경로 점수 프로필 (없으면 기본 가중치)
+) {}
@@ -0,0 +1,16 @@
+package com.smartcane.transit.dto.request;
+
+/**
+ * 출발지/도착지 지정: 좌표(lon/lat) 또는 주소 중 하나
+ * - lon/lat 이 모두 있으면 좌표를 그대로 사용
+ * - 아니면 address 를 지오코딩
+ */
+public record PlaceQuery(
+        String address,
+        Double lon,
+        Double lat
+) {
+    public boolean hasCoordinate() {
+        return lon != null && lat != null;
+    }
+}
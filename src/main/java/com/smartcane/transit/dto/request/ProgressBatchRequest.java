@@ -0,0 +1,27 @@
+package com.smartcane.transit.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+
+import java.util.List;
+
+/**
+ * 배치 진행 업링크
+ * - 백그라운드 복귀/재연결 시 쌓아 둔 샘플을 시간순으로 한 번에 전송
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProgressBatchRequest(
+
+        /** (선택) ProgressUpdateEnvelope.metaData 와 동일 */
+        @JsonProperty("metaData")
+        SkTransitRootDto.MetaDataDto metaData,
+
+        /** (선택) ProgressUpdateEnvelope.planHash 와 동일 */
+        @JsonProperty("planHash")
+        String planHash,
+
+        /** 필수: 시간순(오래된 것 → 최신) 진행 샘플 */
+        @JsonProperty("samples")
+        List<ProgressUpdateRequest> samples
+) {}
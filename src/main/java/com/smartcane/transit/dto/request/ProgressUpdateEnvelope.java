@@ -16,9 +16,21 @@ public record ProgressUpdateEnvelope(
         @JsonProperty("metaData")
         SkTransitRootDto.MetaDataDto metaData,
 
+        /**
+         * (선택) /plan 응답의 planHash
+         * - 서버가 meta 를 잃었을 때 metaData 전체 대신 이것만 보내면 공유 캐시에서 복원한다.
+         * - 캐시에도 없으면 412 → 그때만 metaData 를 함께 보내면 된다.
+         */
+        @JsonProperty("planHash")
+        String planHash,
+
         /**
          * 필수: 진행 정보
          */
         @JsonProperty("progress")
         ProgressUpdateRequest progress
-) {}
+) {
+    public ProgressUpdateEnvelope(SkTransitRootDto.MetaDataDto metaData, ProgressUpdateRequest progress) {
+        this(metaData, null, progress);
+    }
+}
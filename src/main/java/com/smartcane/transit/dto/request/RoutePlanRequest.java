@@ -13,5 +13,7 @@ public record RoutePlanRequest(
         @JsonProperty("lang")   Integer lang,        // 0(ko) 등
         @JsonProperty("format") String format,       // "json"
         @JsonProperty("count")  Integer count,       // 경로 개수
-        @JsonProperty("searchDttm") String searchDttm // "yyyyMMddHHmm"
+        @JsonProperty("searchDttm") String searchDttm, // "yyyyMMddHHmm"
+        // 경로 점수 프로필 (smartcane.route-scoring.profiles) — 서버에서만 쓰고 SK 로는 보내지 않는다
+        @JsonProperty(value = "profile", access = JsonProperty.Access.WRITE_ONLY) String profile
 ) {}
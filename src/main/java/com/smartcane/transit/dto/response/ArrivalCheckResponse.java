@@ -14,6 +14,7 @@ package com.smartcane.transit.dto.response;
  * - currentStationIndex: BUS/SUBWAY 기준, 현재 위치에서 가장 가까운 정류장 인덱스
  * - stopsLeft         : 남은 정류장 수
  * - offRoute          : 경로 이탈 여부
+ * - routeOffsetM      : itinerary 시작점부터 현재 위치(경로에 스냅)까지 경로상 거리(m), 모르면 null
  */
 public record ArrivalCheckResponse(
         boolean arrived,
@@ -25,5 +26,6 @@ public record ArrivalCheckResponse(
         Integer currentStepIndex,   // 👈 WALK: 현재 스냅된 step 인덱스
         Integer currentStationIndex,
         Integer stopsLeft,
-        boolean offRoute
+        boolean offRoute,
+        Double routeOffsetM
 ) {}
@@ -0,0 +1,73 @@
+package com.smartcane.transit.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * 저대역 링크용 압축 안내 응답 — application/cbor 전용
+ * - tripId 생략 (요청 경로에 이미 있음)
+ * - phase: 정수 코드 (PHASES 인덱스)
+ * - 남은 거리: dm 정수
+ * - 지오펜스 좌표: 정수 마이크로도(1e-6°), 반경: m 정수
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CompactGuidance(
+        @JsonProperty("i") int itineraryIndex,
+        @JsonProperty("l") int legIndex,
+        @JsonProperty("p") int phase,
+        @JsonProperty("t") String tts,
+        @JsonProperty("d") int distanceToTargetDm,
+        @JsonProperty("e") Integer etaToTargetSec,
+        @JsonProperty("f") Integer etaToDestinationSec,
+        @JsonProperty("u") Integer nextUplinkSec,
+        @JsonProperty("m") Integer nextUplinkMeters,
+        @JsonProperty("g") List<Zone> geofences
+) {
+    /** phase 코드표 (순서 고정 — 클라이언트와 공유) */
+    public static final List<String> PHASES = List.of(
+            "WALKING", "WAITING_TRANSIT", "ONBOARD", "TRANSFER", "ARRIVED", "CANCELLED"
+    );
+
+    /** 지오펜스 종류 코드표 (순서 고정 — 클라이언트와 공유) */
+    public static final List<String> ZONE_KINDS = List.of(
+            "STEP", "BOARD", "ALIGHT", "LEG_END", "DESTINATION", GeofenceZone.KIND_STOP_APPROACH
+    );
+
+    public record Zone(
+            @JsonProperty("k") int kind,
+            @JsonProperty("l") int legIndex,
+            @JsonProperty("a") int latE6,
+            @JsonProperty("o") int lonE6,
+            @JsonProperty("r") int radiusM
+    ) {
+        static Zone from(GeofenceZone z) {
+            return new Zone(ZONE_KINDS.indexOf(z.kind()), z.legIndex(),
+                    (int) Math.round(z.lat() * 1_000_000.0), (int) Math.round(z.lon() * 1_000_000.0),
+                    (int) Math.round(z.radiusM()));
+        }
+    }
+
+    public static int phaseCode(String phase) {
+        int idx = (phase != null) ? PHASES.indexOf(phase) : -1;
+        return idx; // 모르는 값은 -1
+    }
+
+    public static CompactGuidance from(GuidanceResponse g) {
+        double d = g.distanceToTargetM();
+        int dm = (Double.isNaN(d) || Double.isInfinite(d)) ? -1 : (int) Math.min(Integer.MAX_VALUE, Math.round(d * 10.0));
+        return new CompactGuidance(
+                g.itineraryIndex(),
+                g.legIndex(),
+                phaseCode(g.phase()),
+                g.tts(),
+                dm,
+                g.etaToTargetSec(),
+                g.etaToDestinationSec(),
+                g.nextUplinkSec(),
+                g.nextUplinkMeters(),
+                g.geofences() != null ? g.geofences().stream().map(Zone::from).toList() : null
+        );
+    }
+}
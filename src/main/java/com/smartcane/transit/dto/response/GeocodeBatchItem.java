@@ -0,0 +1,16 @@
+package com.smartcane.transit.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * 일괄 지오코딩 결과 한 건.
+ * - 성공: result 채워짐
+ * - 실패: error 에 사유 ("NOT_FOUND" 또는 오류 메시지)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record GeocodeBatchItem(
+        String address,
+        GeocodeResult result,
+        boolean cached,
+        String error
+) {}
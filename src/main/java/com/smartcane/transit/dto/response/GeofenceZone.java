@@ -0,0 +1,20 @@
+package com.smartcane.transit.dto.response;
+
+/**
+ * 단말 쪽 지오펜스 1개 — 이 원에 들어가면 (또는 keep-alive 간격이 지나면) 업링크
+ *
+ * @param kind      STEP / BOARD / ALIGHT / LEG_END / DESTINATION / STOP_APPROACH(하차 직전 정류장)
+ * @param stepIndex STEP 일 때만, 그 외 null
+ * @param aheadM    현재 위치에서 경로를 따라 잰 거리(m), 모르면 null
+ */
+public record GeofenceZone(
+        String kind,
+        int legIndex,
+        Integer stepIndex,
+        double lat,
+        double lon,
+        double radiusM,
+        Double aheadM
+) {
+    public static final String KIND_STOP_APPROACH = "STOP_APPROACH";
+}
@@ -1,5 +1,7 @@
 package com.smartcane.transit.dto.response;
 
+import java.util.List;
+
 public record GuidanceResponse(
         String tripId,
         int itineraryIndex,
@@ -7,5 +9,9 @@ public record GuidanceResponse(
         String phase,             // WALKING/ONBOARD/TRANSFER/ARRIVED...
         String tts,     // 음성 안내 문구
         double distanceToTargetM,  // 남은 거리
-        Integer etaToTargetSec // 선택
+        Integer etaToTargetSec,      // 다음 안내 지점까지 예상 소요(초), 모르면 null
+        Integer etaToDestinationSec, // 목적지까지 예상 소요(초), 모르면 null
+        Integer nextUplinkSec,       // 권장 다음 업링크 간격(초), 업링크가 더 필요 없으면 null
+        Integer nextUplinkMeters,    // 권장 다음 업링크 이동 거리(m) — 둘 중 먼저 도달하는 쪽에서 업링크
+        List<GeofenceZone> geofences // 다음 안내 지점 지오펜스 (들어가면 업링크, nextUplinkSec 는 keep-alive)
 ) {}
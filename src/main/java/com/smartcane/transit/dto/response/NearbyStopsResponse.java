@@ -0,0 +1,27 @@
+package com.smartcane.transit.dto.response;
+
+import java.util.List;
+
+/**
+ * /api/transit/stops/nearby 응답
+ * - stops : 거리 오름차순, page/size 로 자른 결과
+ * - total : 반경(및 limit) 안의 전체 정류장 수
+ */
+public record NearbyStopsResponse(
+        double lat,
+        double lon,
+        double radiusM,
+        int total,
+        int page,
+        int size,
+        List<NearbyStop> stops
+) {
+    public record NearbyStop(
+            String nodeId,
+            String cityCode,
+            String name,
+            double lat,
+            double lon,
+            double distanceM
+    ) {}
+}
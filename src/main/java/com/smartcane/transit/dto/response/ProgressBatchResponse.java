@@ -0,0 +1,24 @@
+package com.smartcane.transit.dto.response;
+
+import java.util.List;
+
+/**
+ * 배치 진행 업링크 응답
+ * - guidance    : 마지막 샘플 기준 안내
+ * - processed   : 처리한 샘플 수
+ * - transitions : 배치 도중 일어난 phase/leg 전이 (시간순)
+ */
+public record ProgressBatchResponse(
+        GuidanceResponse guidance,
+        int processed,
+        List<ProgressTransition> transitions
+) {
+    public record ProgressTransition(
+            int sampleIndex,
+            long timestampEpochMs,
+            String fromPhase,
+            String toPhase,
+            int fromLegIndex,
+            int toLegIndex
+    ) {}
+}
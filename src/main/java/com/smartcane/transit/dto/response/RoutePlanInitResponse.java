@@ -1,13 +1,25 @@
 package com.smartcane.transit.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
  * /api/transit/plan 응답 DTO
  * - tripId: 서버가 발급한 세션 ID
  * - metaData: SK 길찾기 응답의 MetaData (필터링된 itineraries 포함)
+ * - planHash: metaData 내용 해시. 서버가 meta 를 잃었을 때 진행 업링크에 metaData 대신 실어 보낸다
+ * - geometryEncoding: null 이면 원본 "lon,lat lon,lat" 라인스트링,
+ *                     "polyline6" 이면 linestring 필드가 단순화된 Encoded Polyline(lat,lon, 1e-6)
+ *   (압축 응답을 받은 클라이언트는 복구 시 metaData 대신 planHash 를 보내야 한다)
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record RoutePlanInitResponse(
         @JsonProperty("tripId") String tripId,
-        @JsonProperty("metaData") SkTransitRootDto.MetaDataDto metaData
-) {}
+        @JsonProperty("metaData") SkTransitRootDto.MetaDataDto metaData,
+        @JsonProperty("planHash") String planHash,
+        @JsonProperty("geometryEncoding") String geometryEncoding
+) {
+    public RoutePlanInitResponse(String tripId, SkTransitRootDto.MetaDataDto metaData, String planHash) {
+        this(tripId, metaData, planHash, null);
+    }
+}
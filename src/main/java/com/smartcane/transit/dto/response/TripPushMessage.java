@@ -0,0 +1,55 @@
+package com.smartcane.transit.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * 서버 → 클라이언트 푸시 메시지 (실시간 채널)
+ * - type 으로 구분: BUS_ARRIVAL / PHASE_CHANGED / REPLANNED(이탈 재탐색으로 경로 교체)
+ *   / ITINERARY_SWITCHED(다른 후보 경로로 전환, routeNo = 전환된 leg 노선) / STATE(구독 직후 현재 상태)
+ * - 진행 응답(GuidanceResponse)과 구분되도록 항상 type 을 포함한다
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TripPushMessage(
+        String type,
+        String tripId,
+        Integer legIndex,
+        String previousPhase,
+        String phase,
+        String tts,
+        String routeNo,
+        Integer stopsLeft,
+        Integer secondsLeft,
+        long sentAtEpochMs
+) {
+    public static final String TYPE_BUS_ARRIVAL = "BUS_ARRIVAL";
+    public static final String TYPE_PHASE_CHANGED = "PHASE_CHANGED";
+    public static final String TYPE_REPLANNED = "REPLANNED";
+    public static final String TYPE_ITINERARY_SWITCHED = "ITINERARY_SWITCHED";
+    public static final String TYPE_STATE = "STATE";
+
+    public static TripPushMessage busArrival(String tripId, int legIndex, String phase, String tts,
+                                             String routeNo, Integer stopsLeft, Integer secondsLeft) {
+        return new TripPushMessage(TYPE_BUS_ARRIVAL, tripId, legIndex, null, phase, tts,
+                routeNo, stopsLeft, secondsLeft, System.currentTimeMillis());
+    }
+
+    public static TripPushMessage phaseChanged(String tripId, int legIndex, String previousPhase, String phase) {
+        return new TripPushMessage(TYPE_PHASE_CHANGED, tripId, legIndex, previousPhase, phase, null,
+                null, null, null, System.currentTimeMillis());
+    }
+
+    public static TripPushMessage replanned(String tripId, int legIndex, String phase, String tts) {
+        return new TripPushMessage(TYPE_REPLANNED, tripId, legIndex, null, phase, tts,
+                null, null, null, System.currentTimeMillis());
+    }
+
+    public static TripPushMessage itinerarySwitched(String tripId, int legIndex, String phase, String tts, String routeNo) {
+        return new TripPushMessage(TYPE_ITINERARY_SWITCHED, tripId, legIndex, null, phase, tts,
+                routeNo, null, null, System.currentTimeMillis());
+    }
+
+    public static TripPushMessage state(String tripId, int legIndex, String phase) {
+        return new TripPushMessage(TYPE_STATE, tripId, legIndex, null, phase, null,
+                null, null, null, System.currentTimeMillis());
+    }
+}
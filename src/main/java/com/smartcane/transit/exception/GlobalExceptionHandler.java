@@ -5,6 +5,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Map;
 
@@ -18,6 +19,14 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<?> handleStatus(ResponseStatusException e) {
+        String reason = (e.getReason() != null) ? e.getReason() : e.getStatusCode().toString();
+        return ResponseEntity.status(e.getStatusCode()).body(
+                Map.of("error", "REQUEST_REJECTED", "message", reason)
+        );
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleAny(Exception e) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -18,6 +18,7 @@ import java.util.List;
 public class BusStationService {
 
     private final PublicDataProperties props;
+    private final BusStopIndex busStopIndex;
 
     // 공공데이터포털 API용 WebClient 생성 (ServiceKey 인코딩 방지)
     private WebClient getClient() {
@@ -32,8 +33,23 @@ public class BusStationService {
     }
     /**
      * 좌표(위도, 경도)로 가장 가까운 공공데이터 정류소 정보 조회
+     * - 오프라인 정류장 색인(BusStopIndex)이 있으면 그걸로 바로 응답 (네트워크/쿼터 없음)
+     * - 색인이 없거나 stopMatchMaxM 안에 정류장이 없으면 원격 API 로 폴백
      */
     public Mono<PublicStationInfo> findNearestStation(double lat, double lon) {
+        if (busStopIndex.isLoaded()) {
+            var hits = busStopIndex.nearest(lat, lon, 1, props.getStopMatchMaxM());
+            if (!hits.isEmpty()) {
+                return Mono.just(hits.get(0).station());
+            }
+        }
+        return findNearestStationRemote(lat, lon);
+    }
+
+    /**
+     * 원격 API(좌표기반근접정류소목록조회)로 가장 가까운 정류소 조회
+     */
+    public Mono<PublicStationInfo> findNearestStationRemote(double lat, double lon) {
         return getClient().get()
                 .uri(uriBuilder -> uriBuilder
                         .path("/getCrdntPrxmtSttnList") // 좌표기반근접정류소목록조회
@@ -51,6 +67,45 @@ public class BusStationService {
                 });
     }
 
+    /**
+     * 원격 API 로 좌표 주변 정류소 목록 조회 (좌표 없는 항목은 제외)
+     * - 주변 정류장 타일 캐시(NearbyStopService)의 원격 소스로 사용
+     * - 실패는 빈 목록으로 바꾸지 않고 그대로 error 로 내린다 (빈 결과가 타일 캐시에 남지 않도록)
+     * - totalCount 가 numOfRows 보다 크면 truncated (잘린 목록)
+     */
+    public Mono<NearbyStations> findStationsNearRemote(double lat, double lon) {
+        int rows = Math.max(1, props.getNearbyRemoteRows());
+        return getClient().get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/getCrdntPrxmtSttnList")
+                        .queryParam("serviceKey", props.getServiceKey())
+                        .queryParam("gpsLati", lat)
+                        .queryParam("gpsLong", lon)
+                        .queryParam("numOfRows", rows)
+                        .queryParam("_type", "json")
+                        .build())
+                .retrieve()
+                .bodyToMono(StationResponse.class)
+                .map(res -> {
+                    List<StationPoint> points = toStationPoints(res);
+                    Integer total = (res != null && res.response != null && res.response.body != null)
+                            ? res.response.body.totalCount : null;
+                    return new NearbyStations(points, total != null && total > rows);
+                })
+                .doOnError(e -> log.error("공공데이터 주변 정류소 조회 실패: {}", e.getMessage()));
+    }
+
+    private static List<StationPoint> toStationPoints(StationResponse res) {
+        if (res == null || res.response == null || res.response.body == null ||
+                res.response.body.items == null || res.response.body.items.item == null) {
+            return List.of();
+        }
+        return res.response.body.items.item.stream()
+                .filter(i -> i != null && i.gpslati != null && i.gpslong != null)
+                .map(i -> new StationPoint(new PublicStationInfo(i.nodeid, i.citycode, i.nodenm), i.gpslati, i.gpslong))
+                .toList();
+    }
+
     // 결과 목록 중 가장 가까운 것 하나 선택
     private PublicStationInfo pickBestMatch(StationResponse res, double lat, double lon) {
         // null 체크 단계가 늘어남
@@ -62,8 +117,22 @@ public class BusStationService {
         List<StationItem> itemList = res.response.body.items.item; // ✅ .item으로 접근
         if (itemList.isEmpty()) return null;
 
-        // 가장 가까운 정류소 1개 리턴
-        StationItem best = itemList.get(0);
+        // 가장 가까운 정류소 1개 리턴 (API 정렬 순서를 믿지 않고 좌표로 직접 비교)
+        StationItem best = null;
+        double bestDist = Double.POSITIVE_INFINITY;
+        for (StationItem item : itemList) {
+            if (item == null) continue;
+            if (item.gpslati == null || item.gpslong == null) {
+                if (best == null) best = item; // 좌표가 하나도 없을 때를 위한 기존 동작(첫 번째)
+                continue;
+            }
+            double d = GeoUtils.haversine(lat, lon, item.gpslati, item.gpslong);
+            if (d < bestDist) {
+                bestDist = d;
+                best = item;
+            }
+        }
+        if (best == null) return null;
 
         return new PublicStationInfo(best.nodeid, best.citycode, best.nodenm);
     }
@@ -71,6 +140,11 @@ public class BusStationService {
     // --- 내부 DTO ---
     public record PublicStationInfo(String nodeId, String cityCode, String nodeName) {}
 
+    public record StationPoint(PublicStationInfo station, double lat, double lon) {}
+
+    /** 원격 주변 정류소 조회 결과 (truncated = numOfRows 에서 잘려 더 있음) */
+    public record NearbyStations(List<StationPoint> stops, boolean truncated) {}
+
     @JsonIgnoreProperties(ignoreUnknown = true)
     record StationResponse(BodyWrapper response) {}
 
@@ -78,7 +152,7 @@ public class BusStationService {
     record BodyWrapper(Body body) {}
 
     @JsonIgnoreProperties(ignoreUnknown = true)
-    record Body(ItemsWrapper items) {} // ✅ items는 객체로 감싸져 있음
+    record Body(ItemsWrapper items, Integer numOfRows, Integer totalCount) {} // ✅ items는 객체로 감싸져 있음
 
     @JsonIgnoreProperties(ignoreUnknown = true)
     record ItemsWrapper(List<StationItem> item) {} // ✅ 그 안에 'item'이라는 리스트가 있음
@@ -0,0 +1,377 @@
+package com.smartcane.transit.service;
+
+import com.smartcane.transit.config.PublicDataProperties;
+import com.smartcane.transit.service.BusStationService.PublicStationInfo;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 오프라인 전국 버스정류장 색인
+ *
+ * - 기동 시 공공데이터 "전국 버스정류장 위치정보" CSV 를 읽어 프리미티브 배열로 보관
+ * - 정류장들을 격자 칸(cell) 순서로 정렬하고 칸별 시작 오프셋만 두는 CSR 형태의 격자 색인
+ * - k-최근접 / 반경 검색은 질의 칸부터 바깥 고리(ring)로 넓혀 가며 필요한 칸만 본다
+ *
+ * CSV 가 설정되지 않았거나 읽지 못하면 비어 있는 색인으로 동작하고,
+ * BusStationService 가 원격 API 로 폴백한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BusStopIndex {
+
+    private static final double M_PER_DEG = 111_320.0;
+
+    private final PublicDataProperties props;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /** 검색 결과 한 건 */
+    public record StopHit(PublicStationInfo station, double lat, double lon, double distanceM) {}
+
+    @PostConstruct
+    void load() {
+        String file = props.getStopCatalogFile();
+        if (file == null || file.isBlank()) {
+            log.info("[BusStopIndex] stop-catalog-file 미설정 → 원격 정류소 API 만 사용");
+            return;
+        }
+        Path path = Path.of(file);
+        if (!Files.exists(path)) {
+            log.warn("[BusStopIndex] 정류장 CSV 가 없습니다: {}", path.toAbsolutePath());
+            return;
+        }
+        long started = System.nanoTime();
+        try (BufferedReader reader = Files.newBufferedReader(path, Charset.forName(props.getStopCatalogCharset()))) {
+            snapshot = Snapshot.build(reader, props.getStopCatalogCellM());
+            log.info("[BusStopIndex] 정류장 {}개 로드 ({}칸, {}ms)",
+                    snapshot.size(), snapshot.cellKeys.length, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.error("[BusStopIndex] 정류장 CSV 로드 실패: {}", e.getMessage());
+        }
+    }
+
+    public boolean isLoaded() {
+        return snapshot.size() > 0;
+    }
+
+    public int size() {
+        return snapshot.size();
+    }
+
+    /**
+     * 가까운 순으로 최대 k개 (maxDistanceM 이내)
+     */
+    public List<StopHit> nearest(double lat, double lon, int k, double maxDistanceM) {
+        return snapshot.nearest(lat, lon, k, maxDistanceM);
+    }
+
+    /**
+     * 반경 radiusM 이내 전부 (정렬 안 됨)
+     */
+    public List<StopHit> within(double lat, double lon, double radiusM) {
+        return snapshot.within(lat, lon, radiusM);
+    }
+
+    // ------------------------------------------------------------------
+    // 불변 스냅샷 (로드가 끝나면 통째로 교체)
+    // ------------------------------------------------------------------
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(new double[0], new double[0], new String[0], new String[0],
+                new String[0], new long[0], new int[]{0}, 250.0, 1.0);
+
+        // 칸 순서로 정렬된 정류장 배열
+        final double[] lat;
+        final double[] lon;
+        final String[] nodeId;
+        final String[] name;
+        final String[] cityCode;
+
+        // CSR 격자: cellKeys[c] 칸의 정류장은 [cellStart[c], cellStart[c+1])
+        final long[] cellKeys;
+        final int[] cellStart;
+
+        final double cellM;
+        final double cosRef; // 경도 방향 축척 (데이터 중심 위도 기준)
+
+        Snapshot(double[] lat, double[] lon, String[] nodeId, String[] name, String[] cityCode,
+                 long[] cellKeys, int[] cellStart, double cellM, double cosRef) {
+            this.lat = lat;
+            this.lon = lon;
+            this.nodeId = nodeId;
+            this.name = name;
+            this.cityCode = cityCode;
+            this.cellKeys = cellKeys;
+            this.cellStart = cellStart;
+            this.cellM = cellM;
+            this.cosRef = cosRef;
+        }
+
+        int size() {
+            return lat.length;
+        }
+
+        int cellX(double lonDeg) {
+            return (int) Math.floor(lonDeg * M_PER_DEG * cosRef / cellM);
+        }
+
+        int cellY(double latDeg) {
+            return (int) Math.floor(latDeg * M_PER_DEG / cellM);
+        }
+
+        static long key(int cx, int cy) {
+            return ((long) cx << 32) | (cy & 0xffffffffL);
+        }
+
+        /** 질의 위도에서 칸 한 변의 최소 길이(m). 경도 방향 칸 폭은 cosQ/cosRef 배로 변한다 */
+        double minCellM(double cosQ) {
+            return cellM * Math.min(1.0, cosQ / cosRef);
+        }
+
+        /** 질의점 기준 근사 거리²(m²) — 수 km 안에서는 하버사인과 차이가 무시할 수준 */
+        double dist2(double qLat, double qLon, double cosQ, int i) {
+            double dy = (lat[i] - qLat) * M_PER_DEG;
+            double dx = (lon[i] - qLon) * M_PER_DEG * cosQ;
+            return dx * dx + dy * dy;
+        }
+
+        StopHit hit(int i, double d2) {
+            return new StopHit(new PublicStationInfo(nodeId[i], cityCode[i], name[i]), lat[i], lon[i], Math.sqrt(d2));
+        }
+
+        List<StopHit> nearest(double qLat, double qLon, int k, double maxDistanceM) {
+            if (size() == 0 || k <= 0) return List.of();
+
+            double cosQ = Math.cos(Math.toRadians(qLat));
+            double max2 = maxDistanceM * maxDistanceM;
+            double minCellM = minCellM(cosQ);
+
+            // 상위 k 개 (거리² 오름차순 삽입 정렬)
+            int[] topIdx = new int[k];
+            double[] topD2 = new double[k];
+            int found = 0;
+
+            int cx = cellX(qLon);
+            int cy = cellY(qLat);
+            int maxRing = (int) Math.ceil(maxDistanceM / minCellM) + 1;
+
+            for (int ring = 0; ring <= maxRing; ring++) {
+                // ring 번째 고리의 칸들은 질의점에서 최소 (ring - 1) 칸 너비만큼 떨어져 있다
+                // (질의점이 자기 칸 가장자리에 있을 수 있으므로 한 칸을 빼서 보수적으로)
+                if (found == k) {
+                    double bound = (ring - 1) * minCellM;
+                    if (bound > 0 && bound * bound > topD2[k - 1]) break;
+                }
+                for (int x = cx - ring; x <= cx + ring; x++) {
+                    for (int y = cy - ring; y <= cy + ring; y++) {
+                        if (Math.abs(x - cx) != ring && Math.abs(y - cy) != ring) continue; // 고리 테두리만
+                        int c = Arrays.binarySearch(cellKeys, key(x, y));
+                        if (c < 0) continue;
+                        for (int i = cellStart[c]; i < cellStart[c + 1]; i++) {
+                            double d2 = dist2(qLat, qLon, cosQ, i);
+                            if (d2 > max2) continue;
+                            if (found == k && d2 >= topD2[k - 1]) continue;
+
+                            int pos = (found < k) ? found++ : k - 1;
+                            while (pos > 0 && topD2[pos - 1] > d2) {
+                                topD2[pos] = topD2[pos - 1];
+                                topIdx[pos] = topIdx[pos - 1];
+                                pos--;
+                            }
+                            topD2[pos] = d2;
+                            topIdx[pos] = i;
+                        }
+                    }
+                }
+            }
+
+            List<StopHit> out = new ArrayList<>(found);
+            for (int j = 0; j < found; j++) out.add(hit(topIdx[j], topD2[j]));
+            return out;
+        }
+
+        List<StopHit> within(double qLat, double qLon, double radiusM) {
+            if (size() == 0 || radiusM <= 0) return List.of();
+
+            double cosQ = Math.cos(Math.toRadians(qLat));
+            double r2 = radiusM * radiusM;
+            int reach = (int) Math.ceil(radiusM / minCellM(cosQ));
+            int cx = cellX(qLon);
+            int cy = cellY(qLat);
+
+            List<StopHit> out = new ArrayList<>();
+            for (int x = cx - reach; x <= cx + reach; x++) {
+                for (int y = cy - reach; y <= cy + reach; y++) {
+                    int c = Arrays.binarySearch(cellKeys, key(x, y));
+                    if (c < 0) continue;
+                    for (int i = cellStart[c]; i < cellStart[c + 1]; i++) {
+                        double d2 = dist2(qLat, qLon, cosQ, i);
+                        if (d2 <= r2) out.add(hit(i, d2));
+                    }
+                }
+            }
+            return out;
+        }
+
+        // --------------------------------------------------------------
+        // CSV → 스냅샷
+        // --------------------------------------------------------------
+        static Snapshot build(BufferedReader reader, double cellM) throws IOException {
+            String header = reader.readLine();
+            if (header == null) return EMPTY;
+            if (!header.isEmpty() && header.charAt(0) == '\uFEFF') header = header.substring(1); // BOM
+
+            List<String> cols = splitCsv(header);
+            int iId = findColumn(cols, "정류장번호", "정류소번호", "정류소ID", "정류장ID", "NODE_ID", "nodeid");
+            int iName = findColumn(cols, "정류장명", "정류소명", "NODE_NM", "nodenm");
+            int iLat = findColumn(cols, "위도", "GPS_LATI", "gpslati", "lat");
+            int iLon = findColumn(cols, "경도", "GPS_LONG", "gpslong", "lon");
+            int iCity = findColumn(cols, "도시코드", "CITY_CODE", "citycode");
+            if (iId < 0 || iLat < 0 || iLon < 0) {
+                throw new IllegalStateException("정류장 CSV 헤더를 인식하지 못했습니다: " + header);
+            }
+
+            int cap = 1 << 16;
+            double[] lats = new double[cap];
+            double[] lons = new double[cap];
+            String[] ids = new String[cap];
+            String[] names = new String[cap];
+            String[] cities = new String[cap];
+            Map<String, String> cityIntern = new HashMap<>();
+            int n = 0;
+            double latSum = 0;
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                List<String> f = splitCsv(line);
+                double la, lo;
+                try {
+                    la = Double.parseDouble(get(f, iLat));
+                    lo = Double.parseDouble(get(f, iLon));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (!(la > -90 && la < 90 && lo > -180 && lo < 180) || (la == 0 && lo == 0)) continue;
+
+                if (n == cap) {
+                    cap *= 2;
+                    lats = Arrays.copyOf(lats, cap);
+                    lons = Arrays.copyOf(lons, cap);
+                    ids = Arrays.copyOf(ids, cap);
+                    names = Arrays.copyOf(names, cap);
+                    cities = Arrays.copyOf(cities, cap);
+                }
+                lats[n] = la;
+                lons[n] = lo;
+                ids[n] = get(f, iId);
+                names[n] = (iName >= 0) ? get(f, iName) : "";
+                String city = (iCity >= 0) ? get(f, iCity) : "";
+                cities[n] = cityIntern.computeIfAbsent(city, c -> c);
+                latSum += la;
+                n++;
+            }
+            if (n == 0) return EMPTY;
+
+            double cosRef = Math.cos(Math.toRadians(latSum / n));
+            Snapshot probe = new Snapshot(null, null, null, null, null, null, null, cellM, cosRef);
+
+            // 칸 키 계산 후 칸 순서로 정렬
+            long[] keys = new long[n];
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = key(probe.cellX(lons[i]), probe.cellY(lats[i]));
+                order[i] = i;
+            }
+            final long[] keyRef = keys;
+            Arrays.sort(order, (a, b) -> Long.compare(keyRef[a], keyRef[b]));
+
+            double[] sLat = new double[n];
+            double[] sLon = new double[n];
+            String[] sId = new String[n];
+            String[] sName = new String[n];
+            String[] sCity = new String[n];
+            long[] cellKeys = new long[n];
+            int[] cellStart = new int[n + 1];
+            int cells = 0;
+            long prev = 0;
+            for (int j = 0; j < n; j++) {
+                int i = order[j];
+                sLat[j] = lats[i];
+                sLon[j] = lons[i];
+                sId[j] = ids[i];
+                sName[j] = names[i];
+                sCity[j] = cities[i];
+                if (j == 0 || keys[i] != prev) {
+                    cellKeys[cells] = keys[i];
+                    cellStart[cells] = j;
+                    cells++;
+                    prev = keys[i];
+                }
+            }
+            cellStart[cells] = n;
+
+            return new Snapshot(sLat, sLon, sId, sName, sCity,
+                    Arrays.copyOf(cellKeys, cells), Arrays.copyOf(cellStart, cells + 1), cellM, cosRef);
+        }
+
+        private static int findColumn(List<String> cols, String... aliases) {
+            for (int i = 0; i < cols.size(); i++) {
+                String c = cols.get(i).trim();
+                for (String alias : aliases) {
+                    if (c.equalsIgnoreCase(alias)) return i;
+                }
+            }
+            return -1;
+        }
+
+        private static String get(List<String> fields, int idx) {
+            return (idx >= 0 && idx < fields.size()) ? fields.get(idx).trim() : "";
+        }
+
+        /** 따옴표를 지원하는 최소한의 CSV 분리 */
+        private static List<String> splitCsv(String line) {
+            List<String> out = new ArrayList<>(12);
+            StringBuilder sb = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"') {
+                        if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            sb.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        sb.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    out.add(sb.toString());
+                    sb.setLength(0);
+                } else {
+                    sb.append(c);
+                }
+            }
+            out.add(sb.toString());
+            return out;
+        }
+    }
+}
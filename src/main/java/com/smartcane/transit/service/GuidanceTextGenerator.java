@@ -3,6 +3,13 @@ package com.smartcane.transit.service;
 import com.smartcane.transit.config.GuidanceProperties;
 import com.smartcane.transit.dto.response.ArrivalCheckResponse;
 import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.RealTimeBusService.BusArrivalInfo;
+import com.smartcane.transit.service.guidance.DecisionPoint;
+import com.smartcane.transit.service.guidance.GuidancePlan;
+import com.smartcane.transit.service.guidance.phrase.PhraseBook;
+import com.smartcane.transit.service.guidance.phrase.PhraseCatalog;
+import com.smartcane.transit.service.guidance.phrase.PhraseKey;
+import com.smartcane.transit.service.state.LegMode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -13,34 +20,29 @@ import org.springframework.stereotype.Component;
 public class GuidanceTextGenerator {
 
     private final GuidanceProperties props;
+    private final PhraseCatalog phrases;
 
     private static long roundMeters(double m) {
         if (Double.isNaN(m) || Double.isInfinite(m)) return 0L;
         return Math.round(m);
     }
 
-    private Double parseNextStepMeters(String nextInstruction) {
-        if (nextInstruction == null) return null;
-        if (!nextInstruction.startsWith("NEXT_STEP:")) return null;
-        try {
-            String num = nextInstruction.substring("NEXT_STEP:".length()).trim();
-            return Double.parseDouble(num);
-        } catch (NumberFormatException e) {
-            return null;
-        }
-    }
-
+    /**
+     * @param plan 현재 itinerary 의 안내 계획 (지오메트리와 함께 컴파일된 것, 없으면 null)
+     *             WALK 구간의 step 안내 문구/다음 안내 지점까지 거리를 여기서 찾는다.
+     */
     public String from(ArrivalCheckResponse arrival,
                        TripState state,
                        SkTransitRootDto.ItineraryDto itinerary,
-                       SkTransitRootDto.LegDto currentLeg) {
+                       SkTransitRootDto.LegDto currentLeg,
+                       GuidancePlan plan) {
 
         double remRaw = arrival.remainingMeters();
         double remain = (Double.isNaN(remRaw) || Double.isInfinite(remRaw) || remRaw < 0) ? 9999.0 : remRaw;
         long remM = roundMeters(remain);
 
-        String rawMode = (currentLeg.mode() != null) ? currentLeg.mode() : "WALK";
-        String mode = rawMode.toUpperCase();
+        PhraseBook book = phrases.book(state.getLang());
+        LegMode mode = LegMode.of(currentLeg.mode());
         String phase = (state.getPhase() != null) ? state.getPhase() : "";
 
         Integer stopsLeft = arrival.stopsLeft(); // 이제 정상적으로 값이 들어옵니다.
@@ -61,43 +63,57 @@ public class GuidanceTextGenerator {
         // 0-1) WALK + 경로 이탈
         // -------------------------------
         boolean offRoute = arrival.offRoute();
-        if ("WALK".equals(mode) && offRoute) {
-            return "경로를 벗어났습니다. 조금 전 안내된 보행 경로 쪽으로 방향을 다시 잡아 주세요.";
+        if (mode == LegMode.WALK && offRoute) {
+            boolean replanning = props.isReplanEnabled() && state.getOffRouteStreak() >= props.getReplanOffRouteSamples();
+            return book.text(replanning ? PhraseKey.OFF_ROUTE_REPLANNING : PhraseKey.OFF_ROUTE);
         }
 
         // -------------------------------
         // 1) "도착" 판정
         // -------------------------------
         if (arrival.arrived()) {
-            if ("WALK".equals(mode) && isLastLeg) {
-                return "최종 목적지에 도착했습니다. 주변을 천천히 확인해 주세요.";
+            DecisionPoint legEnd = (plan != null && mode == LegMode.WALK) ? plan.legEndPoint(state.getLegIndex()) : null;
+            if (legEnd != null && legEnd.phrase() != null) {
+                return book.text(legEnd.phrase());
+            }
+            if (mode == LegMode.WALK && isLastLeg) {
+                return book.text(PhraseKey.ARRIVED_DESTINATION);
             }
-            if ("WALK".equals(mode)) {
-                return "도착 지점에 도달했습니다. 주변을 확인하시고 다음 대중교통 승강장을 찾아 이동해 주세요.";
+            if (mode == LegMode.WALK) {
+                return book.text(PhraseKey.ARRIVED_WALK_LEG_END);
             }
-            if ("BUS".equals(mode) || "SUBWAY".equals(mode)) {
-                return switch (phase) {
-                    case "ONBOARD" -> "하차 지점에 도착했습니다. 천천히 내리신 후, 안전한 곳으로 이동해 주세요.";
-                    case "TRANSFER" -> "환승 지점에 도착했습니다. 안내 표지판을 따라 이동해 주세요.";
-                    case "ARRIVED" -> "최종 목적지에 도착했습니다.";
-                    default -> "도착 지점에 도달했습니다.";
-                };
+            if (mode == LegMode.BUS || mode == LegMode.SUBWAY) {
+                return book.text(switch (phase) {
+                    case "ONBOARD" -> PhraseKey.ARRIVED_ALIGHT;
+                    case "TRANSFER" -> PhraseKey.ARRIVED_TRANSFER;
+                    case "ARRIVED" -> PhraseKey.ARRIVED_FINAL;
+                    default -> PhraseKey.ARRIVED_GENERIC;
+                });
             }
-            return "도착 지점에 도달했습니다.";
+            return book.text(PhraseKey.ARRIVED_GENERIC);
         }
 
         // -------------------------------
         // 2) WALK 구간
         // -------------------------------
-        if ("WALK".equals(mode)) {
-            String stepDesc = arrival.currentInstruction();
-            Double nextStepDistRaw = parseNextStepMeters(arrival.nextInstruction());
-            Long nextStepM = null;
-            if (nextStepDistRaw != null && !Double.isNaN(nextStepDistRaw)) {
-                nextStepM = Math.max(0L, roundMeters(nextStepDistRaw));
+        if (mode == LegMode.WALK) {
+            Integer stepIdx = state.getStepIndex();
+
+            // step 안내 문구: 계획에 미리 만들어 둔 것 우선
+            DecisionPoint stepPoint = (plan != null && stepIdx != null) ? plan.stepPoint(state.getLegIndex(), stepIdx) : null;
+            String stepDesc = (stepPoint != null) ? stepPoint.announcement() : arrival.currentInstruction();
+
+            // 다음 안내 지점까지 거리 = 다음 지점 offset - 현재 offset (경로를 따라 잰 거리)
+            long nextStepM = -1;   // -1 = 모름
+            Double offset = arrival.routeOffsetM();
+            DecisionPoint next = (plan != null && offset != null) ? plan.nextAfter(offset) : null;
+            if (next != null) {
+                nextStepM = Math.max(0L, roundMeters(next.offsetM() - offset));
+            } else if (plan == null || offset == null) {
+                // 계획/스냅 결과가 없으면 leg 끝까지 직선거리로 대신한다
+                nextStepM = remM;
             }
 
-            Integer stepIdx = state.getStepIndex();
             Integer lastSpokenStepIdx = state.getLastSpokenStepIndex();
             boolean isNewStep = (stepIdx != null && !stepIdx.equals(lastSpokenStepIdx));
 
@@ -109,59 +125,123 @@ public class GuidanceTextGenerator {
 
                 return stepDesc; // "보행자도로를 따라 57m 이동" 등으로 끝냄.
             }
-            if (nextStepM != null) {
-                if (nextStepM <= 0) return "잠시 후 다음 안내가 있습니다. 속도를 줄이고 주변을 잘 살펴 주세요.";
-                return String.format("다음 안내까지 약 %d미터 남았습니다. 안내된 경로를 따라 계속 이동해 주세요.", nextStepM);
+            if (nextStepM >= 0) {
+                if (nextStepM <= 0) return book.text(PhraseKey.WALK_NEXT_IMMINENT);
+                return book.format(PhraseKey.WALK_NEXT_IN, nextStepM);
             }
-            if (remM <= 30) return "잠시 후 다음 안내가 있습니다.";
-            return "안내된 경로를 따라 계속 이동해 주세요.";
+            if (remM <= 30) return book.text(PhraseKey.WALK_NEXT_SOON);
+            return book.text(PhraseKey.WALK_CONTINUE);
         }
 
         // -------------------------------
         // 3) BUS 구간 (수정됨)
         // -------------------------------
-        if ("BUS".equals(mode)) {
-            String segment = (startName != null && endName != null)
-                    ? String.format("%s에서 %s 방향 버스 구간입니다. ", startName, endName)
-                    : "버스 구간입니다. ";
-
-            // 1. [대기 중] 노선명 안내 추가
+        if (mode == LegMode.BUS) {
+            // 1. [대기 중] 노선명 안내 추가 (예: "잠시 후 간선:매월26 버스가 도착할 예정입니다.")
             if (TripState.PHASE_WAITING_TRANSIT.equals(phase)) {
-                if (routeName != null) {
-                    // 예: "잠시 후 간선:매월26 버스가 도착할 예정입니다."
-                    return String.format("정류장에서 잠시 기다려 주세요. 잠시 후 %s 버스가 도착할 예정입니다.", routeName);
-                } else {
-                    return "정류장에서 잠시 기다려 주세요. 버스가 도착하면 안내해 드리겠습니다.";
-                }
+                return (routeName != null)
+                        ? book.format(PhraseKey.BUS_WAIT_ROUTE, routeName)
+                        : book.text(PhraseKey.BUS_WAIT);
+            }
+
+            // 환승 대기는 구간 설명 없이
+            if (stopsLeft == null && TripState.PHASE_TRANSFER.equals(phase)) {
+                return book.text(PhraseKey.BUS_TRANSFER_WAIT);
             }
 
-            // 2. [탑승 중] 남은 정거장 안내 (stopsLeft가 이제 정상적으로 들어옴)
+            // 구간 설명("A에서 B 방향 버스 구간입니다. ") + 상태 문구를 한 버퍼에 이어 붙인다
+            StringBuilder sb = book.begin();
+            if (startName != null && endName != null) {
+                book.append(sb, PhraseKey.BUS_SEGMENT_NAMED, startName, endName);
+            } else {
+                book.append(sb, PhraseKey.BUS_SEGMENT);
+            }
+
+            // 2. [탑승 중] 남은 정거장 안내
             if (stopsLeft != null) {
                 if (stopsLeft <= 0) {
-                    return segment + "곧 하차 정류장입니다. 하차 벨을 누르고 내릴 준비를 해 주세요.";
+                    book.append(sb, PhraseKey.BUS_ALIGHT_NOW);
                 } else if (stopsLeft == 1) {
-                    return segment + "다음 정류장에서 하차입니다. 이번 정류장을 지나면 하차 벨을 눌러주세요.";
+                    book.append(sb, PhraseKey.BUS_ALIGHT_NEXT);
                 } else if (stopsLeft <= 3) {
-                    return String.format("%s하차까지 %d정거장 남았습니다.", segment, stopsLeft);
+                    book.append(sb, PhraseKey.BUS_STOPS_LEFT, stopsLeft);
                 } else {
-                    return String.format("%s하차까지 약 %d정거장 남았습니다.", segment, stopsLeft);
+                    book.append(sb, PhraseKey.BUS_STOPS_LEFT_ABOUT, stopsLeft);
                 }
+                return sb.toString();
             }
 
             // 3. [그 외] 데이터가 없을 때
-            return switch (phase) {
-                case TripState.PHASE_ONBOARD -> segment + "버스에 탑승 중입니다. 곧 정류장 안내를 시작합니다.";
-                case TripState.PHASE_TRANSFER -> "환승 버스를 기다리는 구간입니다.";
-                default -> segment + "정류장에서 버스를 기다려 주세요.";
-            };
+            book.append(sb, TripState.PHASE_ONBOARD.equals(phase) ? PhraseKey.BUS_ONBOARD : PhraseKey.BUS_WAITING);
+            return sb.toString();
         }
 
         // 4) SUBWAY 구간 (기존 유지)
-        if ("SUBWAY".equals(mode)) {
-            // (지하철 로직은 기존과 동일하게 유지하거나 필요시 비슷하게 수정)
-            return "지하철 구간입니다. 경로를 따라 이동해 주세요.";
+        if (mode == LegMode.SUBWAY) {
+            return book.text(PhraseKey.SUBWAY_SEGMENT);
         }
 
-        return "경로를 따라 이동해 주세요.";
+        return book.text(PhraseKey.DEFAULT_CONTINUE);
+    }
+
+    /**
+     * 버스 실시간 도착 안내 (대기 중 안내 뒤에 덧붙이는 문장, 앞에 공백 포함)
+     * 예: " 현재 매월26 버스는 3정거장 전, 약 4분 후 도착합니다."
+     */
+    public String arrivalSuffix(String lang, String routeNo, BusArrivalInfo arrivalInfo) {
+        PhraseBook book = phrases.book(lang);
+        return appendArrival(book, book.begin(), routeNo, arrivalInfo).toString();
+    }
+
+    /**
+     * 재탐색으로 경로가 바뀐 직후: "새 경로를 찾았습니다. " + 안내 문구
+     */
+    public String rerouted(String lang, String tts) {
+        return prefixed(lang, PhraseKey.REROUTED, tts);
+    }
+
+    /**
+     * 다른 후보 경로로 전환한 직후: "지금 이동 중인 경로로 안내를 바꿉니다. " + 안내 문구
+     */
+    public String switched(String lang, String tts) {
+        return prefixed(lang, PhraseKey.ITINERARY_SWITCHED, tts);
+    }
+
+    private String prefixed(String lang, PhraseKey key, String tts) {
+        PhraseBook book = phrases.book(lang);
+        return book.append(book.begin(), key).append(tts).toString();
+    }
+
+    /**
+     * 안내 문구 뒤에 실시간 도착 안내를 붙인 문장 (한 버퍼에서 조립)
+     */
+    public String withArrival(String lang, String tts, String routeNo, BusArrivalInfo arrivalInfo) {
+        PhraseBook book = phrases.book(lang);
+        StringBuilder sb = book.begin().append(tts);
+        return appendArrival(book, sb, routeNo, arrivalInfo).toString();
+    }
+
+    private static StringBuilder appendArrival(PhraseBook book, StringBuilder sb, String routeNo, BusArrivalInfo arrivalInfo) {
+        book.append(sb, PhraseKey.ARRIVAL_ROUTE, routeNo);
+
+        // (1) 남은 정거장 수 안내 — 없으면 '전전' 같은 메시지 사용
+        if (arrivalInfo.stopsLeft() != null) {
+            book.append(sb, PhraseKey.ARRIVAL_STOPS_AWAY, arrivalInfo.stopsLeft());
+        } else if (arrivalInfo.message() != null) {
+            book.append(sb, PhraseKey.ARRIVAL_POSITION, arrivalInfo.message());
+        }
+
+        // (2) 남은 시간(분) 안내
+        if (arrivalInfo.secondsLeft() != null) {
+            int minutes = arrivalInfo.secondsLeft() / 60;
+            if (minutes > 0) {
+                book.append(sb, PhraseKey.ARRIVAL_IN_MINUTES, minutes);
+            } else {
+                book.append(sb, PhraseKey.ARRIVAL_SOON);
+            }
+        } else {
+            book.append(sb, PhraseKey.ARRIVAL_END);
+        }
+        return sb;
     }
-}
\ No newline at end of file
+}
@@ -48,4 +48,11 @@ public class InMemoryTripStore implements TripStore {
     public SkTransitRootDto.MetaDataDto loadMeta(String tripId) {
         return metas.get(tripId);
     }
+
+    @Override
+    public void saveMeta(String tripId, SkTransitRootDto.MetaDataDto meta) {
+        if (meta != null) {
+            metas.put(tripId, meta);
+        }
+    }
 }
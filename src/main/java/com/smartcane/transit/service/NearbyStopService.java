@@ -0,0 +1,177 @@
+package com.smartcane.transit.service;
+
+import com.smartcane.transit.config.PublicDataProperties;
+import com.smartcane.transit.dto.response.NearbyStopsResponse;
+import com.smartcane.transit.dto.response.NearbyStopsResponse.NearbyStop;
+import com.smartcane.transit.service.BusStationService.StationPoint;
+import com.smartcane.transit.util.GeoUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 주변 정류장 검색 (타일 캐시)
+ *
+ * - 지도를 nearbyTileDeg 크기의 격자 타일로 나누고, 타일별 정류장 목록을 TTL 동안 메모리에 보관
+ * - 질의 반경을 덮는 타일들을 모아(캐시 우선) 합친 뒤 거리로 거르고 정렬
+ * - 타일 소스: 오프라인 정류장 색인(BusStopIndex) → 없으면 원격 API (타일 중심 기준 조회)
+ * 같은 타일을 동시에 여러 요청이 읽으면 원격 조회는 한 번만 나간다.
+ * 한 질의의 타일 원격 조회는 nearbyRemoteConcurrency 개까지만 동시에 나간다 (쿼터 보호).
+ * 원격 조회가 실패한 타일은 이번 응답에서만 빈 타일로, numOfRows 에서 잘린 타일은 받은 만큼만 쓰고
+ * 둘 다 캐시하지 않는다 (다음 요청에서 다시 조회).
+ */
+@Slf4j
+@Service
+public class NearbyStopService {
+
+    private final PublicDataProperties props;
+    private final BusStopIndex busStopIndex;
+    private final BusStationService busStationService;
+
+    private final Map<Long, Tile> tiles;
+    private final Map<Long, Mono<Tile>> loading = new ConcurrentHashMap<>();
+
+    private record Tile(List<StationPoint> stops, long expiresAtMs, boolean cacheable) {
+        static final Tile FAILED = new Tile(List.of(), 0L, false);
+    }
+
+    public NearbyStopService(PublicDataProperties props, BusStopIndex busStopIndex, BusStationService busStationService) {
+        this.props = props;
+        this.busStopIndex = busStopIndex;
+        this.busStationService = busStationService;
+
+        int max = Math.max(64, props.getNearbyTileMaxEntries());
+        this.tiles = Collections.synchronizedMap(new LinkedHashMap<>(512, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Tile> eldest) {
+                return size() > max;
+            }
+        });
+    }
+
+    /**
+     * 반경 검색 + (선택) 가까운 k개 제한 + 페이징
+     */
+    public Mono<NearbyStopsResponse> nearby(double lat, double lon, double radiusM,
+                                            Integer limit, int page, int size) {
+        double radius = Math.min(Math.max(1.0, radiusM), props.getNearbyMaxRadiusM());
+        int pageSize = Math.min(Math.max(1, size), props.getNearbyMaxPageSize());
+        int pageNo = Math.max(0, page);
+
+        return Flux.fromIterable(coveringTiles(lat, lon, radius))
+                .flatMap(this::tile, Math.max(1, props.getNearbyRemoteConcurrency()))
+                .collectList()
+                .map(loaded -> {
+                    Set<String> seen = new HashSet<>();
+                    List<NearbyStop> hits = new ArrayList<>();
+                    for (Tile t : loaded) {
+                        for (StationPoint sp : t.stops()) {
+                            double d = GeoUtils.haversine(lat, lon, sp.lat(), sp.lon());
+                            if (d > radius) continue;
+                            String id = sp.station().nodeId();
+                            if (id != null && !seen.add(id)) continue; // 타일 경계 중복 제거
+                            hits.add(new NearbyStop(id, sp.station().cityCode(), sp.station().nodeName(),
+                                    sp.lat(), sp.lon(), d));
+                        }
+                    }
+                    hits.sort(Comparator.comparingDouble(NearbyStop::distanceM));
+                    if (limit != null && limit > 0 && hits.size() > limit) {
+                        hits = hits.subList(0, limit);
+                    }
+
+                    int from = Math.min(hits.size(), pageNo * pageSize);
+                    int to = Math.min(hits.size(), from + pageSize);
+                    return new NearbyStopsResponse(lat, lon, radius, hits.size(), pageNo, pageSize,
+                            List.copyOf(hits.subList(from, to)));
+                });
+    }
+
+    // ------------------------------------------------------------------
+    // 타일
+    // ------------------------------------------------------------------
+
+    private long tileKey(int tx, int ty) {
+        return ((long) tx << 32) | (ty & 0xffffffffL);
+    }
+
+    private List<Long> coveringTiles(double lat, double lon, double radiusM) {
+        double deg = props.getNearbyTileDeg();
+        double dLat = radiusM / 111_320.0;
+        double dLon = radiusM / (111_320.0 * Math.max(0.01, Math.cos(Math.toRadians(lat))));
+
+        int x0 = (int) Math.floor((lon - dLon) / deg);
+        int x1 = (int) Math.floor((lon + dLon) / deg);
+        int y0 = (int) Math.floor((lat - dLat) / deg);
+        int y1 = (int) Math.floor((lat + dLat) / deg);
+
+        List<Long> keys = new ArrayList<>((x1 - x0 + 1) * (y1 - y0 + 1));
+        for (int x = x0; x <= x1; x++) {
+            for (int y = y0; y <= y1; y++) {
+                keys.add(tileKey(x, y));
+            }
+        }
+        return keys;
+    }
+
+    private Mono<Tile> tile(long key) {
+        Tile cached = tiles.get(key);
+        if (cached != null && cached.expiresAtMs() > System.currentTimeMillis()) {
+            return Mono.just(cached);
+        }
+        return loading.computeIfAbsent(key, k -> loadTile(k)
+                .doOnNext(t -> {
+                    if (t.cacheable()) tiles.put(k, t);
+                })
+                .doFinally(signal -> loading.remove(k))
+                .cache());
+    }
+
+    private Mono<Tile> loadTile(long key) {
+        double deg = props.getNearbyTileDeg();
+        int tx = (int) (key >> 32);
+        int ty = (int) key;
+        double minLon = tx * deg, maxLon = minLon + deg;
+        double minLat = ty * deg, maxLat = minLat + deg;
+        double cLat = (minLat + maxLat) / 2;
+        double cLon = (minLon + maxLon) / 2;
+        long expiresAt = System.currentTimeMillis() + props.getNearbyTileTtlSec() * 1000L;
+
+        // 타일 외접원 반경 (중심 → 모서리)
+        double halfDiagM = GeoUtils.haversine(cLat, cLon, maxLat, maxLon) + 1.0;
+
+        Mono<BusStationService.NearbyStations> source = busStopIndex.isLoaded()
+                ? Mono.fromSupplier(() -> new BusStationService.NearbyStations(
+                        busStopIndex.within(cLat, cLon, halfDiagM).stream()
+                                .map(h -> new StationPoint(h.station(), h.lat(), h.lon()))
+                                .toList(), false))
+                : busStationService.findStationsNearRemote(cLat, cLon);
+
+        return source.map(found -> {
+            if (found.truncated()) {
+                log.info("[Nearby] 타일 원격 조회가 numOfRows 에서 잘림 → 캐시하지 않음 key={}", key);
+            }
+            // 타일 범위 안의 정류장만 남겨서 타일끼리 겹치지 않도록
+            List<StationPoint> inTile = new ArrayList<>();
+            for (StationPoint sp : found.stops()) {
+                if (sp.lat() >= minLat && sp.lat() < maxLat && sp.lon() >= minLon && sp.lon() < maxLon) {
+                    inTile.add(sp);
+                }
+            }
+            return new Tile(List.copyOf(inTile), expiresAt, !found.truncated());
+        }).onErrorResume(e -> {
+            log.warn("[Nearby] 타일 로드 실패 key={} : {}", key, e.getMessage());
+            return Mono.just(Tile.FAILED);
+        });
+    }
+}
@@ -1,28 +1,56 @@
 package com.smartcane.transit.service;
 
 import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.config.RealtimeProperties;
 import com.smartcane.transit.dto.request.ArrivalCheckRequest;
+import com.smartcane.transit.dto.request.ProgressBatchRequest;
 import com.smartcane.transit.dto.request.ProgressUpdateEnvelope;
 import com.smartcane.transit.dto.request.ProgressUpdateRequest;
+import com.smartcane.transit.dto.request.TripEventRequest;
 import com.smartcane.transit.dto.response.ArrivalCheckResponse;
+import com.smartcane.transit.dto.response.GeofenceZone;
 import com.smartcane.transit.dto.response.GuidanceResponse;
+import com.smartcane.transit.dto.response.ProgressBatchResponse;
+import com.smartcane.transit.dto.response.ProgressBatchResponse.ProgressTransition;
 import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.dto.response.TripPushMessage;
 import com.smartcane.transit.service.arrival.TransitArrivalService;
 import com.smartcane.transit.service.arrival.WalkArrivalService;
+import com.smartcane.transit.service.eta.EtaEstimator;
+import com.smartcane.transit.service.geometry.ItineraryGeometry;
+import com.smartcane.transit.service.geometry.TripGeometryCache;
+import com.smartcane.transit.service.plan.PlanCache;
 import com.smartcane.transit.util.GeoUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 // 추가된 서비스 Import
-import com.smartcane.transit.service.BusStationService.PublicStationInfo;
 import com.smartcane.transit.service.RealTimeBusService.BusArrivalInfo;
+import com.smartcane.transit.service.realtime.BusArrivalMonitor;
+import com.smartcane.transit.service.realtime.TripUpdateBroadcaster;
+import com.smartcane.transit.service.replan.OffRouteReplanner;
+import com.smartcane.transit.service.uplink.GeofencePlanner;
+import com.smartcane.transit.service.uplink.UplinkAdvisor;
+import com.smartcane.transit.service.state.LegMode;
+import com.smartcane.transit.service.state.TripEvent;
+import com.smartcane.transit.service.state.TripPhase;
+import com.smartcane.transit.service.state.TripStateMachine;
 
 /**
  * 진행 업데이트의 오케스트레이션 레이어.
  * - TripState 로드/초기화/저장
  * - 현재 Leg의 모드에 따라 적절한 도착판정 서비스(Walk/Transit) 호출
- * - ArrivalCheckResponse를 기반으로 상태 전이 및 TTS 생성
+ * - ArrivalCheckResponse를 기반으로 상태 전이(TripStateMachine) 및 TTS 생성
  */
 @Slf4j
 @Service
@@ -34,10 +62,21 @@ public class ProgressCoordinator {
     private final WalkArrivalService walkArrivalService;
     private final TransitArrivalService transitArrivalService;
     private final GuidanceProperties props;
-
-    // ✅ [신규] 실시간 정보 조회를 위한 서비스 주입
-    private final BusStationService busStationService;
-    private final RealTimeBusService realTimeBusService;
+    private final TripGeometryCache geometryCache;
+
+    // ✅ [신규] 실시간 도착 정보 (조회 + 캐시)
+    private final BusArrivalMonitor busArrivalMonitor;
+    private final RealtimeProperties realtimeProps;
+    private final TripStateMachine stateMachine;
+    private final OffRouteReplanner replanner;
+    private final TripUpdateBroadcaster broadcaster;
+    private final PlanCache planCache;
+    private final EtaEstimator etaEstimator;
+    private final UplinkAdvisor uplinkAdvisor;
+    private final GeofencePlanner geofencePlanner;
+
+    /** 장시간 연결로 고정된 trip (tripId → 고정 상태). 같은 trip 의 HTTP 쓰기도 이 상태를 거친다 */
+    private final Map<String, PinnedTrip> pinnedTrips = new ConcurrentHashMap<>();
 
     /** 보행 구간 판정(테스트/디버깅용 공개) */
     public ArrivalCheckResponse checkWalkStep(SkTransitRootDto.ItineraryDto itin,
@@ -88,10 +127,7 @@ public class ProgressCoordinator {
         }
         var leg = itin.legs().get(legIdx);
 
-        String modeRaw = (leg.mode() != null) ? leg.mode() : "WALK";
-        String mode = modeRaw.toUpperCase();
-
-        if (!"WALK".equals(mode)) {
+        if (!LegMode.of(leg.mode()).isWalk()) {
             return null;
         }
         if (leg.steps() == null || leg.steps().isEmpty()) {
@@ -107,26 +143,326 @@ public class ProgressCoordinator {
      * - Envelope(metaData, progress) 수신 → 상태 로드 → 도착판정 → 상태전이 → TTS → 응답
      */
     public GuidanceResponse updateProgress(String tripId, ProgressUpdateEnvelope envelope) {
+        return updateProgressConditional(tripId, envelope).guidance();
+    }
+
+    /**
+     * updateProgress + 안내 지문(ETag) / 직전 안내 대비 변경 여부
+     * - 변경분만 응답 모드(304)에서 사용. 지문은 모드와 상관없이 매번 TripState 에 갱신된다.
+     */
+    public ConditionalGuidance updateProgressConditional(String tripId, ProgressUpdateEnvelope envelope) {
 
         if (envelope == null || envelope.progress() == null) {
             throw new IllegalArgumentException("progress 가 비어 있습니다.");
         }
 
-        // 1) 진행 정보
-        ProgressUpdateRequest p = envelope.progress();
+        return withTrip(tripId, envelope.metaData(), envelope.planHash(),
+                ctx -> stamp(ctx.state(), render(ctx, applySample(ctx, envelope.progress()))));
+    }
+
+    /**
+     * 로드 → 처리 → 저장 한 사이클
+     * - 연결(WebSocket)로 고정된 trip 이면 그 고정 상태 위에서 처리하고 바로 내려쓴다
+     *   (store 사본을 따로 고쳤다가 연결 쪽 write-behind 에 덮어써지는 일이 없도록)
+     */
+    private <T> T withTrip(String tripId, SkTransitRootDto.MetaDataDto uploadedMeta, String planHash,
+                           Function<ProgressContext, T> work) {
+        PinnedTrip pinned = pinnedTrips.get(tripId);
+        if (pinned != null) {
+            synchronized (pinned) {
+                T result = work.apply(pinned.ctx);
+                pinned.dirty = true;
+                flush(pinned);
+                return result;
+            }
+        }
+        ProgressContext ctx = loadContext(tripId, uploadedMeta, planHash);
+        T result = work.apply(ctx);
+        tripStore.save(tripId, ctx.state());
+        return result;
+    }
+
+    /**
+     * 안내 + 지문
+     * @param etag    안내 지문 (HTTP ETag 형식, 따옴표 포함)
+     * @param changed 직전에 내보낸 안내와 문구/phase/leg/남은 거리 구간/ETA 구간/업링크 권고/지오펜스 중 하나라도 다른지
+     */
+    public record ConditionalGuidance(GuidanceResponse guidance, String etag, boolean changed) {}
+
+    /** 안내 지문 계산 후 TripState 에 기록 */
+    private ConditionalGuidance stamp(TripState state, GuidanceResponse g) {
+        double bucketM = Math.max(1.0, props.getGuidanceChangeBucketM());
+        long bucket = (long) Math.floor(g.distanceToTargetM() / bucketM);
+
+        // FNV-1a 64
+        long h = 0xcbf29ce484222325L;
+        h = fnv(h, g.itineraryIndex());
+        h = fnv(h, g.legIndex());
+        h = fnv(h, bucket);
+        h = fnv(h, Objects.hashCode(g.phase()));
+        h = fnv(h, Objects.hashCode(g.tts()));
+
+        // 단말이 다음 업링크 시점을 정하는 값들 — 이것만 바뀌어도 304 로 막으면 오래된 권고로 움직인다
+        int etaBucketSec = Math.max(1, props.getGuidanceChangeEtaBucketSec());
+        h = fnv(h, g.etaToTargetSec() != null ? g.etaToTargetSec() / etaBucketSec : -1);
+        h = fnv(h, g.nextUplinkSec() != null ? g.nextUplinkSec() : -1);
+        h = fnv(h, g.nextUplinkMeters() != null ? g.nextUplinkMeters() : -1);
+        if (g.geofences() != null) {
+            // 지오펜스는 어떤 지점인지만 (aheadM 은 매 샘플 바뀌므로 제외)
+            h = fnv(h, g.geofences().size());
+            for (GeofenceZone z : g.geofences()) {
+                h = fnv(h, Objects.hashCode(z.kind()));
+                h = fnv(h, z.legIndex());
+                h = fnv(h, z.stepIndex() != null ? z.stepIndex() : -1);
+            }
+        } else {
+            h = fnv(h, -1);
+        }
+
+        boolean changed = state.getLastGuidanceHash() != h;
+        state.setLastGuidanceHash(h);
+        return new ConditionalGuidance(g, "\"" + Long.toHexString(h) + "\"", changed);
+    }
+
+    private static long fnv(long h, long v) {
+        for (int i = 0; i < 8; i++) {
+            h ^= (v >>> (i * 8)) & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /**
+     * 배치 업링크 처리 (백그라운드 복귀/재연결 시 쌓인 샘플 재전송):
+     * - 상태 로드/저장은 한 번만, 샘플은 순서대로 필터/도착판정/상태전이에 모두 반영
+     * - 안내 문구(TTS)와 실시간 도착 조회는 마지막 샘플 기준으로 한 번만 생성
+     * - 중간에 일어난 phase/leg 전이는 transitions 로 함께 돌려준다
+     */
+    public ProgressBatchResponse updateProgressBatch(String tripId, ProgressBatchRequest batch) {
+
+        if (batch == null || batch.samples() == null || batch.samples().isEmpty()) {
+            throw new IllegalArgumentException("samples 가 비어 있습니다.");
+        }
+
+        ProgressBatchResponse response = withTrip(tripId, batch.metaData(), batch.planHash(), ctx -> applyBatch(ctx, batch));
+        log.info("[PROGRESS] batch tripId={} samples={} transitions={}", tripId, batch.samples().size(),
+                response.transitions().size());
+        return response;
+    }
+
+    private ProgressBatchResponse applyBatch(ProgressContext ctx, ProgressBatchRequest batch) {
+        TripState state = ctx.state();
+        List<ProgressTransition> transitions = new ArrayList<>();
+
+        SampleResult last = null;
+        for (int i = 0; i < batch.samples().size(); i++) {
+            ProgressUpdateRequest p = batch.samples().get(i);
+            if (p == null) continue;
+
+            String fromPhase = state.getPhase();
+            int fromLeg = state.getLegIndex();
+
+            last = applySample(ctx, p);
+
+            if (fromLeg != state.getLegIndex() || !Objects.equals(fromPhase, state.getPhase())) {
+                transitions.add(new ProgressTransition(
+                        i, state.getLastTs(),
+                        fromPhase, state.getPhase(),
+                        fromLeg, state.getLegIndex()
+                ));
+            }
+        }
+        if (last == null) {
+            throw new IllegalArgumentException("samples 가 비어 있습니다.");
+        }
+
+        GuidanceResponse guidance = stamp(state, render(ctx, last)).guidance();
+        return new ProgressBatchResponse(guidance, batch.samples().size(), transitions);
+    }
+
+    /**
+     * 클라이언트 이벤트(BOARD/ALIGHT/TRANSFER_CONFIRMED/ARRIVED/CANCEL) 반영
+     * - 모르는 type 은 무시 (기존 동작 유지)
+     * - 이미 그 이벤트의 목적 단계에 있으면 재전송으로 보고 무시
+     * - 그 밖에 전이 표에 없는 조합(예: ARRIVED 이후 BOARD)은 409
+     * @return trip 이 없으면 null
+     */
+    public TripState applyEvent(String tripId, TripEventRequest request) {
+        PinnedTrip pinned = pinnedTrips.get(tripId);
+        if (pinned != null) {
+            synchronized (pinned) {
+                TripState state = pinned.ctx.state();
+                if (applyEvent(tripId, state, request)) {
+                    pinned.dirty = true;
+                    flush(pinned);
+                }
+                return state;
+            }
+        }
+
+        TripState state = tripStore.load(tripId);
+        if (state == null) return null;
+        if (applyEvent(tripId, state, request)) {
+            tripStore.save(tripId, state);
+        }
+        return state;
+    }
+
+    /** @return 상태가 바뀌었으면 true */
+    private boolean applyEvent(String tripId, TripState state, TripEventRequest request) {
+        TripEvent event = TripEvent.ofClientType(request != null ? request.type() : null);
+        if (event == null) return false;
+
+        TripPhase current = TripPhase.of(state.getPhase());
+        if (!TripStateMachine.accepts(current, event)) {
+            if (TripStateMachine.isRepeat(current, event)) return false;
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    current + " 단계에서는 " + event + " 이벤트를 받을 수 없습니다. tripId=" + tripId);
+        }
+
+        stateMachine.fire(state, event);
+        if (event == TripEvent.BOARD || event == TripEvent.ALIGHT || event == TripEvent.TRANSFER_CONFIRMED) {
+            state.setArrivalStreak(0);
+        }
+        return true;
+    }
+
+    /**
+     * 장시간 연결(WebSocket 등)용 고정 상태.
+     * - 연결 동안 meta/TripState 를 메모리에 들고 있고, store 저장은 write-behind
+     *   (phase/leg 전이 시 즉시, 그 외에는 wsWriteBehindSec 간격, 연결 종료 시 flush)
+     */
+    public static final class PinnedTrip {
+        private final ProgressContext ctx;
+        private long lastSavedAtMs = System.currentTimeMillis();
+        private boolean dirty;
+        /** 같은 trip 에 열린 연결 수 (0 이 되면 고정 해제) */
+        private int holders;
+
+        private PinnedTrip(ProgressContext ctx) {
+            this.ctx = ctx;
+        }
+
+        public String tripId() {
+            return ctx.tripId();
+        }
+    }
+
+    /**
+     * tripId 의 meta/TripState 를 로드해 고정 (meta 가 없으면 IllegalStateException)
+     * - 이미 고정된 trip 이면 같은 상태를 같이 쓴다 (연결마다 사본을 들면 서로 덮어쓰므로)
+     */
+    public PinnedTrip pin(String tripId) {
+        // holders 는 맵의 같은 키 갱신 안에서만 바꾼다 (고정/해제가 겹쳐도 어긋나지 않게)
+        return pinnedTrips.compute(tripId, (id, existing) -> {
+            PinnedTrip pinned = (existing != null) ? existing : new PinnedTrip(loadContext(id, null, null));
+            pinned.holders++;
+            return pinned;
+        });
+    }
+
+    /** 연결 종료: 내려쓰고, 마지막 연결이면 고정 해제 */
+    public void release(PinnedTrip pinned) {
+        flush(pinned);
+        pinnedTrips.computeIfPresent(pinned.tripId(),
+                (id, existing) -> (existing != pinned || --existing.holders > 0) ? existing : null);
+    }
+
+    /** 고정된 상태로 샘플 하나 처리 */
+    public GuidanceResponse updatePinned(PinnedTrip pinned, ProgressUpdateRequest p) {
+        if (p == null) {
+            throw new IllegalArgumentException("progress 가 비어 있습니다.");
+        }
+        synchronized (pinned) {
+            TripState state = pinned.ctx.state();
+            String fromPhase = state.getPhase();
+            int fromLeg = state.getLegIndex();
+
+            SampleResult r = applySample(pinned.ctx, p);
+            GuidanceResponse guidance = stamp(state, render(pinned.ctx, r)).guidance();
+            pinned.dirty = true;
+
+            boolean transitioned = fromLeg != state.getLegIndex() || !Objects.equals(fromPhase, state.getPhase());
+            long now = System.currentTimeMillis();
+            if (transitioned || now - pinned.lastSavedAtMs >= realtimeProps.getWsWriteBehindSec() * 1000L) {
+                flush(pinned);
+            }
+            return guidance;
+        }
+    }
+
+    /** 고정된 상태를 store 에 내려쓰기 (변경 없으면 생략) */
+    public void flush(PinnedTrip pinned) {
+        synchronized (pinned) {
+            if (!pinned.dirty) return;
+            tripStore.save(pinned.ctx.tripId(), pinned.ctx.state());
+            pinned.dirty = false;
+            pinned.lastSavedAtMs = System.currentTimeMillis();
+        }
+    }
+
+    /** 한 번의 로드/저장 사이클 동안 공유되는 진행 컨텍스트 */
+    private static final class ProgressContext {
+        private final String tripId;
+        private final TripState state;
+        /** 이탈 재탐색 결과를 적용하면 교체된다 */
+        private SkTransitRootDto.MetaDataDto meta;
+
+        private ProgressContext(String tripId, SkTransitRootDto.MetaDataDto meta, TripState state) {
+            this.tripId = tripId;
+            this.meta = meta;
+            this.state = state;
+        }
+
+        String tripId() { return tripId; }
+
+        SkTransitRootDto.MetaDataDto meta() { return meta; }
+
+        TripState state() { return state; }
+    }
+
+    /** 샘플 하나를 반영한 결과 (안내 문구 생성에 필요한 것만) */
+    private record SampleResult(
+            SkTransitRootDto.ItineraryDto itinerary,
+            ItineraryGeometry geometry,
+            SkTransitRootDto.LegDto legAtSample,     // 판정 당시 leg
+            SkTransitRootDto.LegDto legNow,          // 전이 후 leg
+            ArrivalCheckResponse ares,
+            double remSafe,
+            boolean rerouted,                        // 이번 샘플에서 재탐색 경로로 교체됨
+            boolean switched                         // 이번 샘플에서 다른 후보 itinerary 로 전환됨
+    ) {}
+
+    /**
+     * meta / TripState 로드
+     * - meta 가 없으면: 업로드된 meta → planHash 로 공유 캐시 복원 순으로 초기화
+     * - planHash 만 왔는데 캐시에도 없으면 412 (클라이언트가 metaData 를 함께 다시 보내야 함)
+     */
+    private ProgressContext loadContext(String tripId, SkTransitRootDto.MetaDataDto uploadedMeta, String planHash) {
 
         // 2) TripStore 에서 meta 로드 (기본 경로)
         SkTransitRootDto.MetaDataDto meta = tripStore.loadMeta(tripId);
 
+        // 2-0) 전체 업로드 대신 planHash 만 왔으면 공유 계획 캐시에서 복원
+        if (meta == null && uploadedMeta == null && planHash != null && !planHash.isBlank()) {
+            uploadedMeta = planCache.get(planHash);
+            if (uploadedMeta == null) {
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                        "planHash 에 해당하는 계획이 없습니다. metaData 를 함께 보내 주세요. tripId=" + tripId);
+            }
+            log.info("[PROGRESS] planHash 로 meta 복원 tripId={}", tripId);
+        }
+
         // 2-1) 혹시 meta 가 없다면, envelope.metaData() 로 초기화 시도 (옵션)
-        if (meta == null && envelope.metaData() != null) {
-            meta = envelope.metaData();
+        if (meta == null && uploadedMeta != null) {
+            meta = uploadedMeta;
 
             // meta 기반으로 첫 it=0, leg=0 에 대해 초기 stepIndex 계산
             Integer initStep = computeInitialStepIndex(meta, 0, 0);
 
             // meta + 초기 상태 저장 (WALKING, 0,0,initStep)
             tripStore.init(tripId, meta, 0, 0, initStep, TripState.PHASE_WALKING);
+            geometryCache.evict(tripId);
         }
 
         // 2-2) 그래도 meta 없으면 /plan 부터 다시 하라는 에러
@@ -144,6 +480,18 @@ public class ProgressCoordinator {
             tripStore.save(tripId, state);
         }
 
+        return new ProgressContext(tripId, meta, state);
+    }
+
+    /**
+     * 샘플 하나를 필터/도착판정/상태전이에 반영 (저장은 호출 측에서)
+     */
+    private SampleResult applySample(ProgressContext ctx, ProgressUpdateRequest p) {
+        String tripId = ctx.tripId();
+        boolean rerouted = applyReplan(ctx);
+        SkTransitRootDto.MetaDataDto meta = ctx.meta();
+        TripState state = ctx.state();
+
         // 3) 속도 게이팅: 너무 느리면(정지/튐) 샘플 반영을 보수적으로
         // (상태 저장 및 노이즈 필터링용으로는 중앙값을 계속 사용)
         if (p.speedMps() != null && p.speedMps() < props.getMinSpeedMps()) {
@@ -161,22 +509,24 @@ public class ProgressCoordinator {
             lonMed = p.lon();
         }
 
+        // 3-1) 후보 경로 추적: 다른 후보 itinerary 가 연속으로 더 잘 맞으면 그쪽으로 전환
+        boolean switched = trackCandidates(ctx, latMed, lonMed);
+
         // 4) 현재 Itinerary / Leg 인덱스 보정
         var itineraries = meta.plan().itineraries();
         if (state.getItineraryIndex() < 0 || state.getItineraryIndex() >= itineraries.size()) {
             state.setItineraryIndex(0);
         }
         SkTransitRootDto.ItineraryDto itinerary = itineraries.get(state.getItineraryIndex());
+        ItineraryGeometry geometry = geometryCache.get(tripId, state.getItineraryIndex(), itinerary);
 
         if (state.getLegIndex() < 0 || state.getLegIndex() >= itinerary.legs().size()) {
             state.setLegIndex(0);
         }
         SkTransitRootDto.LegDto currentLeg = itinerary.legs().get(state.getLegIndex());
 
-        // 5) 모드별 파라미터 선택 (문자열 기반: "WALK" / "BUS" / "SUBWAY")
-        String modeRaw = currentLeg.mode() != null ? currentLeg.mode() : "WALK";
-        String mode = modeRaw.toUpperCase();
-        boolean isWalk = "WALK".equals(mode);
+        // 5) 모드별 파라미터 선택 (모드는 지오메트리 컴파일 때 한 번만 해석)
+        boolean isWalk = modeOf(geometry, state.getLegIndex(), currentLeg).isWalk();
 
         // WALK leg 이고 stepIndex 가 비어 있으면 0으로 초기화 (steps 존재 시)
         if (isWalk && state.getStepIndex() == null) {
@@ -209,14 +559,18 @@ public class ProgressCoordinator {
 
         // 7) 도착 판정
         ArrivalCheckResponse ares = isWalk
-                ? walkArrivalService.evaluate(itinerary, areq)
-                : transitArrivalService.evaluate(itinerary, areq);
+                ? walkArrivalService.evaluate(itinerary, geometry, areq)
+                : transitArrivalService.evaluate(itinerary, geometry, areq);
 
         // WALK 일 때는 현재 스텝 인덱스를 매번 TripState에 반영
         if (isWalk && ares.currentStepIndex() != null) {
             state.setStepIndex(ares.currentStepIndex());
         }
 
+        // 7-0) 연속 이탈이면 현재 위치에서 재탐색 요청 (비동기, 결과는 다음 샘플에서 적용)
+        state.setOffRouteStreak(isWalk && ares.offRoute() ? state.getOffRouteStreak() + 1 : 0);
+        maybeRequestReplan(ctx, itinerary, p);
+
         // 7-1) remainingMeters NaN/∞/음수 방어
         double remRaw = ares.remainingMeters();
         double remSafe;
@@ -254,17 +608,9 @@ public class ProgressCoordinator {
             int bounded = Math.min(nextLeg, Math.max(0, itinerary.legs().size() - 1));
             state.setLegIndex(bounded);
 
-            // 1️⃣ 바뀐 Leg가 어떤 모드인지 확인
-            SkTransitRootDto.LegDto newLeg = itinerary.legs().get(bounded);
-            String newMode = (newLeg.mode() != null) ? newLeg.mode() : "WALK";
-
-            // 2️⃣ 대중교통이면 "WAITING_TRANSIT", 도보면 "WALKING"으로 상태 변경
-            if ("BUS".equals(newMode) || "SUBWAY".equals(newMode)) {
-                state.setPhase(TripState.PHASE_WAITING_TRANSIT);
-                log.info("[StateChange] 보행 종료 -> 대중교통 대기 상태로 전환 (WAITING_TRANSIT)");
-            } else {
-                state.setPhase(TripState.PHASE_WALKING);
-            }
+            // 바뀐 Leg 모드에 따라 대중교통이면 WAITING_TRANSIT, 도보면 WALKING (전이 표 참고)
+            LegMode newMode = modeOf(geometry, bounded, itinerary.legs().get(bounded));
+            stateMachine.fire(state, newMode.isWalk() ? TripEvent.LEG_ENTERED_WALK : TripEvent.LEG_ENTERED_TRANSIT);
 
             // leg 가 바뀐 경우, 새 leg 의 초기 stepIndex 재계산
             Integer initStep = computeInitialStepIndex(meta, state.getItineraryIndex(), bounded);
@@ -274,8 +620,7 @@ public class ProgressCoordinator {
         // --------------------------------------------------------------------------------------
         // 8-1) [신규] 자동 탑승(ONBOARD) 감지 로직 (WAITING_TRANSIT -> ONBOARD)
         // --------------------------------------------------------------------------------------
-        String currentPhase = state.getPhase();
-        if (!isWalk && TripState.PHASE_WAITING_TRANSIT.equals(currentPhase)) {
+        if (!isWalk && TripPhase.of(state.getPhase()) == TripPhase.WAITING_TRANSIT) {
 
             // 1. 속도 체크: 3.0 m/s (약 10.8km/h) 이상이면 버스 출발로 간주
             boolean isMovingFast = (p.speedMps() != null && p.speedMps() > 3.0);
@@ -295,8 +640,7 @@ public class ProgressCoordinator {
             }
 
             // 3. 탑승 조건 만족 시 상태 전환
-            if (isMovingFast && isLeftStop) {
-                state.setPhase(TripState.PHASE_ONBOARD);
+            if (isMovingFast && isLeftStop && stateMachine.fire(state, TripEvent.DEPARTED_STOP) != null) {
                 state.setArrivalStreak(0); // 탑승했으므로 도착 스트릭 초기화
                 log.info("[StateChange] 대기 종료 -> 탑승(ONBOARD) 자동 감지! (Speed: {}m/s, Distance: {}m)",
                         p.speedMps(), distFromStart);
@@ -310,96 +654,190 @@ public class ProgressCoordinator {
 
         // 1. 위 로직들을 거치며 legIndex가 변했을 수 있으므로, 현재 상태의 Leg 정보를 다시 가져옵니다.
         SkTransitRootDto.LegDto currentLegNow = itinerary.legs().get(state.getLegIndex());
-        String currentMode = (currentLegNow.mode() != null) ? currentLegNow.mode() : "WALK";
 
-        // 2. '현재' 걷는 구간인지 확인합니다.
-        boolean isWalkNow = "WALK".equals(currentMode);
+        // 2. 현재 leg 모드와 phase 가 어긋나 있으면 보정
+        //    - WALK 구간인데 대중교통 쪽 phase 에 남아 있으면 → WALKING
+        //    - 대중교통 구간인데 WALKING 으로 남아 있으면 (이전 구간의 잔재) → ONBOARD
+        //    - WAITING_TRANSIT/ONBOARD/TRANSFER 등 나머지와 종료 단계(ARRIVED/CANCELLED)는 전이 표에 없으므로 유지
+        boolean isWalkNow = modeOf(geometry, state.getLegIndex(), currentLegNow).isWalk();
+        stateMachine.fire(state, isWalkNow ? TripEvent.SYNC_WALK_LEG : TripEvent.SYNC_TRANSIT_LEG);
 
-        if (isWalkNow) {
-            // 걷는 구간이면 확실하게 WALKING 상태
-            state.setPhase(TripState.PHASE_WALKING);
-        } else {
-            // 대중교통(버스/지하철) 구간
-            String phase = state.getPhase();
+        // 10) 최근 업링크 시각/좌표 업데이트 (보행 중이면 직전 좌표와의 속도로 ETA 용 보행 속도 갱신)
+        long now = (p.timestampEpochMs() != null) ? p.timestampEpochMs() : System.currentTimeMillis();
+        if (isWalk && TripPhase.of(state.getPhase()) == TripPhase.WALKING) {
+            etaEstimator.observeWalk(state, p.lat(), p.lon(), now);
+        }
+        state.setLastLon(p.lon());
+        state.setLastLat(p.lat());
+        state.setLastTs(now);
 
-            // (1) 상태가 비어있거나,
-            // (2) 대중교통 구간인데 'WALKING'으로 잘못 남아있는 경우 (이전 구간의 잔재)
-            // ==> 'ONBOARD'로 자동 보정
-            if (phase == null || phase.isBlank() || TripState.PHASE_WALKING.equals(phase)) {
+        return new SampleResult(itinerary, geometry, currentLeg, currentLegNow, ares, remSafe, rerouted, switched);
+    }
 
-                // ⚠️ 단, 방금 8번 로직에서 'WAITING_TRANSIT'으로 설정했다면 건드리지 않아야 합니다.
-                if (!TripState.PHASE_WAITING_TRANSIT.equals(phase)) {
-                    state.setPhase(TripState.PHASE_ONBOARD);
-                }
+    private void maybeRequestReplan(ProgressContext ctx, SkTransitRootDto.ItineraryDto itinerary, ProgressUpdateRequest p) {
+        TripState state = ctx.state();
+        if (!props.isReplanEnabled() || state.getOffRouteStreak() < props.getReplanOffRouteSamples()) return;
+
+        long now = System.currentTimeMillis();
+        if (now - state.getLastReplanAtEpochMs() < props.getReplanDebounceSec() * 1000L) return;
+
+        if (replanner.request(ctx.tripId(), state.getLang(), state.getRouteProfile(), state.getItineraryIndex(), state.getLegIndex(),
+                state.getPlanRevision(), itinerary, p.lat(), p.lon())) {
+            state.setLastReplanAtEpochMs(now);
+        }
+    }
+
+    /**
+     * 준비된 재탐색 결과가 있으면 meta/지오메트리/상태에 반영
+     * - 요청 이후 itinerary/leg 가 바뀌었거나 경로가 교체됐으면(planRevision) 버린다 (이미 다른 경로로 진행 중)
+     *   meta 는 store 에서 매번 새로 읽힐 수 있어 객체 비교 대신 revision 으로 본다
+     * - 지난 leg 와 새 경로에서도 그대로인 뒷부분 leg 는 지오메트리를 재사용한다
+     */
+    private boolean applyReplan(ProgressContext ctx) {
+        OffRouteReplanner.Replan replan = replanner.poll(ctx.tripId());
+        if (replan == null) return false;
+
+        TripState state = ctx.state();
+        var itineraries = ctx.meta().plan().itineraries();
+        int itIdx = replan.itineraryIndex();
+        if (state.getItineraryIndex() != itIdx || state.getLegIndex() != replan.legIndex()
+                || state.getPlanRevision() != replan.planRevision() || itIdx >= itineraries.size()) {
+            log.info("[Replan] 적용 생략 (진행 위치가 바뀜) tripId={}", ctx.tripId());
+            return false;
+        }
+
+        SkTransitRootDto.MetaDataDto meta = OffRouteReplanner.withItinerary(ctx.meta(), itIdx, replan.spliced());
+        tripStore.saveMeta(ctx.tripId(), meta);
+        geometryCache.splice(ctx.tripId(), itIdx, replan.previous(), replan.spliced());
+        ctx.meta = meta;
+
+        int legIdx = state.getLegIndex();
+        SkTransitRootDto.LegDto newLeg = replan.spliced().legs().get(legIdx);
+        state.setStepIndex(computeInitialStepIndex(meta, itIdx, legIdx));
+        state.setLastSpokenStepIndex(null);
+        state.setArrivalStreak(0);
+        state.setOffRouteStreak(0);
+        state.setPlanRevision(state.getPlanRevision() + 1);
+        stateMachine.fire(state, LegMode.of(newLeg.mode()).isWalk() ? TripEvent.LEG_ENTERED_WALK : TripEvent.LEG_ENTERED_TRANSIT);
+
+        log.info("[Replan] 적용 tripId={} leg={} legs={} 재사용={} revision={}", ctx.tripId(), legIdx,
+                replan.spliced().legs().size(), replan.keptLegs(), state.getPlanRevision());
+        return true;
+    }
+
+    /**
+     * 후보 itinerary 가 여러 개일 때(candidateItineraries > 1) 진행 위치를 모든 후보에 매칭
+     * - 지금 itinerary 의 현재 leg 이후 라인과 margin 이내면 다른 후보는 보지 않는다 (대부분의 샘플)
+     * - 다른 후보가 margin 이상 더 가깝고 이탈 반경 안이면 근거 1회, 같은 후보로 연속 N회면 전환
+     * - 지오메트리는 /plan 때 후보 전체를 미리 컴파일해 둔 TripGeometryCache 를 같이 쓴다
+     */
+    private boolean trackCandidates(ProgressContext ctx, double lat, double lon) {
+        TripState state = ctx.state();
+        var itineraries = ctx.meta().plan().itineraries();
+        int active = state.getItineraryIndex();
+        if (itineraries.size() < 2 || active < 0 || active >= itineraries.size()
+                || TripPhase.of(state.getPhase()).isTerminal()) {
+            return false;
+        }
+
+        double margin = props.getCandidateSwitchMarginM();
+        ItineraryGeometry activeGeo = geometryCache.get(ctx.tripId(), active, itineraries.get(active));
+        double activeDist = activeGeo.match(lat, lon, state.getLegIndex()).distanceM();
+        if (activeDist <= margin || Double.isInfinite(activeDist)) {
+            resetCandidate(state);
+            return false;
+        }
+
+        int bestIdx = -1;
+        ItineraryGeometry.LegMatch best = ItineraryGeometry.LegMatch.NONE;
+        for (int i = 0; i < itineraries.size(); i++) {
+            if (i == active) continue;
+            ItineraryGeometry.LegMatch m = geometryCache.get(ctx.tripId(), i, itineraries.get(i)).match(lat, lon, 0);
+            if (m.distanceM() < best.distanceM()) {
+                best = m;
+                bestIdx = i;
             }
-            // 그 외(WAITING_TRANSIT, ONBOARD, TRANSFER 등)는 기존 값 유지
+        }
+        if (bestIdx < 0 || best.distanceM() + margin > activeDist || best.distanceM() > props.getGeofenceOffRouteM()) {
+            resetCandidate(state);
+            return false;
         }
 
-        // 10) 최근 업링크 시각/좌표 업데이트
-        long now = (p.timestampEpochMs() != null) ? p.timestampEpochMs() : System.currentTimeMillis();
-        state.setLastLon(p.lon());
-        state.setLastLat(p.lat());
-        state.setLastTs(now);
+        state.setCandidateStreak(state.getCandidateIndex() == bestIdx ? state.getCandidateStreak() + 1 : 1);
+        state.setCandidateIndex(bestIdx);
+        if (state.getCandidateStreak() < props.getCandidateSwitchSamples()) {
+            return false;
+        }
+
+        switchItinerary(ctx, bestIdx, best.legIndex(), activeDist, best.distanceM());
+        return true;
+    }
+
+    /**
+     * itineraryIndex 전환 — leg 는 새 후보에서 가장 가깝게 붙은 leg
+     * - 계획과 다른 버스를 타고 달리는 중(ONBOARD)이 대부분이라, 대중교통 leg 로 옮길 때는 대기 단계로 되돌리지 않는다
+     */
+    private void switchItinerary(ProgressContext ctx, int itIdx, int legIdx, double fromDist, double toDist) {
+        TripState state = ctx.state();
+        int from = state.getItineraryIndex();
+        SkTransitRootDto.LegDto leg = ctx.meta().plan().itineraries().get(itIdx).legs().get(legIdx);
+        boolean walk = LegMode.of(leg.mode()).isWalk();
+
+        state.setItineraryIndex(itIdx);
+        state.setLegIndex(legIdx);
+        state.setStepIndex(computeInitialStepIndex(ctx.meta(), itIdx, legIdx));
+        state.setLastSpokenStepIndex(null);
+        state.setArrivalStreak(0);
+        state.setOffRouteStreak(0);
+        resetCandidate(state);
+        if (walk || TripPhase.of(state.getPhase()) != TripPhase.ONBOARD) {
+            stateMachine.fire(state, walk ? TripEvent.LEG_ENTERED_WALK : TripEvent.LEG_ENTERED_TRANSIT);
+        }
 
-        tripStore.save(tripId, state);
+        log.info("[Candidate] 전환 tripId={} itinerary {}→{} leg={} ({}m → {}m)", ctx.tripId(), from, itIdx, legIdx,
+                Math.round(fromDist), Math.round(toDist));
+    }
+
+    private static void resetCandidate(TripState state) {
+        state.setCandidateIndex(-1);
+        state.setCandidateStreak(0);
+    }
+
+    /** 컴파일된 지오메트리의 모드 우선, 없으면 leg 에서 직접 해석 */
+    private static LegMode modeOf(ItineraryGeometry geometry, int legIndex, SkTransitRootDto.LegDto leg) {
+        var lg = (geometry != null) ? geometry.leg(legIndex) : null;
+        return (lg != null) ? lg.mode() : LegMode.of(leg.mode());
+    }
+
+    /**
+     * 최종 상태 기준 안내 문구 생성 (실시간 도착 정보 보강 포함)
+     */
+    private GuidanceResponse render(ProgressContext ctx, SampleResult r) {
+        String tripId = ctx.tripId();
+        TripState state = ctx.state();
+        SkTransitRootDto.ItineraryDto itinerary = r.itinerary();
+        SkTransitRootDto.LegDto currentLeg = r.legAtSample();
+        SkTransitRootDto.LegDto currentLegNow = r.legNow();
+        ArrivalCheckResponse ares = r.ares();
+        double remSafe = r.remSafe();
+        boolean isWalkNow = LegMode.of(currentLegNow.mode()).isWalk();
 
         // =================================================================
         // [신규] 실시간 도착 정보 조회 및 TTS 보강 로직 (WAITING_TRANSIT 일 때만)
         // =================================================================
-        String additionalTts = "";
+        BusArrivalInfo arrivalInfo = null;
+        String targetRouteNo = null;
 
         // 현재 상태가 '대기 중'인지 다시 확인 (9번 로직 이후 최종 상태 기준)
-        if (!isWalkNow && TripState.PHASE_WAITING_TRANSIT.equals(state.getPhase())) {
+        if (!isWalkNow && TripPhase.of(state.getPhase()) == TripPhase.WAITING_TRANSIT) {
 
-            // 1. SK API에서 타야 할 버스 정보("간선:매월26")와 정류장 좌표 확인
-            String skRouteNameFull = (currentLegNow.route() != null) ? currentLegNow.route() : "";
-            // 파싱: "간선:매월26" -> "매월26"
-            String targetRouteNo = skRouteNameFull.contains(":")
-                    ? skRouteNameFull.substring(skRouteNameFull.indexOf(":") + 1)
-                    : skRouteNameFull;
+            // SK API에서 타야 할 버스 정보("간선:매월26") → "매월26"
+            targetRouteNo = BusArrivalMonitor.routeNo(currentLegNow);
 
-            Double startLat = (currentLegNow.start() != null) ? currentLegNow.start().lat() : null;
-            Double startLon = (currentLegNow.start() != null) ? currentLegNow.start().lon() : null;
-
-            if (startLat != null && startLon != null && !targetRouteNo.isBlank()) {
+            if (!targetRouteNo.isBlank()) {
                 try {
-                    // 2. 좌표로 공공데이터 정류장 ID & CityCode 찾기 (Blocking 호출)
-                    PublicStationInfo stationInfo = busStationService.findNearestStation(startLat, startLon).block();
-
-                    if (stationInfo != null) {
-                        // 3. 정류장 ID + 노선명("매월26")으로 도착 정보 조회 (Blocking 호출)
-                        BusArrivalInfo arrivalInfo = realTimeBusService
-                                .getArrivalInfo(stationInfo.cityCode(), stationInfo.nodeId(), targetRouteNo)
-                                .block();
-
-                        if (arrivalInfo != null) {
-                            // 4. TTS 메시지 생성 (시간 정보 포함 로직 추가)
-                            StringBuilder sb = new StringBuilder();
-                            sb.append(String.format(" 현재 %s 버스는", targetRouteNo));
-
-                            // (1) 남은 정거장 수 안내
-                            if (arrivalInfo.stopsLeft() != null) {
-                                sb.append(String.format(" %d정거장 전", arrivalInfo.stopsLeft()));
-                            } else if (arrivalInfo.message() != null) {
-                                // 정거장 수 정보가 없으면 '전전' 같은 메시지 사용
-                                sb.append(String.format(" %s 위치", arrivalInfo.message()));
-                            }
-
-                            // (2) 남은 시간(분) 안내 - 핵심 추가 사항 ✨
-                            if (arrivalInfo.secondsLeft() != null) {
-                                int minutes = arrivalInfo.secondsLeft() / 60;
-                                if (minutes > 0) {
-                                    sb.append(String.format(", 약 %d분 후 도착합니다.", minutes));
-                                } else {
-                                    sb.append(", 곧 도착합니다.");
-                                }
-                            } else {
-                                sb.append("입니다.");
-                            }
-
-                            additionalTts = sb.toString();
-                        }
-                    }
+                    // 정류장/도착 정보 조회 (모니터 캐시가 신선하면 원격 호출 없음, 아니면 Blocking 조회)
+                    arrivalInfo = busArrivalMonitor.lookup(tripId, state.getLegIndex(), currentLegNow);
                 } catch (Exception e) {
                     log.warn("실시간 버스 정보 조회 실패 (무시함): {}", e.getMessage());
                 }
@@ -408,13 +846,34 @@ public class ProgressCoordinator {
         // =================================================================
 
         // 11) 안내 문구 생성
-        String tts = guidanceTextGenerator.from(ares, state, itinerary, currentLeg);
+        String tts = guidanceTextGenerator.from(ares, state, itinerary, currentLeg, r.geometry().guidance());
 
-        // ✅ 실시간 정보가 있으면 TTS 뒤에 붙여줌
-        if (!additionalTts.isBlank()) {
-            tts += additionalTts;
+        // ✅ 실시간 정보가 있으면 TTS 뒤에 붙여줌 (같은 조립 버퍼에서)
+        if (arrivalInfo != null) {
+            tts = guidanceTextGenerator.withArrival(state.getLang(), tts, targetRouteNo, arrivalInfo);
         }
 
+        // 재탐색 경로로 바뀐 직후면 알리고, 실시간 구독자에게도 푸시
+        if (r.rerouted()) {
+            tts = guidanceTextGenerator.rerouted(state.getLang(), tts);
+            broadcaster.publish(tripId, TripPushMessage.replanned(tripId, state.getLegIndex(), state.getPhase(), tts));
+        } else if (r.switched()) {
+            tts = guidanceTextGenerator.switched(state.getLang(), tts);
+            broadcaster.publish(tripId, TripPushMessage.itinerarySwitched(tripId, state.getLegIndex(), state.getPhase(), tts,
+                    isWalkNow ? null : BusArrivalMonitor.routeNo(currentLegNow)));
+        }
+
+        // 12) 도착 예상 시간 (다음 안내 지점 / 목적지)
+        EtaEstimator.Eta eta = etaEstimator.estimate(state, r.geometry().guidance(), state.getLegIndex(), isWalkNow,
+                ares.routeOffsetM(), remSafe, arrivalInfo != null ? arrivalInfo.secondsLeft() : null);
+
+        // 13) 다음 업링크 권고 (다음 안내 지점까지 멀면 성기게, 가까우면 촘촘하게)
+        UplinkAdvisor.Advice uplink = uplinkAdvisor.advise(state.getPhase(), eta);
+
+        // 14) 다음 안내 지점 지오펜스 (단말은 구역 진입/keep-alive 때만 업링크)
+        List<GeofenceZone> geofences = geofencePlanner.upcoming(r.geometry(), state.getLegIndex(),
+                ares.routeOffsetM(), state.getPhase());
+
         return new GuidanceResponse(
                 tripId,
                 state.getItineraryIndex(),
@@ -422,7 +881,11 @@ public class ProgressCoordinator {
                 state.getPhase(),
                 tts,
                 remSafe,
-                null
+                eta.toTargetSec(),
+                eta.toDestinationSec(),
+                uplink.sec(),
+                uplink.meters(),
+                geofences
         );
     }
 }
\ No newline at end of file
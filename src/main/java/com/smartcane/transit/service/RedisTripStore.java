@@ -61,4 +61,11 @@ public class RedisTripStore implements TripStore {
     public SkTransitRootDto.MetaDataDto loadMeta(String tripId) {
         return metaRedisTemplate.opsForValue().get(metaKey(tripId));
     }
+
+    @Override
+    public void saveMeta(String tripId, SkTransitRootDto.MetaDataDto meta) {
+        if (meta != null) {
+            metaRedisTemplate.opsForValue().set(metaKey(tripId), meta, TTL);
+        }
+    }
 }
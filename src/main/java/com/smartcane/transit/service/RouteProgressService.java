@@ -1,18 +1,26 @@
 package com.smartcane.transit.service;
 
+import com.smartcane.transit.config.GuidanceProperties;
 import com.smartcane.transit.dto.request.ArrivalCheckRequest;
+import com.smartcane.transit.dto.request.ProgressBatchRequest;
 import com.smartcane.transit.dto.request.ProgressUpdateEnvelope;
+import com.smartcane.transit.dto.request.TripEventRequest;
 import com.smartcane.transit.dto.response.ArrivalCheckResponse;
 import com.smartcane.transit.dto.response.GuidanceResponse;
+import com.smartcane.transit.dto.response.ProgressBatchResponse;
 import com.smartcane.transit.dto.response.SkTransitRootDto;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 /**
  * 경로 진행 상황 처리 서비스
  *
  * - updateProgress : iOS에서 주기적으로 보내는 진행 상황(위치/센서)을 기반으로
  *                    ProgressCoordinator에 위임하여 도착 체크 + 안내문(TTS) 생성.
+ * - updateProgressBatch : 쌓아 둔 샘플 배열을 한 번에 처리 (상태 로드/저장 1회).
+ * - applyEvent : 승/하차/환승 확정 등 클라이언트 이벤트를 상태 기계에 반영.
  * - checkWalkStep / checkTransitLeg : (선택) 레거시 도착 체크용 헬퍼.
  *   컨트롤러에서 _legacy 엔드포인트를 완전히 막는다면 제거해도 무방하다.
  */
@@ -21,6 +29,7 @@ import org.springframework.stereotype.Service;
 public class RouteProgressService {
 
     private final ProgressCoordinator coordinator;
+    private final GuidanceProperties props;
 
     /**
      * (선택) 레거시: 보행 구간 도착 여부만 단건 체크
@@ -52,4 +61,31 @@ public class RouteProgressService {
     public GuidanceResponse updateProgress(String tripId, ProgressUpdateEnvelope envelope) {
         return coordinator.updateProgress(tripId, envelope);
     }
-}
\ No newline at end of file
+
+    /**
+     * updateProgress + 안내 지문(ETag)/변경 여부 (변경분만 응답 모드용)
+     */
+    public ProgressCoordinator.ConditionalGuidance updateProgressConditional(String tripId, ProgressUpdateEnvelope envelope) {
+        return coordinator.updateProgressConditional(tripId, envelope);
+    }
+
+    /**
+     * 배치 플로우:
+     *  - 백그라운드에서 쌓인 샘플들을 한 번의 상태 로드/저장으로 처리
+     *  - 샘플 수 상한을 넘으면 400
+     */
+    public ProgressBatchResponse updateProgressBatch(String tripId, ProgressBatchRequest batch) {
+        if (batch != null && batch.samples() != null && batch.samples().size() > props.getProgressBatchMaxSize()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "samples 는 최대 " + props.getProgressBatchMaxSize() + "개까지 보낼 수 있습니다.");
+        }
+        return coordinator.updateProgressBatch(tripId, batch);
+    }
+
+    /**
+     * 클라이언트 이벤트 반영 (trip 이 없으면 null, 허용되지 않는 전이는 409)
+     */
+    public TripState applyEvent(String tripId, TripEventRequest event) {
+        return coordinator.applyEvent(tripId, event);
+    }
+}
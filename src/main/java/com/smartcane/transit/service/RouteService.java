@@ -1,16 +1,22 @@
 // service/RouteService.java
 package com.smartcane.transit.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.config.RaptorProperties;
 import com.smartcane.transit.dto.response.SkTransitRootDto;
 import com.smartcane.transit.dto.request.RoutePlanRequest;
+import com.smartcane.transit.service.raptor.RaptorRouteService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
+import java.time.Duration;
 
 
 @Slf4j
@@ -19,9 +25,15 @@ import java.util.List;
 public class RouteService {
 
     private final WebClient skTransitWebClient;
+    private final ObjectMapper objectMapper;
+    private final GuidanceProperties guidanceProps;
 
-    // 우선순위 선택 로직 (stateless라 new로 둬도 되고 @Bean으로 빼도 됨)
-    private final SkRouteSelector routeSelector = new SkRouteSelector();
+    // 내장 경로 탐색 (SK 장애/지연 시 대체, 또는 피드 지역의 1차 경로)
+    private final RaptorRouteService raptorRouteService;
+    private final RaptorProperties raptorProps;
+
+    // 우선순위 선택 로직 (가중치는 RouteScoringProperties, 요청 profile 로 고름)
+    private final SkRouteSelector routeSelector;
 
     /**
      * 1) SK 길찾기 원본 호출 (필터링 X, 그대로 받고 싶을 때 사용)
@@ -41,34 +53,45 @@ public class RouteService {
     /**
      * 2) 버스 위주 → 없으면 지하철+버스 위주로 필터링된 결과
      *    /plan 엔드포인트에서 이 메서드를 사용하면 됨.
+     *
+     *    응답을 통째로 모으지 않고 스트리밍으로 읽으면서 itinerary 머리 정보(pathType/totalTime)로
+     *    순위를 매기고, 선택된 1개만 DTO 로 만든다. (SkStreamingRouteReader 참고)
+     *    candidateItineraries > 1 이면 상위 k 개를 우선순위 순서대로 남긴다 (후보 경로 추적).
+     *
+     *    내장 경로 탐색(RAPTOR)이 켜져 있으면
+     *    - primary 이고 출발/도착이 피드 범위 안이면 먼저 내장 탐색, 경로가 없을 때만 SK
+     *    - 그 외에는 SK 가 실패하거나 skTimeoutSec 안에 응답하지 않으면 내장 탐색으로 대체
+     *      (내장 탐색도 경로가 없으면 원래 SK 오류를 그대로 전달)
      */
     public Mono<SkTransitRootDto> searchPreferredRoutes(RoutePlanRequest query) {
-        return searchRawRoutes(query)
-                .map(raw -> {
-                    // metaData 혹시 null일 때 방어 코드
-                    SkTransitRootDto.MetaDataDto meta = raw.metaData();
-                    if (meta == null || meta.plan() == null || meta.plan().itineraries() == null) {
-                        // 응답 구조가 비정상일 땐 그냥 raw 그대로 반환
-                        return raw;
-                    }
-
-                    List<SkTransitRootDto.ItineraryDto> all = meta.plan().itineraries();
-
-                    // 버스 우선 / 지하철+버스 우선 적용
-                    List<SkTransitRootDto.ItineraryDto> selected = routeSelector.selectPreferredItineraries(all);
-
-                    // 새 PlanDto / MetaDataDto 재조립
-                    SkTransitRootDto.PlanDto filteredPlan =
-                            new SkTransitRootDto.PlanDto(selected);
+        if (raptorRouteService.isPrimaryFor(query)) {
+            return raptorRouteService.search(query)
+                    .switchIfEmpty(Mono.defer(() -> searchSkPreferredRoutes(query)));
+        }
+        Mono<SkTransitRootDto> sk = searchSkPreferredRoutes(query);
+        if (!raptorRouteService.isAvailable()) {
+            return sk;
+        }
+        return sk.timeout(Duration.ofSeconds(Math.max(1, raptorProps.getSkTimeoutSec())))
+                .onErrorResume(e -> {
+                    log.warn("[SK] 길찾기 실패 → 내장 경로 탐색으로 대체: {}", e.toString());
+                    return raptorRouteService.search(query).switchIfEmpty(Mono.error(e));
+                });
+    }
 
-                    SkTransitRootDto.MetaDataDto filteredMeta =
-                            new SkTransitRootDto.MetaDataDto(
-                                    meta.requestParameters(),  // 기존 요청 파라미터 유지
-                                    filteredPlan               // 경로만 우리가 선택한 걸로 교체
-                            );
+    private Mono<SkTransitRootDto> searchSkPreferredRoutes(RoutePlanRequest query) {
+        Flux<DataBuffer> body = skTransitWebClient.post()
+                .uri("/transit/routes/")
+                .bodyValue(query)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class);
 
-                    // 최종 Root DTO
-                    return new SkTransitRootDto(filteredMeta);
+        return new SkStreamingRouteReader(objectMapper, routeSelector.scorer(query.profile()),
+                guidanceProps.getCandidateItineraries())
+                .read(body)
+                .doOnError(WebClientResponseException.class, ex -> {
+                    log.error("SK Transit API 오류: status={}, body={}",
+                            ex.getStatusCode(), ex.getResponseBodyAsString());
                 });
     }
 
@@ -1,49 +1,148 @@
 package com.smartcane.transit.service;
 
+import com.smartcane.transit.config.RouteScoringProperties;
 import com.smartcane.transit.dto.response.SkTransitRootDto.ItineraryDto;
+import org.springframework.stereotype.Component;
 
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * itinerary 점수 계산 + 상위 k 선택
+ * - 가중치는 RouteScoringProperties (기본값 = 기존 버스 우선 정책과 같은 순서)
+ * - 한 번 훑으면서 점수를 한 번씩만 계산하고, 크기 k 의 정렬 배열에만 끼워 넣는다 (전체 정렬 없음)
+ */
+@Component
 public class SkRouteSelector {
 
+    private final RouteScoringProperties props;
+
+    public SkRouteSelector(RouteScoringProperties props) {
+        this.props = props;
+    }
+
+    /**
+     * 경로 비교에 필요한 itinerary 머리 정보.
+     * 스트리밍 수집(SkStreamingRouteReader)에서는 legs 를 객체로 만들기 전에 이 값만으로 순위를 매긴다.
+     */
+    public record ItineraryHeader(int pathType, int totalTime, int totalWalkTime, int totalWalkDistance, int transferCount) {
+        public static ItineraryHeader of(ItineraryDto it) {
+            return new ItineraryHeader(it.pathType(), it.totalTime(), it.totalWalkTime(),
+                    it.totalWalkDistance(), it.transferCount());
+        }
+    }
+
+    /**
+     * 가중치가 고정된 점수 함수 (낮을수록 우선)
+     */
+    public record Scorer(double tierPenaltySec, double timeWeight, double walkTimeWeight,
+                         double walkDistanceWeight, double transferPenaltySec) {
+
+        static Scorer of(RouteScoringProperties.Weights w) {
+            return new Scorer(w.getTierPenaltySec(), w.getTimeWeight(), w.getWalkTimeWeight(),
+                    w.getWalkDistanceWeight(), w.getTransferPenaltySec());
+        }
+
+        public double score(ItineraryHeader h) {
+            return tierPenaltySec * tier(h.pathType())
+                    + timeWeight * h.totalTime()
+                    + walkTimeWeight * h.totalWalkTime()
+                    + walkDistanceWeight * h.totalWalkDistance()
+                    + transferPenaltySec * h.transferCount();
+        }
+    }
+
+    /**
+     * 우선순위 등급: 낮을수록 우선
+     * 0: 버스 위주 (pathType == 2)
+     * 1: 지하철+버스 (pathType == 3)
+     * 2: 그 외
+     */
+    private static int tier(int pathType) {
+        return switch (pathType) {
+            case 2 -> 0;
+            case 3 -> 1;
+            default -> 2;
+        };
+    }
+
     /**
-     * SK API 전체 결과 중 우선순위 정책에 따라 **단 1개의 최적 경로**만 반환합니다.
-     * 1순위: 버스 위주 (pathType == 2) 중 최단 시간
-     * 2순위: 지하철+버스 (pathType == 3) 중 최단 시간
-     * 3순위: 그 외 전체 중 최단 시간
+     * 프로필 이름의 점수 함수 (null/모르는 이름이면 기본 가중치)
      */
-    public List<ItineraryDto> selectPreferredItineraries(List<ItineraryDto> all) {
-        if (all == null || all.isEmpty()) {
+    public Scorer scorer(String profile) {
+        RouteScoringProperties.Weights w = (profile != null) ? props.getProfiles().get(profile) : null;
+        return Scorer.of(w != null ? w : props.getDefaults());
+    }
+
+    /** 기본 가중치로 상위 k 개 */
+    public List<ItineraryDto> selectTopItineraries(List<ItineraryDto> all, int k) {
+        return selectTopItineraries(all, k, null);
+    }
+
+    /**
+     * 점수 상위 k 개를 점수 순서대로 반환 (동률이면 먼저 나온 것이 앞)
+     */
+    public List<ItineraryDto> selectTopItineraries(List<ItineraryDto> all, int k, String profile) {
+        if (all == null || all.isEmpty() || k <= 0) {
             return List.of();
         }
+        Scorer scorer = scorer(profile);
+        TopK<ItineraryDto> top = new TopK<>(Math.min(k, all.size()));
+        for (ItineraryDto it : all) {
+            if (it == null) continue;
+            top.offer(it, scorer.score(ItineraryHeader.of(it)));
+        }
+        return top.toList();
+    }
 
-        // 1) 버스 위주 (pathType=2) 탐색
-        List<ItineraryDto> busOnly = all.stream()
-                .filter(it -> it.pathType() == 2)
-                .sorted(Comparator.comparingInt(ItineraryDto::totalTime)) // 시간순 정렬
-                .toList();
+    /**
+     * 점수 낮은 순 상위 k 개만 들고 있는 고정 크기 배열
+     * - offer 는 O(k) (k 는 작다), 동률이면 먼저 들어온 것이 앞
+     */
+    public static final class TopK<T> {
+        private final Object[] items;
+        private final double[] scores;
+        private int size;
 
-        if (!busOnly.isEmpty()) {
-            // [수정] 가장 빠른 1개만 선택해서 반환
-            return List.of(busOnly.get(0));
+        public TopK(int k) {
+            this.items = new Object[Math.max(1, k)];
+            this.scores = new double[items.length];
         }
 
-        // 2) 지하철+버스 (pathType=3) 탐색
-        List<ItineraryDto> subwayBus = all.stream()
-                .filter(it -> it.pathType() == 3)
-                .sorted(Comparator.comparingInt(ItineraryDto::totalTime))
-                .toList();
+        /** 상위 k 에 들었으면 true */
+        public boolean offer(T item, double score) {
+            int k = items.length;
+            if (size == k && score >= scores[k - 1]) return false;
+            int pos = (size < k) ? size : k - 1;
+            while (pos > 0 && score < scores[pos - 1]) {
+                items[pos] = items[pos - 1];
+                scores[pos] = scores[pos - 1];
+                pos--;
+            }
+            items[pos] = item;
+            scores[pos] = score;
+            if (size < k) size++;
+            return true;
+        }
 
-        if (!subwayBus.isEmpty()) {
-            // [수정] 가장 빠른 1개만 선택해서 반환
-            return List.of(subwayBus.get(0));
+        public int size() {
+            return size;
         }
 
-        // 3) 둘 다 없으면 전체 중에서 가장 빠른 것 1개
-        return all.stream()
-                .sorted(Comparator.comparingInt(ItineraryDto::totalTime))
-                .limit(1) // [수정] 스트림에서 1개만 남김
-                .toList();
+        @SuppressWarnings("unchecked")
+        public T get(int i) {
+            return (T) items[i];
+        }
+
+        /** 가장 좋은 점수 (비어 있으면 NaN) */
+        public double bestScore() {
+            return (size > 0) ? scores[0] : Double.NaN;
+        }
+
+        public List<T> toList() {
+            List<T> out = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) out.add(get(i));
+            return List.copyOf(out);
+        }
     }
-}
\ No newline at end of file
+}
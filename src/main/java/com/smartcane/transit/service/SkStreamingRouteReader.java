@@ -0,0 +1,230 @@
+package com.smartcane.transit.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.SkRouteSelector.ItineraryHeader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SK 길찾기 응답 스트리밍 수집기.
+ *
+ * 기존(bodyToMono)은 응답 전체를 메모리에 모은 뒤 모든 itinerary 를 DTO 로 만들었지만,
+ * 여기서는 DataBuffer 가 도착하는 대로 Jackson 논블로킹 파서에 흘려 보내면서
+ * - metaData.plan.itineraries 바깥 토큰은 "뼈대" 버퍼에,
+ * - itinerary 하나는 임시 토큰 버퍼에 담고 그 사이 머리 정보(pathType / totalTime / 도보 / 환승)만 읽어 점수를 매긴다.
+ * 상위 k 개(기본 1개)에 드는 itinerary 의 버퍼만 남기고, 나머지는 바로 버린다.
+ * 최종적으로 선택된 itinerary 만 우선순위 순서대로 ItineraryDto 로 역직렬화한다.
+ */
+@Slf4j
+public class SkStreamingRouteReader {
+
+    private final ObjectMapper objectMapper;
+    private final SkRouteSelector.Scorer scorer;
+    private final int keep;
+
+    public SkStreamingRouteReader(ObjectMapper objectMapper, SkRouteSelector selector) {
+        this(objectMapper, selector.scorer(null), 1);
+    }
+
+    /**
+     * @param scorer 점수 함수 (요청 profile 의 가중치)
+     * @param keep   남길 itinerary 수 (후보 경로 추적 모드에서 1보다 크게)
+     */
+    public SkStreamingRouteReader(ObjectMapper objectMapper, SkRouteSelector.Scorer scorer, int keep) {
+        this.objectMapper = objectMapper;
+        this.scorer = scorer;
+        this.keep = Math.max(1, keep);
+    }
+
+    public Mono<SkTransitRootDto> read(Flux<DataBuffer> body) {
+        return Mono.defer(() -> {
+            Session session = new Session();
+            return body
+                    .doOnNext(session::feed)
+                    .then(Mono.fromCallable(session::finish))
+                    .doFinally(signal -> session.close());
+        });
+    }
+
+    /**
+     * 응답 1건을 읽는 동안의 파서 상태
+     */
+    private final class Session {
+
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private final TokenBuffer skeleton;
+
+        // 현재 열린 컨테이너 깊이와 깊이별 마지막 필드명
+        private int depth = 0;
+        private final String[] names = new String[32];
+
+        // metaData.plan.itineraries 배열 안인지, 그 배열 원소의 깊이
+        private boolean inItineraries = false;
+        private int itineraryDepth = -1;
+
+        // 읽고 있는 itinerary
+        private TokenBuffer current;
+        private int pathType;
+        private int totalTime;
+        private int totalWalkTime;
+        private int totalWalkDistance;
+        private int transferCount;
+
+        // 지금까지 점수 상위 keep 개 itinerary
+        private final SkRouteSelector.TopK<TokenBuffer> top = new SkRouteSelector.TopK<>(keep);
+        private int seen = 0;
+
+        Session() {
+            try {
+                this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+            this.skeleton = new TokenBuffer(parser);
+        }
+
+        void feed(DataBuffer buffer) {
+            try {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                feeder.feedInput(bytes, 0, bytes.length);
+                drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException("SK 응답 파싱 실패", e);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        SkTransitRootDto finish() throws IOException {
+            feeder.endOfInput();
+            drain();
+
+            SkTransitRootDto root = objectMapper.readValue(skeleton.asParser(), SkTransitRootDto.class);
+            SkTransitRootDto.MetaDataDto meta = (root != null) ? root.metaData() : null;
+            if (meta == null || meta.plan() == null) {
+                // 응답 구조가 비정상일 땐 그대로 반환 (기존 동작과 동일)
+                return root;
+            }
+
+            List<SkTransitRootDto.ItineraryDto> selected = new ArrayList<>(top.size());
+            for (int i = 0; i < top.size(); i++) {
+                selected.add(objectMapper.readValue(top.get(i).asParser(), SkTransitRootDto.ItineraryDto.class));
+            }
+            log.debug("[SK] 스트리밍 수집: itinerary {}건 중 {}건 선택 (bestScore={})", seen, selected.size(), top.bestScore());
+
+            return new SkTransitRootDto(new SkTransitRootDto.MetaDataDto(
+                    meta.requestParameters(),
+                    new SkTransitRootDto.PlanDto(selected)
+            ));
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignore) {
+                // no-op
+            }
+        }
+
+        private void drain() throws IOException {
+            JsonToken t;
+            while ((t = parser.nextToken()) != null && t != JsonToken.NOT_AVAILABLE) {
+                handle(t);
+            }
+        }
+
+        private void handle(JsonToken t) throws IOException {
+            switch (t) {
+                case FIELD_NAME -> {
+                    if (depth < names.length) names[depth] = parser.currentName();
+                    write();
+                }
+                case START_OBJECT -> {
+                    if (inItineraries && current == null && depth == itineraryDepth) {
+                        current = new TokenBuffer(parser);
+                        pathType = 0;
+                        totalTime = Integer.MAX_VALUE;
+                        totalWalkTime = 0;
+                        totalWalkDistance = 0;
+                        transferCount = 0;
+                    }
+                    write();
+                    enter();
+                }
+                case START_ARRAY -> {
+                    boolean itineraries = !inItineraries && depth == 3
+                            && "metaData".equals(names[1])
+                            && "plan".equals(names[2])
+                            && "itineraries".equals(names[3]);
+                    write();
+                    enter();
+                    if (itineraries) {
+                        inItineraries = true;
+                        itineraryDepth = depth;
+                    }
+                }
+                case END_OBJECT, END_ARRAY -> {
+                    depth--;
+                    if (inItineraries && t == JsonToken.END_ARRAY && depth == itineraryDepth - 1) {
+                        inItineraries = false;
+                        write();
+                        return;
+                    }
+                    write();
+                    if (current != null && t == JsonToken.END_OBJECT && depth == itineraryDepth) {
+                        finishItinerary();
+                    }
+                }
+                default -> {
+                    // itinerary 바로 아래 스칼라 = 머리 정보
+                    if (current != null && depth == itineraryDepth + 1 && t == JsonToken.VALUE_NUMBER_INT) {
+                        String name = names[depth];
+                        if (name != null) {
+                            switch (name) {
+                                case "pathType" -> pathType = parser.getIntValue();
+                                case "totalTime" -> totalTime = parser.getIntValue();
+                                case "totalWalkTime" -> totalWalkTime = parser.getIntValue();
+                                case "totalWalkDistance" -> totalWalkDistance = parser.getIntValue();
+                                case "transferCount" -> transferCount = parser.getIntValue();
+                                default -> { }
+                            }
+                        }
+                    }
+                    write();
+                }
+            }
+        }
+
+        private void enter() {
+            depth++;
+            if (depth < names.length) names[depth] = null;
+        }
+
+        private void write() throws IOException {
+            (current != null ? current : skeleton).copyCurrentEvent(parser);
+        }
+
+        private void finishItinerary() {
+            seen++;
+            ItineraryHeader header = new ItineraryHeader(pathType, totalTime, totalWalkTime, totalWalkDistance, transferCount);
+            top.offer(current, scorer.score(header));
+            current = null;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.smartcane.transit.service;
+
+import com.smartcane.transit.config.PlanProperties;
+import com.smartcane.transit.dto.request.PlacePlanRequest;
+import com.smartcane.transit.dto.request.PlaceQuery;
+import com.smartcane.transit.dto.request.RoutePlanRequest;
+import com.smartcane.transit.dto.response.GeocodeResult;
+import com.smartcane.transit.dto.response.RoutePlanInitResponse;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.geocode.GeocodeService;
+import com.smartcane.transit.service.geometry.TripGeometryCache;
+import com.smartcane.transit.service.guidance.phrase.PhraseCatalog;
+import com.smartcane.transit.service.plan.CompactPlanEncoder;
+import com.smartcane.transit.service.plan.PlanCache;
+import com.smartcane.transit.util.PolylineCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 길찾기 계획 수립 + trip 세션 초기화
+ *
+ * - plan       : 좌표 기반 (기존 /plan)
+ * - planPlaces : 주소/좌표 혼합. 양 끝 지오코딩을 동시에 수행한 뒤 바로 경로 탐색으로 이어간다.
+ *
+ * 클라이언트가 Idempotency-Key 를 보내면 같은 키의 재시도는 SK 를 다시 부르지 않고
+ * 진행 중인(또는 idempotencyTtlSec 안에 끝난) 결과를 그대로 돌려준다. → 같은 tripId
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TripPlanService {
+
+    private final RouteService routeService;
+    private final GeocodeService geocodeService;
+    private final TripStore tripStore;
+    private final TripGeometryCache geometryCache;
+    private final PlanCache planCache;
+    private final CompactPlanEncoder compactPlanEncoder;
+    private final PlanProperties props;
+
+    /** 멱등 키 → 진행 중/완료된 계획 (서버 메모리, TTL 짧게) */
+    private final Map<String, IdempotentPlan> idempotentPlans = new ConcurrentHashMap<>();
+
+    private record IdempotentPlan(Object request, Mono<RoutePlanInitResponse> result, long createdAtMs) {}
+
+    /**
+     * SK 길찾기 호출 + 서버 tripId 발급 + TripStore 초기화
+     */
+    public Mono<RoutePlanInitResponse> plan(RoutePlanRequest query) {
+        return routeService.searchRoutes(query)      // Mono<SkTransitRootDto>
+                .map(root -> {
+                    String tripId = UUID.randomUUID().toString(); // 서버 발급 tripId
+
+                    // ✅ 이 시점의 root.metaData().plan().itineraries() 는
+                    //    이미 "버스 우선 → 지하철+버스" 로 필터된 상태
+                    SkTransitRootDto.MetaDataDto meta = root.metaData();
+
+                    // 초기 Trip 상태 등록 (보행 시작 기준)
+                    tripStore.init(
+                            tripId,
+                            meta,
+                            0,      // itineraryIndex
+                            0,      // legIndex
+                            null,   // stepIndex
+                            TripState.PHASE_WALKING
+                    );
+
+                    // 안내 문구 언어 / 경로 점수 프로필 (기본값이 아니면 상태에 기록, 재탐색도 같은 프로필로)
+                    String lang = PhraseCatalog.langOf(query.lang());
+                    if (!PhraseCatalog.DEFAULT_LANG.equals(lang) || query.profile() != null) {
+                        TripState state = tripStore.load(tripId);
+                        if (!PhraseCatalog.DEFAULT_LANG.equals(lang)) state.setLang(lang);
+                        state.setRouteProfile(query.profile());
+                        tripStore.save(tripId, state);
+                    }
+
+                    // 라인스트링을 미리 프리미티브 배열로 컴파일 (진행 업링크마다 파싱하지 않도록)
+                    geometryCache.warm(tripId, meta);
+
+                    // 복구용: 내용 해시로도 meta 를 찾을 수 있게 공유 캐시에 등록
+                    String planHash = planCache.put(meta);
+
+                    // iOS 에게는 tripId + MetaData (+ planHash) 만 내려줌
+                    return new RoutePlanInitResponse(tripId, meta, planHash);
+                });
+    }
+
+    /**
+     * 압축 표현으로 변환 (?geometry=compact)
+     * - 멱등 캐시/TripStore 에는 원본이 남고 응답만 변환한다
+     */
+    public RoutePlanInitResponse compact(RoutePlanInitResponse full) {
+        return new RoutePlanInitResponse(full.tripId(), compactPlanEncoder.encode(full.metaData()),
+                full.planHash(), PolylineCodec.ENCODING_NAME);
+    }
+
+    /**
+     * 멱등 키 지원 버전. key 가 없으면 plan(query) 와 같다.
+     */
+    public Mono<RoutePlanInitResponse> plan(RoutePlanRequest query, String idempotencyKey) {
+        return idempotent(idempotencyKey, query, () -> plan(query));
+    }
+
+    /**
+     * 멱등 키 지원 버전. key 가 없으면 planPlaces(request) 와 같다.
+     */
+    public Mono<RoutePlanInitResponse> planPlaces(PlacePlanRequest request, String idempotencyKey) {
+        return idempotent(idempotencyKey, request, () -> planPlaces(request));
+    }
+
+    /**
+     * 주소/좌표 → 경로 → trip 을 하나의 파이프라인으로 처리.
+     * 출발/도착 지오코딩은 동시에(캐시 우선) 진행되므로 대기 시간은 느린 쪽 하나 + SK 호출 1회 수준.
+     */
+    public Mono<RoutePlanInitResponse> planPlaces(PlacePlanRequest request) {
+        if (request == null || request.origin() == null || request.destination() == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "origin/destination 이 비어 있습니다."));
+        }
+
+        return Mono.zip(resolve(request.origin(), "origin"), resolve(request.destination(), "destination"))
+                .map(ends -> new RoutePlanRequest(
+                        String.valueOf(ends.getT1().x()),
+                        String.valueOf(ends.getT1().y()),
+                        String.valueOf(ends.getT2().x()),
+                        String.valueOf(ends.getT2().y()),
+                        request.lang(),
+                        "json",
+                        request.count(),
+                        request.searchDttm(),
+                        request.profile()
+                ))
+                .flatMap(this::plan);
+    }
+
+    private Mono<GeocodeResult> resolve(PlaceQuery place, String label) {
+        if (place.hasCoordinate()) {
+            return Mono.just(new GeocodeResult(place.lon(), place.lat()));
+        }
+        if (place.address() == null || place.address().isBlank()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    label + " 에 좌표(lon/lat) 또는 address 가 필요합니다."));
+        }
+        return geocodeService.geocodeAsync(place.address())
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        label + " 주소를 찾을 수 없습니다: " + place.address())));
+    }
+
+    /**
+     * 같은 키의 요청은 하나의 캐시된 Mono 를 공유한다.
+     * - 진행 중이면 그 결과를 함께 기다리고, 끝났으면 같은 응답(tripId 포함)을 즉시 돌려준다.
+     * - 실패한 결과는 보관하지 않는다 (다음 재시도는 새로 탐색)
+     * - 같은 키로 다른 본문을 보내면 409
+     */
+    private Mono<RoutePlanInitResponse> idempotent(String key, Object request,
+                                                   Supplier<Mono<RoutePlanInitResponse>> work) {
+        if (key == null || key.isBlank()) {
+            return work.get();
+        }
+
+        long now = System.currentTimeMillis();
+        long ttlMs = props.getIdempotencyTtlSec() * 1000L;
+        idempotentPlans.values().removeIf(p -> now - p.createdAtMs() > ttlMs);
+
+        boolean[] created = {false};
+        IdempotentPlan entry = idempotentPlans.computeIfAbsent(key, k -> {
+            created[0] = true;
+            IdempotentPlan[] self = new IdempotentPlan[1];
+            Mono<RoutePlanInitResponse> shared = Mono.defer(work)
+                    .doOnError(e -> idempotentPlans.remove(k, self[0]))
+                    .cache();
+            self[0] = new IdempotentPlan(request, shared, now);
+            return self[0];
+        });
+
+        if (!entry.request().equals(request)) {
+            return Mono.error(new ResponseStatusException(HttpStatus.CONFLICT,
+                    "같은 Idempotency-Key 로 다른 요청이 이미 처리되었습니다."));
+        }
+        if (!created[0]) {
+            log.info("[Plan] Idempotency-Key 재시도 → 기존 결과 재사용 key={}", key);
+        }
+        return entry.result();
+    }
+}
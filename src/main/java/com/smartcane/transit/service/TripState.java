@@ -21,6 +21,8 @@ public class TripState {
     private double lastLon;
     private double lastLat;
     private long lastTs;
+    /** 보행 속도 EWMA (m/s, 0 = 아직 모름) — 연속된 lastLat/lastLon/lastTs 로 갱신 */
+    private double walkSpeedMps;
     private double cumulativeWalkMeter;
 
     // 도착 히스테리시스용
@@ -37,6 +39,27 @@ public class TripState {
 
     private Integer lastSpokenStepIndex;  // 마지막으로 description을 읽어준 step 인덱스
 
+    /** 마지막으로 내보낸 안내의 지문 (문구/phase/leg/남은거리 구간) — 변경분만 응답 모드용 */
+    private long lastGuidanceHash;
+
+    /** 현재 phase 에 들어온 시각 (상태 기계가 단계 체류 시간 측정에 사용, 0 = 모름) */
+    private long phaseSinceEpochMs;
+
+    /** 안내 문구 언어 ("ko"/"en", null 이면 기본 언어) — /plan 의 lang 으로 정한다 */
+    private String lang;
+
+    /** 경로 점수 프로필 (/plan 의 profile, null 이면 기본 가중치) — 재탐색에도 같은 프로필을 쓴다 */
+    private String routeProfile;
+
+    // 경로 이탈 자동 재탐색용
+    private int offRouteStreak;          // 연속 이탈 샘플 수
+    private long lastReplanAtEpochMs;    // 마지막 재탐색 요청 시각 (디바운스)
+    private int planRevision;            // 재탐색으로 경로가 바뀐 횟수
+
+    // 후보 경로 추적용: 지금 itinerary 보다 더 잘 맞는 후보와 연속 횟수 (-1 = 없음)
+    private int candidateIndex = -1;
+    private int candidateStreak;
+
     public TripState() {
     }
 
@@ -113,6 +136,14 @@ public class TripState {
         this.lastTs = lastTs;
     }
 
+    public double getWalkSpeedMps() {
+        return walkSpeedMps;
+    }
+
+    public void setWalkSpeedMps(double walkSpeedMps) {
+        this.walkSpeedMps = walkSpeedMps;
+    }
+
     public double getCumulativeWalkMeter() {
         return cumulativeWalkMeter;
     }
@@ -162,4 +193,76 @@ public class TripState {
     public void setLastSpokenStepIndex(Integer lastSpokenStepIndex) {
         this.lastSpokenStepIndex = lastSpokenStepIndex;
     }
+
+    public long getLastGuidanceHash() {
+        return lastGuidanceHash;
+    }
+
+    public void setLastGuidanceHash(long lastGuidanceHash) {
+        this.lastGuidanceHash = lastGuidanceHash;
+    }
+
+    public long getPhaseSinceEpochMs() {
+        return phaseSinceEpochMs;
+    }
+
+    public void setPhaseSinceEpochMs(long phaseSinceEpochMs) {
+        this.phaseSinceEpochMs = phaseSinceEpochMs;
+    }
+
+    public String getLang() {
+        return lang;
+    }
+
+    public void setLang(String lang) {
+        this.lang = lang;
+    }
+
+    public String getRouteProfile() {
+        return routeProfile;
+    }
+
+    public void setRouteProfile(String routeProfile) {
+        this.routeProfile = routeProfile;
+    }
+
+    public int getOffRouteStreak() {
+        return offRouteStreak;
+    }
+
+    public void setOffRouteStreak(int offRouteStreak) {
+        this.offRouteStreak = offRouteStreak;
+    }
+
+    public long getLastReplanAtEpochMs() {
+        return lastReplanAtEpochMs;
+    }
+
+    public void setLastReplanAtEpochMs(long lastReplanAtEpochMs) {
+        this.lastReplanAtEpochMs = lastReplanAtEpochMs;
+    }
+
+    public int getPlanRevision() {
+        return planRevision;
+    }
+
+    public void setPlanRevision(int planRevision) {
+        this.planRevision = planRevision;
+    }
+
+    public int getCandidateIndex() {
+        return candidateIndex;
+    }
+
+    public void setCandidateIndex(int candidateIndex) {
+        this.candidateIndex = candidateIndex;
+    }
+
+    public int getCandidateStreak() {
+        return candidateStreak;
+    }
+
+    public void setCandidateStreak(int candidateStreak) {
+        this.candidateStreak = candidateStreak;
+    }
 }
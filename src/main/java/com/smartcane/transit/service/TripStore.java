@@ -32,4 +32,9 @@ public interface TripStore {
      * 경로 메타데이터 조회
      */
     SkTransitRootDto.MetaDataDto loadMeta(String tripId);
+
+    /**
+     * 경로 메타데이터 교체 (재탐색 등으로 경로가 바뀐 경우)
+     */
+    void saveMeta(String tripId, SkTransitRootDto.MetaDataDto meta);
 }
@@ -3,7 +3,9 @@ package com.smartcane.transit.service.arrival;
 import com.smartcane.transit.dto.request.ArrivalCheckRequest;
 import com.smartcane.transit.dto.response.ArrivalCheckResponse;
 import com.smartcane.transit.dto.response.SkTransitRootDto;
-import com.smartcane.transit.util.GeoUtils;
+import com.smartcane.transit.service.geometry.ItineraryGeometry;
+import com.smartcane.transit.service.geometry.LegGeometry;
+import com.smartcane.transit.util.CompiledPolyline;
 import com.smartcane.transit.util.PolylineSnapper;
 import org.springframework.stereotype.Service;
 
@@ -20,7 +22,7 @@ public class TransitArrivalService {
     private static ArrivalCheckResponse notFound() {
         return new ArrivalCheckResponse(
                 false, 9999.0, "경로를 찾을 수 없습니다.", null, null, null,
-                null, null, null, false
+                null, null, null, false, null
         );
     }
 
@@ -36,37 +38,43 @@ public class TransitArrivalService {
         return R * c;
     }
 
-    private static Integer findNearestStationIndex(List<SkTransitRootDto.StationDto> stations, double currLat, double currLon) {
-        // (기존 코드와 동일)
+    private static Integer findNearestStationIndex(LegGeometry leg, double currLat, double currLon) {
         double best = Double.MAX_VALUE;
         Integer bestIdx = null;
-        for (int i = 0; i < stations.size(); i++) {
-            SkTransitRootDto.StationDto st = stations.get(i);
-            if (st == null || st.lat() == null || st.lon() == null) continue;
-            try {
-                double sLat = Double.parseDouble(st.lat());
-                double sLon = Double.parseDouble(st.lon());
-                double d = distanceMeters(currLat, currLon, sLat, sLon);
-                if (d < best) {
-                    best = d;
-                    bestIdx = i;
-                }
-            } catch (NumberFormatException ignore) {}
+        double[] lats = leg.stationLat();
+        double[] lons = leg.stationLon();
+        for (int i = 0; i < lats.length; i++) {
+            if (Double.isNaN(lats[i]) || Double.isNaN(lons[i])) continue;
+            double d = distanceMeters(currLat, currLon, lats[i], lons[i]);
+            if (d < best) {
+                best = d;
+                bestIdx = i;
+            }
         }
         return bestIdx;
     }
 
     public ArrivalCheckResponse evaluate(SkTransitRootDto.ItineraryDto itin, ArrivalCheckRequest req) {
+        return evaluate(itin, ItineraryGeometry.compile(itin), req);
+    }
+
+    /**
+     * 컴파일된 지오메트리(passShape/정류장 좌표)를 사용하는 판정.
+     * ProgressCoordinator 는 TripGeometryCache 에서 꺼낸 geometry 로 이 메서드를 호출한다.
+     */
+    public ArrivalCheckResponse evaluate(SkTransitRootDto.ItineraryDto itin,
+                                         ItineraryGeometry geometry,
+                                         ArrivalCheckRequest req) {
         // 1) ~ 5) 기존 로직 동일 (정류장 인덱스 및 stopsLeft 계산)
         var leg = safeGet(itin.legs(), req.legIndex());
         if (leg == null) return notFound();
 
-        String line = (leg.passShape() != null) ? leg.passShape().linestring() : null;
-        var pts = GeoUtils.parseLineString(line);
-        if (pts == null || pts.isEmpty()) return notFound();
+        LegGeometry legGeo = geometry.leg(req.legIndex());
+        CompiledPolyline shape = (legGeo != null) ? legGeo.shape() : CompiledPolyline.EMPTY;
+        if (shape.isEmpty()) return notFound();
 
-        double total = GeoUtils.polylineLength(pts);
-        var snap = PolylineSnapper.snapToPolyline(req.currLat(), req.currLon(), pts);
+        double total = shape.length();
+        var snap = PolylineSnapper.snapToPolyline(req.currLat(), req.currLon(), shape);
         double remaining = Math.max(0, total - snap.snappedMetersFromStart);
         boolean arrived = remaining <= req.arriveRadiusM();
 
@@ -76,18 +84,22 @@ public class TransitArrivalService {
         Integer currentStationIndex = null;
         Integer stopsLeft = null;
 
-        SkTransitRootDto.PassStopListDto passStopList = leg.passStopList();
-        if (passStopList != null && passStopList.stations() != null && !passStopList.stations().isEmpty()) {
-            var stations = passStopList.stations();
-            currentStationIndex = findNearestStationIndex(stations, req.currLat(), req.currLon());
+        if (legGeo.stationCount() > 0) {
+            currentStationIndex = findNearestStationIndex(legGeo, req.currLat(), req.currLon());
             if (currentStationIndex != null) {
-                int lastIdx = stations.size() - 1;
+                int lastIdx = legGeo.stationCount() - 1;
                 stopsLeft = Math.max(0, lastIdx - currentStationIndex);
             }
         }
 
         Integer nextLegIndex = arrived ? req.legIndex() + 1 : null;
 
+        Double routeOffsetM = null;
+        if (geometry.guidance() != null) {
+            double off = geometry.guidance().offsetOf(req.legIndex(), -1, snap.snappedMetersFromStart);
+            if (!Double.isNaN(off)) routeOffsetM = off;
+        }
+
         // ✅ [수정 완료] 파라미터 순서를 DTO 정의에 맞게 수정했습니다.
         // ArrivalCheckResponse(arrived, remaining, currInst, nextInst, nextLeg, nextStep, currStep, currStation, stopsLeft, offRoute)
         return new ArrivalCheckResponse(
@@ -100,7 +112,8 @@ public class TransitArrivalService {
                 null,                // currentStepIndex (대중교통은 null)
                 currentStationIndex, // currentStationIndex (순서 8번)
                 stopsLeft,           // stopsLeft (순서 9번) - 여기가 null로 들어가고 있었습니다!
-                false
+                false,
+                routeOffsetM
         );
     }
 }
\ No newline at end of file
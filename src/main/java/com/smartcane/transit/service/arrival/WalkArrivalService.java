@@ -4,7 +4,11 @@ import com.smartcane.transit.config.GuidanceProperties;
 import com.smartcane.transit.dto.request.ArrivalCheckRequest;
 import com.smartcane.transit.dto.response.ArrivalCheckResponse;
 import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.geometry.ItineraryGeometry;
+import com.smartcane.transit.service.geometry.LegGeometry;
+import com.smartcane.transit.util.CompiledPolyline;
 import com.smartcane.transit.util.GeoUtils;
+import com.smartcane.transit.util.PolylineSnapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -20,11 +24,12 @@ import java.util.List;
  * 3) 다음 안내 지점까지 거리:
  * - 아직 중간 step이면: 다음 step의 첫 좌표까지 거리
  * - 마지막 step이면: leg.end 좌표까지 거리
- * → "NEXT_STEP:123.45" 형식으로 nextInstruction 에 담는다.
+ * → "NEXT_STEP:123.45" 형식으로 nextInstruction 에 담는다. (레거시 판정 API 용)
  * 4) remainingMeters 는 leg.end 까지 거리(목적지까지 거리)
  * 5) currentStepIndex 는 "현재 스냅된 step 인덱스"로 항상 세팅
  * → ProgressCoordinator 가 TripState.stepIndex 를 매번 업데이트 가능
  * 6) nextStepIndex 는 WALK 에서는 사용하지 않으므로 null 로 내려준다.
+ * 7) routeOffsetM 은 스냅된 step 위치를 GuidancePlan 의 경로 누적거리로 환산한 값
  */
 @Service
 @Slf4j
@@ -50,11 +55,21 @@ public class WalkArrivalService {
                 null,
                 null,
                 null,
-                false
+                false,
+                null
         );
     }
 
     public ArrivalCheckResponse evaluate(SkTransitRootDto.ItineraryDto itin, ArrivalCheckRequest req) {
+        return evaluate(itin, ItineraryGeometry.compile(itin), req);
+    }
+
+    /**
+     * 컴파일된 step 라인을 사용하는 판정 (진행 업링크 경로).
+     */
+    public ArrivalCheckResponse evaluate(SkTransitRootDto.ItineraryDto itin,
+                                         ItineraryGeometry geometry,
+                                         ArrivalCheckRequest req) {
 
         // 1) 현재 leg
         var leg = safeGet(itin.legs(), req.legIndex());
@@ -74,20 +89,18 @@ public class WalkArrivalService {
             return fallbackByLegEndOnly(leg, currLat, currLon, req);
         }
 
+        LegGeometry legGeo = geometry.leg(req.legIndex());
+        CompiledPolyline[] stepLines = (legGeo != null) ? legGeo.steps() : new CompiledPolyline[0];
+
         int nearestStepIdx = -1;
         double bestStepDist = Double.POSITIVE_INFINITY;
 
         // 3) 현재 위치에서 가장 가까운 step 인덱스 찾기 (라인 전체에서 최소 거리)
-        for (int i = 0; i < steps.size(); i++) {
-            SkTransitRootDto.WalkStepDto step = steps.get(i);
-            var pts = GeoUtils.parseLineString(step.linestring()); // [lat, lon]
-
-            for (var pt : pts) {
-                double d = GeoUtils.haversine(currLat, currLon, pt[0], pt[1]);
-                if (d < bestStepDist) {
-                    bestStepDist = d;
-                    nearestStepIdx = i;
-                }
+        for (int i = 0; i < stepLines.length; i++) {
+            double d = stepLines[i].nearestVertexDistance(currLat, currLon);
+            if (d < bestStepDist) {
+                bestStepDist = d;
+                nearestStepIdx = i;
             }
         }
 
@@ -139,11 +152,9 @@ public class WalkArrivalService {
 
             if (nextIdx < steps.size()) {
                 // 다음 step 의 첫 포인트까지 거리
-                SkTransitRootDto.WalkStepDto nextStep = steps.get(nextIdx);
-                var ptsNext = GeoUtils.parseLineString(nextStep.linestring());
-                if (!ptsNext.isEmpty()) {
-                    double[] first = ptsNext.get(0); // [lat, lon]
-                    nextAnnounceDistM = GeoUtils.haversine(currLat, currLon, first[0], first[1]);
+                CompiledPolyline nextLine = (nextIdx < stepLines.length) ? stepLines[nextIdx] : CompiledPolyline.EMPTY;
+                if (!nextLine.isEmpty()) {
+                    nextAnnounceDistM = GeoUtils.haversine(currLat, currLon, nextLine.lat(0), nextLine.lon(0));
                 }
             } else {
                 // 마지막 step 이면 → leg.end 까지 거리 = remaining
@@ -157,6 +168,14 @@ public class WalkArrivalService {
             nextInstruction = "NEXT_STEP:" + nextAnnounceDistM;
         }
 
+        // 6-1) 경로 누적거리 (안내 계획의 다음 지점 탐색용) — 가장 가까운 step 라인에 수직 투영
+        Double routeOffsetM = null;
+        if (nearestStepIdx >= 0 && nearestStepIdx < stepLines.length && geometry.guidance() != null) {
+            var snap = PolylineSnapper.snapToPolyline(currLat, currLon, stepLines[nearestStepIdx]);
+            double off = geometry.guidance().offsetOf(req.legIndex(), nearestStepIdx, snap.snappedMetersFromStart);
+            if (!Double.isNaN(off)) routeOffsetM = off;
+        }
+
         // 7) 다음 leg 인덱스 (목적지 도착 시에만)
         Integer nextLegIndex = arrived ? (req.legIndex() + 1) : null;
 
@@ -180,7 +199,8 @@ public class WalkArrivalService {
                 currentStepIndex,   // 👈 현재 스냅된 step 인덱스
                 null,               // currentStationIndex (transit 전용)
                 null,               // stopsLeft (transit 전용)
-                offRoute
+                offRoute,
+                routeOffsetM
         );
     }
 
@@ -222,7 +242,8 @@ public class WalkArrivalService {
                 null,   // currentStepIndex
                 null,   // currentStationIndex
                 null,   // stopsLeft
-                false
+                false,
+                null    // routeOffsetM
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.smartcane.transit.service.eta;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.service.TripState;
+import com.smartcane.transit.service.guidance.DecisionPoint;
+import com.smartcane.transit.service.guidance.GuidancePlan;
+import com.smartcane.transit.service.state.TripPhase;
+import com.smartcane.transit.util.GeoUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * trip 별 도착 예상 시간(ETA)
+ * - 보행 속도: 연속된 업링크(lastLat/lastLon/lastTs) 사이 속도의 EWMA 를 TripState 에 한 값으로만 들고 간다 (이력 없음)
+ * - 대중교통 leg: SK sectionTime 을 남은 거리 비율로 나누고, 대기 중이면 실시간 도착 초를 더한다
+ * - 뒤쪽 leg 는 GuidancePlan 의 누적합(보행 m / 대중교통 s)으로 한 번에 더한다 → 샘플마다 O(1)
+ */
+@Component
+@RequiredArgsConstructor
+public class EtaEstimator {
+
+    /** sectionTime 이 없을 때 대중교통 평균 속도 (시내버스 약 18km/h) */
+    private static final double TRANSIT_FALLBACK_MPS = 5.0;
+
+    private final GuidanceProperties props;
+
+    /**
+     * @param toTargetSec      다음 안내 지점까지 (대기 중이면 차량 도착까지)
+     * @param toDestinationSec 목적지까지
+     * @param toTargetM        다음 안내 지점까지 경로상 거리(m), 모르면 NaN
+     */
+    public record Eta(Integer toTargetSec, Integer toDestinationSec, double toTargetM) {
+        public static final Eta UNKNOWN = new Eta(null, null, Double.NaN);
+    }
+
+    /**
+     * 보행 중 샘플 하나로 속도 EWMA 갱신 (TripState 의 lastLat/lastLon/lastTs 를 갱신하기 전에 호출)
+     * - 첫 샘플, 시간 역행, 간격이 너무 긴 샘플, 비현실적으로 빠른 샘플은 건너뛴다
+     * - 멈춰 선 샘플(신호 대기 등)도 평균에 넣는다 — 실제 걸리는 시간에 가깝게
+     */
+    public void observeWalk(TripState state, double lat, double lon, long tsMs) {
+        long prevTs = state.getLastTs();
+        if (prevTs <= 0) return;
+        double dt = (tsMs - prevTs) / 1000.0;
+        if (dt <= 0 || dt > props.getEtaMaxSampleGapSec()) return;
+
+        double v = GeoUtils.haversine(state.getLastLat(), state.getLastLon(), lat, lon) / dt;
+        if (v > props.getEtaMaxWalkSpeedMps()) return;
+
+        double prev = state.getWalkSpeedMps();
+        double alpha = props.getEtaWalkSpeedAlpha();
+        state.setWalkSpeedMps(prev > 0 ? prev + alpha * (v - prev) : v);
+    }
+
+    /** ETA 에 쓸 보행 속도 (추정 전이면 기본값, 하한 적용) */
+    public double walkSpeed(TripState state) {
+        double v = state.getWalkSpeedMps();
+        if (v <= 0) v = props.getEtaDefaultWalkSpeedMps();
+        return Math.max(v, props.getEtaMinWalkSpeedMps());
+    }
+
+    /**
+     * @param routeOffsetM itinerary 시작점부터 현재 위치까지 경로상 거리 (모르면 null)
+     * @param remainingM   판정 서비스가 준 남은 거리 (offset 을 모를 때 대신 사용)
+     * @param busWaitSec   대기 중인 차량의 실시간 도착까지 남은 초 (모르면 null)
+     */
+    public Eta estimate(TripState state, GuidancePlan plan, int legIndex, boolean walk,
+                        Double routeOffsetM, double remainingM, Integer busWaitSec) {
+        TripPhase phase = TripPhase.of(state.getPhase());
+        if (phase == TripPhase.ARRIVED) return new Eta(0, 0, 0.0);
+        if (phase == TripPhase.CANCELLED || plan == null) return Eta.UNKNOWN;
+
+        double v = walkSpeed(state);
+        double offset = (routeOffsetM != null && Double.isFinite(routeOffsetM)) ? routeOffsetM : Double.NaN;
+        double legStart = plan.legStartM(legIndex);
+        double legEnd = plan.legEndM(legIndex);
+        boolean located = !Double.isNaN(offset) && !Double.isNaN(legEnd);
+
+        double legRemM = located ? Math.max(0.0, legEnd - offset) : remainingM;
+        double toTarget;
+        double toTargetM = legRemM;
+        double legRemSec;
+
+        if (walk) {
+            legRemSec = legRemM / v;
+            DecisionPoint next = located ? plan.nextAfter(offset) : null;
+            if (next != null && next.legIndex() == legIndex) {
+                toTargetM = Math.max(0.0, next.offsetM() - offset);
+            }
+            toTarget = toTargetM / v;
+        } else {
+            double legLen = located ? legEnd - legStart : Double.NaN;
+            int sectionSec = plan.legSectionSec(legIndex);
+            double rideSec;
+            if (sectionSec > 0 && legLen > 0) {
+                rideSec = sectionSec * Math.min(1.0, legRemM / legLen);
+            } else if (sectionSec > 0 && phase == TripPhase.WAITING_TRANSIT) {
+                rideSec = sectionSec;
+            } else {
+                rideSec = legRemM / TRANSIT_FALLBACK_MPS;
+            }
+            boolean waiting = phase == TripPhase.WAITING_TRANSIT && busWaitSec != null && busWaitSec >= 0;
+            legRemSec = (waiting ? busWaitSec : 0) + rideSec;
+            toTarget = waiting ? busWaitSec : rideSec;
+        }
+
+        double toDestination = legRemSec
+                + plan.walkMetersFrom(legIndex + 1) / v
+                + plan.transitSecFrom(legIndex + 1);
+        return new Eta(seconds(toTarget), seconds(toDestination), toTargetM);
+    }
+
+    private static Integer seconds(double sec) {
+        if (Double.isNaN(sec) || sec < 0) return null;
+        return (int) Math.min(Integer.MAX_VALUE, Math.round(sec));
+    }
+}
@@ -0,0 +1,41 @@
+package com.smartcane.transit.service.geocode;
+
+import com.smartcane.transit.dto.response.GeocodeResult;
+
+/**
+ * 캐시에 저장되는 지오코딩 결과.
+ * - result 가 null 이면 "찾을 수 없음"을 기억하는 네거티브 캐시 항목
+ * - expiresAtEpochMs 이후에는 무효
+ */
+public record CachedGeocode(
+        GeocodeResult result,
+        long expiresAtEpochMs
+) {
+    public boolean isNegative() {
+        return result == null;
+    }
+
+    public boolean isExpired(long nowEpochMs) {
+        return nowEpochMs >= expiresAtEpochMs;
+    }
+
+    /** 저장소용 직렬화: "x,y" 또는 네거티브면 "-" */
+    public String encodeValue() {
+        return (result == null) ? "-" : result.x() + "," + result.y();
+    }
+
+    /** encodeValue() 의 역변환. 형식이 깨졌으면 null */
+    public static GeocodeResult decodeValue(String value) {
+        if (value == null || value.equals("-")) return null;
+        int comma = value.indexOf(',');
+        if (comma < 0) return null;
+        try {
+            return new GeocodeResult(
+                    Double.parseDouble(value.substring(0, comma)),
+                    Double.parseDouble(value.substring(comma + 1))
+            );
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.smartcane.transit.service.geocode;
+
+import com.smartcane.transit.config.GeocodeProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 디스크(TSV) 기반 지오코딩 캐시 (redis 프로파일이 아닐 때)
+ * - 한 줄 = "정규화주소 \t 값 \t 만료시각(ms)"
+ * - 메모리에는 키 → 파일 위치(offset, 길이) 색인만 두고, 값은 GeocodeService 의 LRU 가 미스일 때 한 번 읽는다
+ * - 저장은 append 만 하고, 파일이 storeCompactBytes 를 넘거나 색인이 storeMaxEntries 의 1.25배를 넘으면
+ *   만료/중복 항목을 걸러 최근 storeMaxEntries 건만 남기도록 다시 쓰면서 색인도 새로 만든다 (기동 시에도 한 번)
+ */
+@Slf4j
+@Component
+@Profile("!redis")
+@RequiredArgsConstructor
+public class FileGeocodeStore implements GeocodeStore {
+
+    // 색인 값 = offset << LEN_BITS | 줄 길이(bytes, 개행 포함)
+    private static final int LEN_BITS = 20;
+    private static final long LEN_MASK = (1L << LEN_BITS) - 1;
+
+    private final GeocodeProperties props;
+
+    // 압축 때 통째로 교체 (조회는 교체 전/후 색인 중 하나를 온전히 본다)
+    private volatile Map<String, Long> index = new ConcurrentHashMap<>();
+    private Path file;
+    // 현재 파일 크기 / 직전 압축 직후 크기 (save 와 compact 는 같은 락 안에서만 갱신)
+    private long fileBytes;
+    private long compactedBytes;
+
+    @PostConstruct
+    void init() {
+        file = Path.of(props.getStoreFile());
+        if (!Files.exists(file)) return;
+        try {
+            int kept = compact();
+            log.info("[Geocode] 디스크 캐시 {}건 색인 ({})", kept, file);
+        } catch (IOException e) {
+            log.warn("[Geocode] 디스크 캐시 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public CachedGeocode load(String key) {
+        String safeKey = safeKey(key);
+        Map<String, Long> idx = index;
+        Long slot = idx.get(safeKey);
+        if (slot == null) return null;
+
+        String line;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate((int) (slot & LEN_MASK));
+            long pos = slot >>> LEN_BITS;
+            while (buf.hasRemaining() && ch.read(buf, pos + buf.position()) > 0) {
+                // 끝까지 읽기
+            }
+            line = new String(buf.array(), 0, buf.position(), StandardCharsets.UTF_8).stripTrailing();
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("[Geocode] 디스크 캐시 조회 실패: {}", e.getMessage());
+            return null;
+        }
+
+        // 압축으로 파일이 바뀌는 사이에 읽었으면 다른 줄일 수 있으므로 키를 확인
+        int tab = line.indexOf('\t');
+        CachedGeocode entry = parse(line);
+        if (tab < 0 || entry == null || !safeKey.equals(line.substring(0, tab))) return null;
+
+        if (entry.isExpired(System.currentTimeMillis())) {
+            idx.remove(safeKey, slot);
+            return null;
+        }
+        return entry;
+    }
+
+    @Override
+    public synchronized void save(String key, CachedGeocode entry) {
+        try {
+            ensureParent();
+            String safeKey = safeKey(key);
+            byte[] bytes = line(safeKey, entry).getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > LEN_MASK) return; // 비정상적으로 긴 주소는 디스크에 두지 않는다
+
+            long pos;
+            try (FileChannel ch = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                pos = ch.size();
+                ByteBuffer buf = ByteBuffer.wrap(bytes);
+                while (buf.hasRemaining()) ch.write(buf);
+            }
+            index.put(safeKey, slot(pos, bytes.length));
+            fileBytes = pos + bytes.length;
+
+            // 압축 후에도 남은 항목만으로 임계치를 넘는 경우 매 저장마다 다시 쓰지 않도록, 직전 압축 크기의 2배까지는 기다린다
+            boolean bigFile = fileBytes > props.getStoreCompactBytes() && fileBytes > 2 * compactedBytes;
+            boolean bigIndex = index.size() > props.getStoreMaxEntries() + props.getStoreMaxEntries() / 4;
+            if (bigFile || bigIndex) {
+                int kept = compact();
+                log.info("[Geocode] 디스크 캐시 압축: {}건, {} bytes", kept, fileBytes);
+            }
+        } catch (IOException e) {
+            log.warn("[Geocode] 디스크 캐시 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 만료/중복 줄을 걸러 임시 파일에 쓴 뒤 교체하고, 쓴 위치로 색인을 다시 만든다
+     * @return 남긴 항목 수
+     */
+    private synchronized int compact() throws IOException {
+        ensureParent();
+        long now = System.currentTimeMillis();
+
+        // 키 → 마지막 항목, 마지막으로 쓰인 순서 유지
+        Map<String, CachedGeocode> latest = new LinkedHashMap<>();
+        try (BufferedReader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                CachedGeocode entry = parse(line);
+                if (tab <= 0 || entry == null) continue; // 깨진 줄은 스킵
+                String key = line.substring(0, tab);
+                latest.remove(key);
+                if (!entry.isExpired(now)) latest.put(key, entry);
+            }
+        } catch (NoSuchFileException ignore) {
+            // 아직 파일 없음
+        }
+
+        int skip = Math.max(0, latest.size() - props.getStoreMaxEntries());
+        Iterator<Map.Entry<String, CachedGeocode>> it = latest.entrySet().iterator();
+        for (int i = 0; i < skip; i++) {
+            it.next();
+            it.remove();
+        }
+
+        Map<String, Long> rebuilt = new ConcurrentHashMap<>(latest.size() * 2);
+        long pos = 0;
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+            for (var e : latest.entrySet()) {
+                byte[] bytes = line(e.getKey(), e.getValue()).getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > LEN_MASK) continue;
+                out.write(bytes);
+                rebuilt.put(e.getKey(), slot(pos, bytes.length));
+                pos += bytes.length;
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        index = rebuilt;
+        fileBytes = pos;
+        compactedBytes = pos;
+        return rebuilt.size();
+    }
+
+    private void ensureParent() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+    }
+
+    private static long slot(long offset, int length) {
+        return (offset << LEN_BITS) | length;
+    }
+
+    /** 값/만료시각 파싱. 깨진 줄이면 null */
+    private static CachedGeocode parse(String line) {
+        String[] cols = line.split("\t");
+        if (cols.length != 3) return null;
+        try {
+            return new CachedGeocode(CachedGeocode.decodeValue(cols[1]), Long.parseLong(cols[2]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String line(String safeKey, CachedGeocode entry) {
+        return safeKey + "\t" + entry.encodeValue() + "\t" + entry.expiresAtEpochMs() + "\n";
+    }
+
+    // 키에 탭/개행이 섞이면 파일이 깨지므로 공백으로 치환
+    private static String safeKey(String key) {
+        return key.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+}
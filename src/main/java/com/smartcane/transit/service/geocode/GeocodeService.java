@@ -0,0 +1,196 @@
+package com.smartcane.transit.service.geocode;
+
+import com.smartcane.transit.config.GeocodeProperties;
+import com.smartcane.transit.dto.response.GeocodeBatchItem;
+import com.smartcane.transit.dto.response.GeocodeResult;
+import com.smartcane.transit.util.AddressNormalizer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+
+/**
+ * 주소 → 좌표 변환 (캐시 포함)
+ *
+ * 조회 순서: 1차 메모리 LRU → 2차 GeocodeStore(Redis/디스크) → vWorld
+ * - 키는 AddressNormalizer 로 정규화한 주소
+ * - 찾을 수 없는 주소도 짧게(negativeTtl) 기억해서 같은 실패로 vWorld 를 반복 호출하지 않는다.
+ * - 비동기/일괄 경로에서는 호출 스레드에서 1차만 보고, 2차(I/O) 조회와 vWorld 호출은 한 번에 가상 스레드에서 한다.
+ */
+@Slf4j
+@Service
+public class GeocodeService {
+
+    private final VWorldGeocodeClient client;
+    private final GeocodeStore store;
+    private final GeocodeProperties props;
+
+    private final Map<String, CachedGeocode> memory;
+
+    // vWorld 호출(블로킹 RestClient)은 가상 스레드에서 실행
+    private final Scheduler upstreamScheduler =
+            Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "geocode-upstream");
+
+    public GeocodeService(VWorldGeocodeClient client, GeocodeStore store, GeocodeProperties props) {
+        this.client = client;
+        this.store = store;
+        this.props = props;
+
+        int max = Math.max(16, props.getMemoryMaxEntries());
+        this.memory = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedGeocode> eldest) {
+                return size() > max;
+            }
+        });
+    }
+
+    /**
+     * 캐시 우선 지오코딩.
+     * @return 좌표 (찾을 수 없는 주소면 empty)
+     */
+    public Optional<GeocodeResult> geocode(String address) {
+        String key = AddressNormalizer.normalize(address);
+        if (key.isEmpty()) return Optional.empty();
+
+        CachedGeocode cached = lookupMemory(key);
+        if (cached != null) {
+            return Optional.ofNullable(cached.result());
+        }
+        return Optional.ofNullable(resolve(key, address).result());
+    }
+
+    /**
+     * 비동기 지오코딩 (1차 캐시 히트면 호출 스레드에서 바로 완료, 미스면 가상 스레드에서 2차 캐시 → vWorld)
+     * - 찾을 수 없는 주소는 empty Mono
+     */
+    public Mono<GeocodeResult> geocodeAsync(String address) {
+        String key = AddressNormalizer.normalize(address);
+        if (key.isEmpty()) return Mono.empty();
+
+        CachedGeocode cached = lookupMemory(key);
+        if (cached != null) {
+            return Mono.justOrEmpty(cached.result());
+        }
+        return Mono.fromCallable(() -> resolve(key, address).result())
+                .subscribeOn(upstreamScheduler);
+    }
+
+    /**
+     * 일괄 지오코딩.
+     * - 정규화 키 기준으로 중복 제거 (같은 키의 원본 주소들은 한 번만 조회)
+     * - 1차 캐시 히트는 즉시 방출, 미스는 batchConcurrency 만큼 동시에 (2차 캐시 → vWorld) 조회
+     * - 완료되는 순서대로 방출하며, 개별 실패는 error 항목으로 내려 나머지 결과에 영향을 주지 않는다.
+     */
+    public Flux<GeocodeBatchItem> geocodeBatch(List<String> addresses) {
+        if (addresses == null || addresses.isEmpty()) return Flux.empty();
+
+        // 정규화 키 → 원본 주소들 (입력 순서 유지)
+        Map<String, List<String>> byKey = new LinkedHashMap<>();
+        List<String> blanks = new ArrayList<>();
+        for (String address : addresses) {
+            String key = AddressNormalizer.normalize(address);
+            if (key.isEmpty()) {
+                blanks.add(address);
+                continue;
+            }
+            List<String> originals = byKey.computeIfAbsent(key, k -> new ArrayList<>(1));
+            if (!originals.contains(address)) originals.add(address);
+        }
+
+        List<GeocodeBatchItem> hits = new ArrayList<>();
+        List<Map.Entry<String, List<String>>> misses = new ArrayList<>();
+        for (var e : byKey.entrySet()) {
+            CachedGeocode cached = lookupMemory(e.getKey());
+            if (cached == null) {
+                misses.add(e);
+                continue;
+            }
+            for (String original : e.getValue()) {
+                hits.add(new GeocodeBatchItem(original, cached.result(), true,
+                        cached.isNegative() ? "NOT_FOUND" : null));
+            }
+        }
+        for (String blank : blanks) {
+            hits.add(new GeocodeBatchItem(blank, null, false, "EMPTY_ADDRESS"));
+        }
+
+        Flux<GeocodeBatchItem> resolved = Flux.fromIterable(misses)
+                .flatMap(e -> resolveMiss(e.getKey(), e.getValue()), Math.max(1, props.getBatchConcurrency()));
+
+        return Flux.concat(Flux.fromIterable(hits), resolved);
+    }
+
+    private Flux<GeocodeBatchItem> resolveMiss(String key, List<String> originals) {
+        return Mono.fromCallable(() -> resolve(key, originals.get(0)))
+                .subscribeOn(upstreamScheduler)
+                .map(r -> new GeocodeBatchItem(null, r.result(), r.cached(),
+                        r.result() == null ? "NOT_FOUND" : null))
+                .onErrorResume(ex -> {
+                    log.warn("[Geocode] 일괄 조회 중 실패 key={} : {}", key, ex.getMessage());
+                    return Mono.just(new GeocodeBatchItem(null, null, false, ex.getMessage()));
+                })
+                .flatMapMany(item -> Flux.fromIterable(originals)
+                        .map(original -> new GeocodeBatchItem(original, item.result(), false, item.error())));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        upstreamScheduler.dispose();
+    }
+
+    /** 1차 조회 결과 또는 vWorld 응답 (cached = 2차 캐시에서 찾음) */
+    private record Resolved(GeocodeResult result, boolean cached) {}
+
+    /**
+     * 1차(메모리)만 조회. 없거나 만료면 null — I/O 없음
+     */
+    CachedGeocode lookupMemory(String key) {
+        CachedGeocode hit = memory.get(key);
+        if (hit == null) return null;
+        if (!hit.isExpired(System.currentTimeMillis())) return hit;
+        memory.remove(key);
+        return null;
+    }
+
+    /**
+     * 1차 미스 이후: 2차(GeocodeStore) → 없으면 vWorld 호출 후 저장
+     */
+    private Resolved resolve(String key, String address) {
+        CachedGeocode stored = store.load(key);
+        if (stored != null && !stored.isExpired(System.currentTimeMillis())) {
+            memory.put(key, stored); // 1차로 승격
+            return new Resolved(stored.result(), true);
+        }
+
+        GeocodeResult result = client.fetch(address);
+        remember(key, result);
+        return new Resolved(result, false);
+    }
+
+    private void remember(String key, GeocodeResult result) {
+        Duration ttl = (result != null)
+                ? Duration.ofHours(props.getTtlHours())
+                : Duration.ofMinutes(props.getNegativeTtlMinutes());
+        CachedGeocode entry = new CachedGeocode(result, System.currentTimeMillis() + ttl.toMillis());
+
+        memory.put(key, entry);
+        store.save(key, entry);
+
+        if (result == null) {
+            log.info("[Geocode] 주소를 찾지 못해 네거티브 캐시에 저장: key={}", key);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.smartcane.transit.service.geocode;
+
+/**
+ * 재시작 후에도 유지되는 2차 지오코딩 캐시.
+ * - redis 프로파일: RedisGeocodeStore
+ * - 그 외(local 등): FileGeocodeStore
+ */
+public interface GeocodeStore {
+
+    /**
+     * 정규화된 주소 키로 조회. 없거나 만료됐으면 null
+     */
+    CachedGeocode load(String key);
+
+    /**
+     * 저장 (만료 시각은 entry 에 포함)
+     */
+    void save(String key, CachedGeocode entry);
+}
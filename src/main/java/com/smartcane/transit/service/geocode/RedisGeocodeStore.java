@@ -0,0 +1,49 @@
+package com.smartcane.transit.service.geocode;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Slf4j
+@Component
+@Profile("redis")
+@RequiredArgsConstructor
+public class RedisGeocodeStore implements GeocodeStore {
+
+    private static final String KEY_PREFIX = "geocode:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public CachedGeocode load(String key) {
+        try {
+            String redisKey = KEY_PREFIX + key;
+            String value = redisTemplate.opsForValue().get(redisKey);
+            if (value == null) return null;
+
+            // 만료는 Redis TTL 이 처리하므로 남은 TTL 로 만료 시각만 복원
+            Long ttlMs = redisTemplate.getExpire(redisKey, java.util.concurrent.TimeUnit.MILLISECONDS);
+            long expiresAt = System.currentTimeMillis() + ((ttlMs != null && ttlMs > 0) ? ttlMs : 0L);
+            return new CachedGeocode(CachedGeocode.decodeValue(value), expiresAt);
+        } catch (Exception e) {
+            // 캐시 장애는 조회 실패로만 취급 (vWorld 로 폴백)
+            log.warn("[Geocode] Redis 캐시 조회 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void save(String key, CachedGeocode entry) {
+        long ttlMs = entry.expiresAtEpochMs() - System.currentTimeMillis();
+        if (ttlMs <= 0) return;
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + key, entry.encodeValue(), Duration.ofMillis(ttlMs));
+        } catch (Exception e) {
+            log.warn("[Geocode] Redis 캐시 저장 실패: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.smartcane.transit.service.geocode;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.smartcane.transit.dto.response.GeocodeResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * vWorld 주소 → 좌표 변환 호출.
+ * - RestClient 는 한 번만 만들어 재사용
+ * - 응답은 트리(JsonNode)로 올리지 않고 스트리밍 파서로 status / result.point.x,y 만 읽는다.
+ */
+@Slf4j
+@Component
+public class VWorldGeocodeClient {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final RestClient restClient;
+    private final String apiKey;
+
+    public VWorldGeocodeClient(@Value("${vworld.api.key}") String apiKey) {
+        this.apiKey = apiKey;
+        this.restClient = RestClient.builder()
+                .baseUrl("https://api.vworld.kr")
+                .build();
+    }
+
+    /**
+     * @return 좌표. vWorld 가 status=NOT_FOUND 로 응답하면 null (네거티브 캐시 대상)
+     * @throws IllegalStateException 통신/파싱 실패, status=ERROR 등 NOT_FOUND 가 아닌 실패 (캐시하지 않음)
+     */
+    public GeocodeResult fetch(String address) {
+        try {
+            return restClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/req/address")
+                            .queryParam("service", "address")
+                            .queryParam("request", "getcoord")
+                            .queryParam("version", "2.0")
+                            .queryParam("crs", "epsg:4326")
+                            .queryParam("address", "{address}")
+                            .queryParam("refine", "true")
+                            .queryParam("simple", "false")
+                            .queryParam("format", "json")
+                            .queryParam("type", "road")
+                            .queryParam("key", "{key}")
+                            .build(address, apiKey))
+                    .exchange((req, res) -> {
+                        if (res.getStatusCode().isError()) {
+                            throw new IllegalStateException("vWorld HTTP " + res.getStatusCode().value());
+                        }
+                        try (InputStream in = res.getBody()) {
+                            return parse(in);
+                        }
+                    });
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("vWorld 응답 파싱 실패", e);
+        }
+    }
+
+    /**
+     * {"response":{"status":"OK", "result":{"point":{"x":"127.0","y":"37.5"}}}} 에서
+     * 필요한 값만 토큰 단위로 읽는다. 값이 모이면 나머지 본문은 읽지 않고 종료.
+     * - NOT_FOUND 만 null (주소 자체가 없음)
+     * - ERROR(키/쿼터/서버 오류 등)나 좌표 없는 응답은 일시 장애일 수 있으므로 예외 → 네거티브 캐시하지 않는다
+     */
+    static GeocodeResult parse(InputStream in) throws IOException {
+        String status = null;
+        Double x = null;
+        Double y = null;
+
+        // path[d] = 깊이 d 객체에서 마지막으로 읽은 필드명
+        String[] path = new String[8];
+        int depth = 0;
+
+        try (JsonParser p = JSON.createParser(in)) {
+            JsonToken t;
+            while ((t = p.nextToken()) != null) {
+                switch (t) {
+                    case START_OBJECT, START_ARRAY -> {
+                        depth++;
+                        if (depth < path.length) path[depth] = null;
+                    }
+                    case END_OBJECT, END_ARRAY -> depth--;
+                    case FIELD_NAME -> {
+                        if (depth < path.length) path[depth] = p.currentName();
+                    }
+                    default -> {
+                        if (depth < 2 || !"response".equals(path[1])) break;
+
+                        if (depth == 2 && "status".equals(path[2])) {
+                            status = p.getText();
+                            if ("NOT_FOUND".equals(status)) {
+                                log.debug("[Geocode] vWorld status={}", status);
+                                return null;
+                            }
+                            if (!"OK".equals(status)) {
+                                throw new IllegalStateException("vWorld status=" + status);
+                            }
+                        } else if (depth == 4 && "result".equals(path[2]) && "point".equals(path[3])) {
+                            if ("x".equals(path[4])) x = p.getValueAsDouble(Double.NaN);
+                            else if ("y".equals(path[4])) y = p.getValueAsDouble(Double.NaN);
+                        }
+                    }
+                }
+                if ("OK".equals(status) && x != null && y != null) break;
+            }
+        }
+
+        if (!"OK".equals(status) || x == null || y == null || x.isNaN() || y.isNaN()) {
+            throw new IllegalStateException("vWorld 응답에 좌표 없음 (status=" + status + ")");
+        }
+        return new GeocodeResult(x, y);
+    }
+}
@@ -0,0 +1,93 @@
+package com.smartcane.transit.service.geometry;
+
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.guidance.GuidancePlan;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Itinerary 1개의 컴파일된 지오메트리 (leg 순서 그대로)
+ * - /plan 시점에 한 번 만들어 두고, 진행 업링크마다 라인스트링을 다시 파싱하지 않도록 한다.
+ * - guidance : 같은 라인으로 계산한 안내 지점 목록 (GuidancePlan)
+ */
+public record ItineraryGeometry(
+        LegGeometry[] legs,
+        GuidancePlan guidance
+) {
+
+    /** 단순화 없이 원본 그대로 컴파일 */
+    public static ItineraryGeometry compile(SkTransitRootDto.ItineraryDto itinerary) {
+        return compile(itinerary, 0.0);
+    }
+
+    /**
+     * @param toleranceM 매칭용 단순화 허용오차(m), 0 이하면 원본 (LegGeometry.compile 참고)
+     */
+    public static ItineraryGeometry compile(SkTransitRootDto.ItineraryDto itinerary, double toleranceM) {
+        List<SkTransitRootDto.LegDto> legDtos = (itinerary != null) ? itinerary.legs() : null;
+        if (legDtos == null || legDtos.isEmpty()) {
+            return new ItineraryGeometry(new LegGeometry[0], GuidancePlan.EMPTY);
+        }
+        LegGeometry[] legs = new LegGeometry[legDtos.size()];
+        for (int i = 0; i < legs.length; i++) {
+            legs[i] = LegGeometry.compile(legDtos.get(i), toleranceM);
+        }
+        return new ItineraryGeometry(legs, GuidancePlan.compile(itinerary, legs));
+    }
+
+    /**
+     * 경로 일부만 바뀐 itinerary 재컴파일 (재탐색 splice 용)
+     * - previous 와 "같은 LegDto 객체"인 leg 는 이전에 컴파일한 LegGeometry 를 그대로 쓰고, 새 leg 만 컴파일한다
+     * - 안내 계획(offset)은 leg 길이가 바뀌므로 전체를 다시 만든다 (leg 수만큼의 덧셈이라 가벼움)
+     */
+    public static ItineraryGeometry recompile(SkTransitRootDto.ItineraryDto itinerary, double toleranceM,
+                                              SkTransitRootDto.ItineraryDto previous, ItineraryGeometry previousGeometry) {
+        if (previous == null || previousGeometry == null || previous.legs() == null) {
+            return compile(itinerary, toleranceM);
+        }
+        Map<SkTransitRootDto.LegDto, LegGeometry> reusable = new IdentityHashMap<>();
+        for (int i = 0; i < previous.legs().size() && i < previousGeometry.legs().length; i++) {
+            reusable.put(previous.legs().get(i), previousGeometry.legs()[i]);
+        }
+
+        List<SkTransitRootDto.LegDto> legDtos = itinerary.legs();
+        LegGeometry[] legs = new LegGeometry[legDtos.size()];
+        for (int i = 0; i < legs.length; i++) {
+            LegGeometry reused = reusable.get(legDtos.get(i));
+            legs[i] = (reused != null) ? reused : LegGeometry.compile(legDtos.get(i), toleranceM);
+        }
+        return new ItineraryGeometry(legs, GuidancePlan.compile(itinerary, legs));
+    }
+
+    /** 위치가 가장 가깝게 붙는 leg 와 그 거리 (후보 경로 매칭용) */
+    public record LegMatch(int legIndex, double distanceM) {
+        public static final LegMatch NONE = new LegMatch(-1, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * fromLeg 부터 끝까지의 leg 중 현재 위치에 가장 가까운 leg
+     * (꼭짓점 거리 기준, 단순화된 라인이라 leg 수 × 수십 개 꼭짓점 정도)
+     */
+    public LegMatch match(double lat, double lon, int fromLeg) {
+        LegMatch best = LegMatch.NONE;
+        for (int i = Math.max(0, fromLeg); i < legs.length; i++) {
+            double d = legs[i].nearestDistance(lat, lon);
+            if (d < best.distanceM()) best = new LegMatch(i, d);
+        }
+        return best;
+    }
+
+    public int vertexCount() {
+        int n = 0;
+        for (LegGeometry leg : legs) n += leg.vertexCount();
+        return n;
+    }
+
+    /** 범위 밖이면 null */
+    public LegGeometry leg(int legIndex) {
+        if (legIndex < 0 || legIndex >= legs.length) return null;
+        return legs[legIndex];
+    }
+}
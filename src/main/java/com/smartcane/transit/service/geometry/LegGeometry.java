@@ -0,0 +1,126 @@
+package com.smartcane.transit.service.geometry;
+
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.state.LegMode;
+import com.smartcane.transit.util.CompiledPolyline;
+import com.smartcane.transit.util.PolylineSimplifier;
+
+import java.util.List;
+
+/**
+ * Leg 1개의 컴파일된 지오메트리
+ * - steps      : WALK step 별 라인 (step 경계 유지)
+ * - shape      : passShape 라인 (BUS/SUBWAY, 일부 WALK)
+ * - stationLat/Lon : 정류장 좌표 (파싱 실패 시 NaN)
+ *
+ * compile(leg, toleranceM) 은 라인을 Douglas–Peucker 로 단순화해서 매칭용으로 쓴다.
+ * - step 은 각자 따로 단순화하므로 step 경계(양 끝점)는 그대로
+ * - shape 는 정류장에 가장 가까운 꼭짓점과 그 이웃을 강제로 남겨, 정류장 투영 위치가 바뀌지 않게 한다
+ */
+public record LegGeometry(
+        LegMode mode,
+        CompiledPolyline[] steps,
+        CompiledPolyline shape,
+        double[] stationLat,
+        double[] stationLon
+) {
+
+    private static final CompiledPolyline[] NO_STEPS = new CompiledPolyline[0];
+    private static final double[] NO_STATIONS = new double[0];
+
+    /** 단순화 없이 원본 그대로 컴파일 */
+    public static LegGeometry compile(SkTransitRootDto.LegDto leg) {
+        return compile(leg, 0.0);
+    }
+
+    /**
+     * @param toleranceM 단순화 허용오차(m). 0 이하면 단순화하지 않는다
+     */
+    public static LegGeometry compile(SkTransitRootDto.LegDto leg, double toleranceM) {
+        LegMode mode = LegMode.of(leg.mode());
+
+        CompiledPolyline[] steps = NO_STEPS;
+        List<SkTransitRootDto.WalkStepDto> stepDtos = leg.steps();
+        if (stepDtos != null && !stepDtos.isEmpty()) {
+            steps = new CompiledPolyline[stepDtos.size()];
+            for (int i = 0; i < steps.length; i++) {
+                SkTransitRootDto.WalkStepDto step = stepDtos.get(i);
+                steps[i] = (step != null)
+                        ? simplify(CompiledPolyline.parse(step.linestring()), toleranceM, null)
+                        : CompiledPolyline.EMPTY;
+            }
+        }
+
+        CompiledPolyline shape = (leg.passShape() != null)
+                ? CompiledPolyline.parse(leg.passShape().linestring())
+                : CompiledPolyline.EMPTY;
+
+        double[] stationLat = NO_STATIONS;
+        double[] stationLon = NO_STATIONS;
+        if (leg.passStopList() != null && leg.passStopList().stations() != null) {
+            var stations = leg.passStopList().stations();
+            stationLat = new double[stations.size()];
+            stationLon = new double[stations.size()];
+            for (int i = 0; i < stations.size(); i++) {
+                SkTransitRootDto.StationDto st = stations.get(i);
+                stationLat[i] = parseOrNaN(st != null ? st.lat() : null);
+                stationLon[i] = parseOrNaN(st != null ? st.lon() : null);
+            }
+        }
+
+        if (toleranceM > 0 && shape.size() > 2) {
+            boolean[] keep = new boolean[shape.size()];
+            for (int i = 0; i < stationLat.length; i++) {
+                if (Double.isNaN(stationLat[i]) || Double.isNaN(stationLon[i])) continue;
+                int v = shape.nearestVertexIndex(stationLat[i], stationLon[i]);
+                if (v < 0) continue;
+                keep[v] = true;
+                if (v > 0) keep[v - 1] = true;
+                if (v + 1 < keep.length) keep[v + 1] = true;
+            }
+            shape = simplify(shape, toleranceM, keep);
+        }
+
+        return new LegGeometry(mode, steps, shape, stationLat, stationLon);
+    }
+
+    private static CompiledPolyline simplify(CompiledPolyline line, double toleranceM, boolean[] mustKeep) {
+        if (toleranceM <= 0 || line.size() <= 2) return line;
+        return line.select(PolylineSimplifier.simplify(line, toleranceM, mustKeep));
+    }
+
+    /** 매칭에 쓰이는 꼭짓점 수 (steps + shape) */
+    public int vertexCount() {
+        int n = shape.size();
+        for (CompiledPolyline s : steps) n += s.size();
+        return n;
+    }
+
+    /**
+     * 현재 위치에서 이 leg 라인(step/shape 꼭짓점)까지 최소 거리(m). 라인이 없으면 +∞
+     */
+    public double nearestDistance(double lat, double lon) {
+        double best = shape.nearestVertexDistance(lat, lon);
+        for (CompiledPolyline s : steps) {
+            best = Math.min(best, s.nearestVertexDistance(lat, lon));
+        }
+        return best;
+    }
+
+    private static double parseOrNaN(String s) {
+        if (s == null) return Double.NaN;
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    public boolean isWalk() {
+        return mode.isWalk();
+    }
+
+    public int stationCount() {
+        return stationLat.length;
+    }
+}
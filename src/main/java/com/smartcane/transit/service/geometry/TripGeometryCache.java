@@ -0,0 +1,91 @@
+package com.smartcane.transit.service.geometry;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * tripId 별 컴파일된 지오메트리 캐시 (서버 메모리, LRU)
+ * - /plan 에서 미리 채우고(warm), 없으면 진행 업링크 시 meta 로부터 다시 컴파일한다.
+ *   (Redis 로 상태만 복구된 경우에도 동작)
+ * - 매칭용이므로 geometrySimplifyToleranceM 으로 단순화해서 보관한다
+ */
+@Slf4j
+@Component
+public class TripGeometryCache {
+
+    private final Map<String, ItineraryGeometry> cache;
+    private final GuidanceProperties props;
+
+    public TripGeometryCache(GuidanceProperties props) {
+        this.props = props;
+        int max = Math.max(16, props.getGeometryCacheMaxTrips());
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ItineraryGeometry> eldest) {
+                return size() > max;
+            }
+        });
+    }
+
+    private static String key(String tripId, int itineraryIndex) {
+        return tripId + "#" + itineraryIndex;
+    }
+
+    /**
+     * 캐시 조회, 없으면 itinerary 로부터 컴파일해서 저장
+     */
+    public ItineraryGeometry get(String tripId, int itineraryIndex, SkTransitRootDto.ItineraryDto itinerary) {
+        String key = key(tripId, itineraryIndex);
+        ItineraryGeometry geo = cache.get(key);
+        if (geo == null) {
+            geo = ItineraryGeometry.compile(itinerary, props.getGeometrySimplifyToleranceM());
+            cache.put(key, geo);
+        }
+        return geo;
+    }
+
+    /**
+     * /plan 직후 meta 의 모든 itinerary 를 미리 컴파일
+     */
+    public void warm(String tripId, SkTransitRootDto.MetaDataDto meta) {
+        evict(tripId);
+        if (meta == null || meta.plan() == null || meta.plan().itineraries() == null) return;
+        var itineraries = meta.plan().itineraries();
+        int vertices = 0;
+        for (int i = 0; i < itineraries.size(); i++) {
+            ItineraryGeometry geo = ItineraryGeometry.compile(itineraries.get(i), props.getGeometrySimplifyToleranceM());
+            vertices += geo.vertexCount();
+            cache.put(key(tripId, i), geo);
+        }
+        log.debug("[Geometry] warm tripId={} itineraries={} vertices={}", tripId, itineraries.size(), vertices);
+    }
+
+    /**
+     * itinerary 하나가 부분 교체된 경우(이탈 재탐색): 바뀌지 않은 leg 의 지오메트리는 재사용해서 다시 넣는다
+     */
+    public ItineraryGeometry splice(String tripId, int itineraryIndex,
+                                    SkTransitRootDto.ItineraryDto previous,
+                                    SkTransitRootDto.ItineraryDto spliced) {
+        String key = key(tripId, itineraryIndex);
+        ItineraryGeometry geo = ItineraryGeometry.recompile(spliced, props.getGeometrySimplifyToleranceM(),
+                previous, cache.get(key));
+        cache.put(key, geo);
+        return geo;
+    }
+
+    /**
+     * meta 가 바뀌었을 때(복구/재탐색) 기존 지오메트리 제거
+     */
+    public void evict(String tripId) {
+        String prefix = tripId + "#";
+        synchronized (cache) {
+            cache.keySet().removeIf(k -> k.startsWith(prefix));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.smartcane.transit.service.guidance;
+
+import com.smartcane.transit.service.guidance.phrase.PhraseKey;
+
+/**
+ * 경로 위 안내 지점 1개 (GuidancePlan 에서 offsetM 오름차순)
+ *
+ * @param offsetM      itinerary 시작점부터 이 지점까지 경로를 따라 잰 거리(m)
+ * @param lat          지점 좌표 (모르면 NaN) — 단말 지오펜스용
+ * @param announcement 지점에 도달했을 때 읽어줄 문구 (SK step 설명 그대로, 없으면 null)
+ * @param phrase       announcement 가 없을 때 쓰는 언어별 문구 키 (없으면 null)
+ */
+public record DecisionPoint(
+        Kind kind,
+        int legIndex,
+        int stepIndex,
+        double offsetM,
+        double lat,
+        double lon,
+        String announcement,
+        PhraseKey phrase
+) {
+
+    public enum Kind {
+        /** WALK step 시작 (회전/진입 지점) */
+        STEP,
+        /** 대중교통 승차 정류장 (대중교통 leg 시작) */
+        BOARD,
+        /** 대중교통 하차 정류장 (대중교통 leg 끝) */
+        ALIGHT,
+        /** 중간 WALK leg 끝 (다음 승강장 도착) */
+        LEG_END,
+        /** 최종 목적지 */
+        DESTINATION
+    }
+}
@@ -0,0 +1,242 @@
+package com.smartcane.transit.service.guidance;
+
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.geometry.LegGeometry;
+import com.smartcane.transit.service.guidance.phrase.PhraseKey;
+import com.smartcane.transit.service.state.LegMode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * itinerary 1개의 안내 계획 (지오메트리와 함께 /plan 시점에 컴파일)
+ *
+ * - 안내 지점(step 시작, 승/하차 정류장, leg 끝, 목적지)을 경로 누적거리(offset) 순으로 나열하고
+ *   지점별 안내 문구(step 설명 또는 언어별 문구 키)를 미리 정해 둔다.
+ * - 진행 업링크에서는 현재 위치의 offset 만 구하면
+ *   "다음 지점 = 이진 탐색, 남은 거리 = 두 offset 의 차" 로 끝난다.
+ * - 거리는 매칭용(단순화된) 라인 기준이라 원본 라인과 수 m 차이가 날 수 있다.
+ * - ETA 용으로 leg 별 남은 보행 거리/대중교통 소요 시간의 뒤쪽 누적합도 같이 둔다 (샘플마다 O(1)).
+ */
+public final class GuidancePlan {
+
+    public static final GuidancePlan EMPTY = new GuidancePlan(new DecisionPoint[0], new double[]{0.0}, new double[0][], new int[0][], new int[0],
+            new int[0], new double[]{0.0}, new int[]{0});
+
+    /** 경로 순서(offset 오름차순) */
+    private final DecisionPoint[] points;
+    private final double[] offsets;
+    /** leg i 시작 offset (길이 = leg 수 + 1, 마지막은 전체 길이) */
+    private final double[] legStartM;
+    /** [leg][step] step 시작 offset */
+    private final double[][] stepStartM;
+    /** [leg][step] → points 인덱스 */
+    private final int[][] stepPoint;
+    /** leg 끝 지점(ALIGHT/LEG_END/DESTINATION) points 인덱스, 없으면 -1 */
+    private final int[] legEndPoint;
+    /** leg 별 SK sectionTime(s), 없으면 0 */
+    private final int[] legSec;
+    /** leg i 부터 끝까지 WALK leg 길이 합(m) (길이 = leg 수 + 1) */
+    private final double[] walkFromM;
+    /** leg i 부터 끝까지 대중교통 leg sectionTime 합(s) (길이 = leg 수 + 1) */
+    private final int[] transitFromSec;
+
+    private GuidancePlan(DecisionPoint[] points, double[] legStartM, double[][] stepStartM, int[][] stepPoint, int[] legEndPoint,
+                         int[] legSec, double[] walkFromM, int[] transitFromSec) {
+        this.points = points;
+        this.legStartM = legStartM;
+        this.stepStartM = stepStartM;
+        this.stepPoint = stepPoint;
+        this.legEndPoint = legEndPoint;
+        this.legSec = legSec;
+        this.walkFromM = walkFromM;
+        this.transitFromSec = transitFromSec;
+        this.offsets = new double[points.length];
+        for (int i = 0; i < points.length; i++) offsets[i] = points[i].offsetM();
+    }
+
+    /**
+     * @param legs 같은 itinerary 의 컴파일된 leg 지오메트리 (길이 계산용, 없으면 SK distance 사용)
+     */
+    public static GuidancePlan compile(SkTransitRootDto.ItineraryDto itinerary, LegGeometry[] legs) {
+        List<SkTransitRootDto.LegDto> legDtos = (itinerary != null) ? itinerary.legs() : null;
+        if (legDtos == null || legDtos.isEmpty()) return EMPTY;
+
+        int n = legDtos.size();
+        List<DecisionPoint> pts = new ArrayList<>();
+        double[] legStart = new double[n + 1];
+        double[][] stepStart = new double[n][];
+        int[][] stepPoint = new int[n][];
+        int[] legEndPoint = new int[n];
+        int[] legSec = new int[n];
+        boolean[] walkLeg = new boolean[n];
+
+        double offset = 0.0;
+        for (int li = 0; li < n; li++) {
+            SkTransitRootDto.LegDto leg = legDtos.get(li);
+            LegGeometry geo = (legs != null && li < legs.length) ? legs[li] : null;
+            LegMode mode = (geo != null) ? geo.mode() : LegMode.of(leg.mode());
+            boolean last = li == n - 1;
+            legStart[li] = offset;
+            legSec[li] = (leg.sectionTime() != null && leg.sectionTime() > 0) ? leg.sectionTime() : 0;
+            walkLeg[li] = mode.isWalk();
+
+            double legLen;
+            if (mode.isWalk()) {
+                List<SkTransitRootDto.WalkStepDto> steps = (leg.steps() != null) ? leg.steps() : List.of();
+                stepStart[li] = new double[steps.size()];
+                stepPoint[li] = new int[steps.size()];
+                double along = 0.0;
+                for (int si = 0; si < steps.size(); si++) {
+                    SkTransitRootDto.WalkStepDto step = steps.get(si);
+                    stepStart[li][si] = offset + along;
+                    stepPoint[li][si] = pts.size();
+                    String desc = (step != null && step.description() != null && !step.description().isBlank())
+                            ? step.description().trim() : null;
+                    boolean hasLine = geo != null && si < geo.steps().length && !geo.steps()[si].isEmpty();
+                    double lat = hasLine ? geo.steps()[si].lat(0) : (si == 0) ? lat(leg.start()) : Double.NaN;
+                    double lon = hasLine ? geo.steps()[si].lon(0) : (si == 0) ? lon(leg.start()) : Double.NaN;
+                    pts.add(new DecisionPoint(DecisionPoint.Kind.STEP, li, si, offset + along, lat, lon, desc, null));
+                    along += stepLength(step, geo, si);
+                }
+                legLen = (steps.isEmpty()) ? orZero(leg.distance()) : along;
+            } else {
+                stepStart[li] = new double[0];
+                stepPoint[li] = new int[0];
+                pts.add(new DecisionPoint(DecisionPoint.Kind.BOARD, li, -1, offset,
+                        lat(leg.start()), lon(leg.start()), null, null));
+                legLen = (geo != null && !geo.shape().isEmpty()) ? geo.shape().length() : orZero(leg.distance());
+            }
+            offset += legLen;
+
+            DecisionPoint.Kind endKind = last ? DecisionPoint.Kind.DESTINATION
+                    : mode.isWalk() ? DecisionPoint.Kind.LEG_END : DecisionPoint.Kind.ALIGHT;
+            PhraseKey endPhrase = switch (endKind) {
+                case DESTINATION -> PhraseKey.ARRIVED_DESTINATION;
+                case LEG_END -> PhraseKey.ARRIVED_WALK_LEG_END;
+                default -> PhraseKey.ARRIVED_ALIGHT;
+            };
+            legEndPoint[li] = pts.size();
+            pts.add(new DecisionPoint(endKind, li, -1, offset, lat(leg.end()), lon(leg.end()), null, endPhrase));
+        }
+        legStart[n] = offset;
+
+        double[] walkFrom = new double[n + 1];
+        int[] transitFrom = new int[n + 1];
+        for (int li = n - 1; li >= 0; li--) {
+            walkFrom[li] = walkFrom[li + 1] + (walkLeg[li] ? legStart[li + 1] - legStart[li] : 0.0);
+            transitFrom[li] = transitFrom[li + 1] + (walkLeg[li] ? 0 : legSec[li]);
+        }
+
+        return new GuidancePlan(pts.toArray(new DecisionPoint[0]), legStart, stepStart, stepPoint, legEndPoint,
+                legSec, walkFrom, transitFrom);
+    }
+
+    private static double stepLength(SkTransitRootDto.WalkStepDto step, LegGeometry geo, int si) {
+        if (geo != null && si < geo.steps().length && geo.steps()[si].size() > 1) {
+            return geo.steps()[si].length();
+        }
+        return (step != null) ? orZero(step.distance()) : 0.0;
+    }
+
+    private static double lat(SkTransitRootDto.PlaceDto p) {
+        return (p != null && p.lat() != null) ? p.lat() : Double.NaN;
+    }
+
+    private static double lon(SkTransitRootDto.PlaceDto p) {
+        return (p != null && p.lon() != null) ? p.lon() : Double.NaN;
+    }
+
+    private static double orZero(Integer v) {
+        return (v != null && v > 0) ? v : 0.0;
+    }
+
+    // ------------------------------------------------------------------
+    // 조회
+    // ------------------------------------------------------------------
+
+    public int size() {
+        return points.length;
+    }
+
+    public DecisionPoint point(int i) {
+        return points[i];
+    }
+
+    /** 전체 경로 길이(m) */
+    public double totalLengthM() {
+        return legStartM[legStartM.length - 1];
+    }
+
+    /** leg 시작 offset (범위 밖이면 NaN) */
+    public double legStartM(int legIndex) {
+        return (legIndex >= 0 && legIndex < legStartM.length) ? legStartM[legIndex] : Double.NaN;
+    }
+
+    /** leg 끝 offset (범위 밖이면 NaN) */
+    public double legEndM(int legIndex) {
+        return (legIndex >= 0 && legIndex + 1 < legStartM.length) ? legStartM[legIndex + 1] : Double.NaN;
+    }
+
+    /** leg 의 SK sectionTime(s) (없거나 범위 밖이면 0) */
+    public int legSectionSec(int legIndex) {
+        return (legIndex >= 0 && legIndex < legSec.length) ? legSec[legIndex] : 0;
+    }
+
+    /** legIndex 부터 끝까지 WALK leg 길이 합(m) (범위 밖이면 0) */
+    public double walkMetersFrom(int legIndex) {
+        return (legIndex >= 0 && legIndex < walkFromM.length) ? walkFromM[legIndex] : 0.0;
+    }
+
+    /** legIndex 부터 끝까지 대중교통 leg sectionTime 합(s) (범위 밖이면 0) */
+    public int transitSecFrom(int legIndex) {
+        return (legIndex >= 0 && legIndex < transitFromSec.length) ? transitFromSec[legIndex] : 0;
+    }
+
+    /**
+     * 현재 위치의 경로 offset
+     * @param alongM WALK 면 step 라인 시작점부터, 대중교통이면 leg 라인 시작점부터 스냅된 거리
+     * @return 계산할 수 없으면 NaN
+     */
+    public double offsetOf(int legIndex, int stepIndex, double alongM) {
+        if (legIndex < 0 || legIndex >= stepStartM.length || Double.isNaN(alongM)) return Double.NaN;
+        double[] steps = stepStartM[legIndex];
+        double base = (stepIndex >= 0 && stepIndex < steps.length) ? steps[stepIndex] : legStartM[legIndex];
+        return Math.min(base + Math.max(0.0, alongM), legStartM[legIndex + 1]);
+    }
+
+    /**
+     * offsetM 보다 뒤에 있는 첫 안내 지점 인덱스 (없으면 -1)
+     * - 같은 offset 에 여러 지점이 겹치면 (leg 끝 = 다음 leg 시작) 앞의 것을 돌려준다
+     */
+    public int nextIndexAfter(double offsetM) {
+        if (Double.isNaN(offsetM)) return -1;
+        int i = Arrays.binarySearch(offsets, offsetM);
+        if (i >= 0) {
+            // 같은 값들 중 마지막 다음
+            while (i < offsets.length && offsets[i] <= offsetM) i++;
+        } else {
+            i = -i - 1;
+        }
+        return (i < offsets.length) ? i : -1;
+    }
+
+    /** offsetM 뒤의 첫 안내 지점 (없으면 null) */
+    public DecisionPoint nextAfter(double offsetM) {
+        int i = nextIndexAfter(offsetM);
+        return (i >= 0) ? points[i] : null;
+    }
+
+    /** WALK step 시작 지점 (없으면 null) */
+    public DecisionPoint stepPoint(int legIndex, int stepIndex) {
+        if (legIndex < 0 || legIndex >= stepPoint.length) return null;
+        int[] row = stepPoint[legIndex];
+        return (stepIndex >= 0 && stepIndex < row.length) ? points[row[stepIndex]] : null;
+    }
+
+    /** leg 끝 지점 (없으면 null) */
+    public DecisionPoint legEndPoint(int legIndex) {
+        return (legIndex >= 0 && legIndex < legEndPoint.length) ? points[legEndPoint[legIndex]] : null;
+    }
+}
@@ -0,0 +1,83 @@
+package com.smartcane.transit.service.guidance.phrase;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 언어 하나의 문구 묶음
+ *
+ * - text/format : 결과 문자열 1개를 만들 때 (스레드별 버퍼 재사용)
+ * - append      : 여러 문구를 이어 붙일 때 (begin() 으로 스레드별 조립 버퍼를 빌려 쓴다)
+ *   조립 버퍼와 format 버퍼는 따로라서, 조립 중에 format 을 불러도 섞이지 않는다.
+ */
+public final class PhraseBook {
+
+    private static final ThreadLocal<StringBuilder> FORMAT_BUF = ThreadLocal.withInitial(() -> new StringBuilder(128));
+    private static final ThreadLocal<StringBuilder> COMPOSE_BUF = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final String lang;
+    private final Map<PhraseKey, PhraseTemplate> templates;
+
+    PhraseBook(String lang, Map<PhraseKey, PhraseTemplate> templates) {
+        this.lang = lang;
+        this.templates = new EnumMap<>(templates);
+    }
+
+    public String lang() {
+        return lang;
+    }
+
+    /** 자리표시자 없는 문구 (있으면 빈 값으로 채운다) */
+    public String text(PhraseKey key) {
+        PhraseTemplate t = templates.get(key);
+        return t.isStatic() ? t.staticText() : format(key, null, null, 0);
+    }
+
+    public String format(PhraseKey key, long n) {
+        return format(key, null, null, n);
+    }
+
+    public String format(PhraseKey key, CharSequence a) {
+        return format(key, a, null, 0);
+    }
+
+    public String format(PhraseKey key, CharSequence a, CharSequence b) {
+        return format(key, a, b, 0);
+    }
+
+    public String format(PhraseKey key, CharSequence a, CharSequence b, long n) {
+        PhraseTemplate t = templates.get(key);
+        if (t.isStatic()) return t.staticText();
+        StringBuilder sb = FORMAT_BUF.get();
+        sb.setLength(0);
+        t.appendTo(sb, a, b, n);
+        return sb.toString();
+    }
+
+    /** 이어 붙이기용 스레드별 버퍼 (비워서 돌려준다) */
+    public StringBuilder begin() {
+        StringBuilder sb = COMPOSE_BUF.get();
+        sb.setLength(0);
+        return sb;
+    }
+
+    public StringBuilder append(StringBuilder sb, PhraseKey key) {
+        templates.get(key).appendTo(sb, null, null, 0);
+        return sb;
+    }
+
+    public StringBuilder append(StringBuilder sb, PhraseKey key, long n) {
+        templates.get(key).appendTo(sb, null, null, n);
+        return sb;
+    }
+
+    public StringBuilder append(StringBuilder sb, PhraseKey key, CharSequence a) {
+        templates.get(key).appendTo(sb, a, null, 0);
+        return sb;
+    }
+
+    public StringBuilder append(StringBuilder sb, PhraseKey key, CharSequence a, CharSequence b) {
+        templates.get(key).appendTo(sb, a, b, 0);
+        return sb;
+    }
+}
@@ -0,0 +1,73 @@
+package com.smartcane.transit.service.guidance.phrase;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 언어별 안내 문구 (기동 시 phrases/guidance_{lang}.properties 를 한 번 읽어 파싱)
+ *
+ * - 기본 언어(ko)는 모든 키가 있어야 하고, 빠지면 기동 실패
+ * - 다른 언어에서 빠진 키는 기본 언어 문구로 채운다
+ * - trip 별 언어는 TripState.lang (null 이면 기본 언어)
+ */
+@Slf4j
+@Component
+public class PhraseCatalog {
+
+    public static final String DEFAULT_LANG = "ko";
+    public static final String LANG_EN = "en";
+
+    private final PhraseBook defaultBook;
+    private final PhraseBook englishBook;
+
+    public PhraseCatalog() {
+        Map<PhraseKey, PhraseTemplate> ko = load(DEFAULT_LANG, null);
+        this.defaultBook = new PhraseBook(DEFAULT_LANG, ko);
+        this.englishBook = new PhraseBook(LANG_EN, load(LANG_EN, ko));
+    }
+
+    /** lang 에 맞는 문구 묶음 (모르는 값/null 은 기본 언어) */
+    public PhraseBook book(String lang) {
+        return LANG_EN.equals(lang) ? englishBook : defaultBook;
+    }
+
+    /**
+     * SK 길찾기 lang 파라미터(0=국문, 1=영문) → 문구 언어
+     */
+    public static String langOf(Integer skLang) {
+        return (skLang != null && skLang == 1) ? LANG_EN : DEFAULT_LANG;
+    }
+
+    private static Map<PhraseKey, PhraseTemplate> load(String lang, Map<PhraseKey, PhraseTemplate> fallback) {
+        String path = "phrases/guidance_" + lang + ".properties";
+        Properties props = new Properties();
+        try (Reader r = new InputStreamReader(new ClassPathResource(path).getInputStream(), StandardCharsets.UTF_8)) {
+            props.load(r);
+        } catch (IOException e) {
+            throw new IllegalStateException("안내 문구 파일을 읽지 못했습니다: " + path, e);
+        }
+
+        Map<PhraseKey, PhraseTemplate> out = new EnumMap<>(PhraseKey.class);
+        for (PhraseKey key : PhraseKey.values()) {
+            String raw = props.getProperty(key.name());
+            if (raw != null) {
+                out.put(key, PhraseTemplate.parse(raw));
+            } else if (fallback != null) {
+                log.warn("[Phrase] {} 에 {} 문구가 없어 기본 언어로 대신합니다.", lang, key);
+                out.put(key, fallback.get(key));
+            } else {
+                throw new IllegalStateException("기본 안내 문구가 없습니다: " + key + " (" + path + ")");
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,62 @@
+package com.smartcane.transit.service.guidance.phrase;
+
+/**
+ * 안내 문구 키 (phrases/guidance_{lang}.properties 의 키와 같은 이름)
+ */
+public enum PhraseKey {
+
+    // --- 경로 이탈 / 도착 ---
+    OFF_ROUTE,
+    /** 이탈이 계속되어 재탐색 중 */
+    OFF_ROUTE_REPLANNING,
+    /** 재탐색 결과로 경로를 바꾼 직후 (뒤에 공백 포함, 이어서 안내 문구) */
+    REROUTED,
+    /** 다른 후보 경로로 전환한 직후 (뒤에 공백 포함, 이어서 안내 문구) */
+    ITINERARY_SWITCHED,
+    ARRIVED_DESTINATION,
+    ARRIVED_WALK_LEG_END,
+    ARRIVED_ALIGHT,
+    ARRIVED_TRANSFER,
+    ARRIVED_FINAL,
+    ARRIVED_GENERIC,
+
+    // --- 보행 ---
+    WALK_NEXT_IMMINENT,
+    /** {n} = 다음 안내까지 m */
+    WALK_NEXT_IN,
+    WALK_NEXT_SOON,
+    WALK_CONTINUE,
+
+    // --- 버스 ---
+    /** {a} = 출발 정류장, {b} = 도착 정류장 (뒤에 공백 포함) */
+    BUS_SEGMENT_NAMED,
+    BUS_SEGMENT,
+    /** {a} = 노선명 */
+    BUS_WAIT_ROUTE,
+    BUS_WAIT,
+    BUS_ALIGHT_NOW,
+    BUS_ALIGHT_NEXT,
+    /** {n} = 남은 정거장 */
+    BUS_STOPS_LEFT,
+    /** {n} = 남은 정거장 */
+    BUS_STOPS_LEFT_ABOUT,
+    BUS_ONBOARD,
+    BUS_TRANSFER_WAIT,
+    BUS_WAITING,
+
+    // --- 지하철 / 기타 ---
+    SUBWAY_SEGMENT,
+    DEFAULT_CONTINUE,
+
+    // --- 실시간 버스 도착 ---
+    /** {a} = 노선 번호 (앞에 공백 포함) */
+    ARRIVAL_ROUTE,
+    /** {n} = 몇 정거장 전 */
+    ARRIVAL_STOPS_AWAY,
+    /** {a} = 도착 정보 메시지 ("전전" 등) */
+    ARRIVAL_POSITION,
+    /** {n} = 남은 분 */
+    ARRIVAL_IN_MINUTES,
+    ARRIVAL_SOON,
+    ARRIVAL_END
+}
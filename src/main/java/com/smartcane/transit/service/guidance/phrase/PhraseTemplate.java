@@ -0,0 +1,94 @@
+package com.smartcane.transit.service.guidance.phrase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 한 번 파싱해 두는 문구 템플릿
+ *
+ * - 자리표시자는 {a}, {b} (문자열)와 {n} (정수) 세 가지뿐이라 인자를 배열/박싱 없이 넘긴다.
+ * - 리터럴 조각과 자리표시자 순서를 배열로 들고 있다가 StringBuilder 에 이어 붙인다.
+ * - 자리표시자가 없는 문구는 파싱 시점의 문자열을 그대로 돌려준다.
+ */
+public final class PhraseTemplate {
+
+    private static final byte SLOT_A = 0;
+    private static final byte SLOT_B = 1;
+    private static final byte SLOT_N = 2;
+
+    /** literals.length == slots.length + 1 */
+    private final String[] literals;
+    private final byte[] slots;
+    private final String staticText;
+
+    private PhraseTemplate(String[] literals, byte[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+        this.staticText = (slots.length == 0) ? literals[0] : null;
+    }
+
+    /**
+     * @throws IllegalArgumentException 모르는 자리표시자 또는 닫히지 않은 중괄호
+     */
+    public static PhraseTemplate parse(String raw) {
+        if (raw == null) throw new IllegalArgumentException("템플릿이 null 입니다.");
+
+        List<String> lits = new ArrayList<>();
+        List<Byte> slots = new ArrayList<>();
+        StringBuilder lit = new StringBuilder();
+
+        int i = 0;
+        while (i < raw.length()) {
+            char c = raw.charAt(i);
+            if (c != '{') {
+                lit.append(c);
+                i++;
+                continue;
+            }
+            int close = raw.indexOf('}', i);
+            if (close < 0) throw new IllegalArgumentException("닫히지 않은 자리표시자: " + raw);
+            String name = raw.substring(i + 1, close);
+            byte slot = switch (name) {
+                case "a" -> SLOT_A;
+                case "b" -> SLOT_B;
+                case "n" -> SLOT_N;
+                default -> throw new IllegalArgumentException("모르는 자리표시자 {" + name + "}: " + raw);
+            };
+            lits.add(lit.toString());
+            lit.setLength(0);
+            slots.add(slot);
+            i = close + 1;
+        }
+        lits.add(lit.toString());
+
+        byte[] s = new byte[slots.size()];
+        for (int k = 0; k < s.length; k++) s[k] = slots.get(k);
+        return new PhraseTemplate(lits.toArray(new String[0]), s);
+    }
+
+    public boolean isStatic() {
+        return staticText != null;
+    }
+
+    /** 자리표시자 없는 문구 (있으면 null) */
+    public String staticText() {
+        return staticText;
+    }
+
+    /** 문구를 sb 뒤에 붙인다 (쓰지 않는 인자는 null/0) */
+    public void appendTo(StringBuilder sb, CharSequence a, CharSequence b, long n) {
+        if (staticText != null) {
+            sb.append(staticText);
+            return;
+        }
+        for (int k = 0; k < slots.length; k++) {
+            sb.append(literals[k]);
+            switch (slots[k]) {
+                case SLOT_A -> sb.append(a != null ? a : "");
+                case SLOT_B -> sb.append(b != null ? b : "");
+                default -> sb.append(n);
+            }
+        }
+        sb.append(literals[slots.length]);
+    }
+}
@@ -0,0 +1,77 @@
+package com.smartcane.transit.service.plan;
+
+import com.smartcane.transit.config.PlanProperties;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.util.CompiledPolyline;
+import com.smartcane.transit.util.PolylineCodec;
+import com.smartcane.transit.util.PolylineSimplifier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 압축 계획 표현 (/plan?geometry=compact)
+ *
+ * - step linestring / passShape 만 Douglas–Peucker 로 단순화 후 polyline6 문자열로 바꾼다
+ * - 나머지(step 개수/설명/거리, 정류장 목록, 시간/요금)는 원본 그대로
+ * - 응답 전용 사본이다: 서버의 TripStore/planHash 는 항상 원본 기준
+ */
+@Component
+@RequiredArgsConstructor
+public class CompactPlanEncoder {
+
+    private final PlanProperties props;
+
+    public SkTransitRootDto.MetaDataDto encode(SkTransitRootDto.MetaDataDto meta) {
+        if (meta == null || meta.plan() == null || meta.plan().itineraries() == null) {
+            return meta;
+        }
+        List<SkTransitRootDto.ItineraryDto> itineraries = new ArrayList<>(meta.plan().itineraries().size());
+        for (SkTransitRootDto.ItineraryDto it : meta.plan().itineraries()) {
+            itineraries.add(encode(it));
+        }
+        return new SkTransitRootDto.MetaDataDto(meta.requestParameters(), new SkTransitRootDto.PlanDto(itineraries));
+    }
+
+    private SkTransitRootDto.ItineraryDto encode(SkTransitRootDto.ItineraryDto it) {
+        if (it == null || it.legs() == null) return it;
+
+        List<SkTransitRootDto.LegDto> legs = new ArrayList<>(it.legs().size());
+        for (SkTransitRootDto.LegDto leg : it.legs()) {
+            legs.add(encode(leg));
+        }
+        return new SkTransitRootDto.ItineraryDto(
+                it.fare(), it.totalTime(), it.totalDistance(), it.totalWalkTime(), it.totalWalkDistance(),
+                it.transferCount(), it.pathType(), legs);
+    }
+
+    private SkTransitRootDto.LegDto encode(SkTransitRootDto.LegDto leg) {
+        if (leg == null) return null;
+
+        List<SkTransitRootDto.WalkStepDto> steps = null;
+        if (leg.steps() != null) {
+            steps = new ArrayList<>(leg.steps().size());
+            for (SkTransitRootDto.WalkStepDto s : leg.steps()) {
+                steps.add(s == null ? null : new SkTransitRootDto.WalkStepDto(
+                        s.streetName(), s.distance(), s.description(), encodeLine(s.linestring())));
+            }
+        }
+        SkTransitRootDto.PassShapeDto shape = (leg.passShape() == null) ? null
+                : new SkTransitRootDto.PassShapeDto(encodeLine(leg.passShape().linestring()));
+
+        return new SkTransitRootDto.LegDto(
+                leg.mode(), leg.sectionTime(), leg.distance(), leg.routeColor(), leg.route(), leg.routeId(),
+                leg.service(), leg.type(), leg.start(), leg.end(),
+                steps, leg.passStopList(), shape);
+    }
+
+    private String encodeLine(String linestring) {
+        if (linestring == null) return null;
+        CompiledPolyline line = CompiledPolyline.parse(linestring);
+        if (line.size() == 0) return "";
+        int[] kept = PolylineSimplifier.simplify(line, props.getCompactToleranceM());
+        return PolylineCodec.encode(line, kept);
+    }
+}
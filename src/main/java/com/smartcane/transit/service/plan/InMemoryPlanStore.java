@@ -0,0 +1,46 @@
+package com.smartcane.transit.service.plan;
+
+import com.smartcane.transit.config.PlanProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@Profile("!redis")
+public class InMemoryPlanStore implements PlanStore {
+
+    private record Entry(String json, long expiresAtMs) {}
+
+    private final PlanProperties props;
+    private final Map<String, Entry> entries;
+
+    public InMemoryPlanStore(PlanProperties props) {
+        this.props = props;
+        int max = Math.max(16, props.getPlanCacheMaxEntries());
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > max;
+            }
+        });
+    }
+
+    @Override
+    public String load(String hash) {
+        Entry e = entries.get(hash);
+        if (e == null) return null;
+        if (e.expiresAtMs() < System.currentTimeMillis()) {
+            entries.remove(hash);
+            return null;
+        }
+        return e.json();
+    }
+
+    @Override
+    public void save(String hash, String json) {
+        entries.put(hash, new Entry(json, System.currentTimeMillis() + props.getPlanCacheTtlHours() * 3_600_000L));
+    }
+}
@@ -0,0 +1,68 @@
+package com.smartcane.transit.service.plan;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * 내용 해시 기반 계획(MetaData) 캐시
+ *
+ * - /plan 시점에 MetaData 를 직렬화해 SHA-256 해시를 키로 저장, 해시를 클라이언트에 내려준다
+ * - 진행 업링크에서 tripStore 의 meta 가 사라졌을 때 클라이언트는 전체 metaData 대신 planHash 만 보내고,
+ *   서버는 여기서 복원한다 (진짜 미스일 때만 전체 업로드 요청)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PlanCache {
+
+    private final PlanStore store;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 저장 후 해시 반환 (base64url, 패딩 없음 — 43자)
+     */
+    public String put(SkTransitRootDto.MetaDataDto meta) {
+        try {
+            String json = objectMapper.writeValueAsString(meta);
+            String hash = hash(json);
+            store.save(hash, json);
+            return hash;
+        } catch (JsonProcessingException e) {
+            log.warn("[Plan] 계획 직렬화 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return 해시에 해당하는 MetaData, 없으면 null
+     */
+    public SkTransitRootDto.MetaDataDto get(String hash) {
+        if (hash == null || hash.isBlank()) return null;
+        String json = store.load(hash);
+        if (json == null) return null;
+        try {
+            return objectMapper.readValue(json, SkTransitRootDto.MetaDataDto.class);
+        } catch (JsonProcessingException e) {
+            log.warn("[Plan] 캐시된 계획 역직렬화 실패 hash={} : {}", hash, e.getMessage());
+            return null;
+        }
+    }
+
+    static String hash(String json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.smartcane.transit.service.plan;
+
+/**
+ * 계획(MetaData) 원문 저장소 — 내용 해시를 키로 사용
+ * - redis 프로파일: 인스턴스 간 공유 (RedisPlanStore)
+ * - 그 외: 프로세스 메모리 LRU (InMemoryPlanStore)
+ */
+public interface PlanStore {
+
+    /** @return 저장된 JSON, 없거나 만료되었으면 null */
+    String load(String hash);
+
+    void save(String hash, String json);
+}
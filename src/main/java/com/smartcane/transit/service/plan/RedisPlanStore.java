@@ -0,0 +1,43 @@
+package com.smartcane.transit.service.plan;
+
+import com.smartcane.transit.config.PlanProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Slf4j
+@Component
+@Profile("redis")
+@RequiredArgsConstructor
+public class RedisPlanStore implements PlanStore {
+
+    private static final String KEY_PREFIX = "plan:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final PlanProperties props;
+
+    @Override
+    public String load(String hash) {
+        try {
+            return redisTemplate.opsForValue().get(KEY_PREFIX + hash);
+        } catch (Exception e) {
+            // 캐시 장애는 미스로 취급 (클라이언트에 전체 업로드 요청)
+            log.warn("[Plan] Redis 계획 캐시 조회 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void save(String hash, String json) {
+        try {
+            // 같은 해시 = 같은 내용이므로 이미 있으면 TTL 만 연장된다
+            redisTemplate.opsForValue().set(KEY_PREFIX + hash, json, Duration.ofHours(props.getPlanCacheTtlHours()));
+        } catch (Exception e) {
+            log.warn("[Plan] Redis 계획 캐시 저장 실패: {}", e.getMessage());
+        }
+    }
+}
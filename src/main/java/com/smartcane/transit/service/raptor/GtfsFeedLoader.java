@@ -0,0 +1,435 @@
+package com.smartcane.transit.service.raptor;
+
+import com.smartcane.transit.util.GeoUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GTFS 디렉터리 → RaptorTimetable
+ *
+ * 읽는 파일: stops.txt, routes.txt, trips.txt, stop_times.txt (필수 컬럼만), calendar.txt / calendar_dates.txt (있으면)
+ * - 정류장 간 도보 환승은 transfers.txt 대신 transferRadiusM 안의 직선거리로 만든다
+ * - trip 마다 service 인덱스를 두고, 질의 날짜에 운행하는 service 만 탄다 (ServiceCalendar)
+ *   달력 파일이 둘 다 없으면 모든 trip 을 매일 운행하는 것으로 본다
+ * - 시각이 빈 중간 정류장은 앞뒤 시각으로 선형 보간
+ */
+@Slf4j
+public final class GtfsFeedLoader {
+
+    private GtfsFeedLoader() {
+    }
+
+    public static RaptorTimetable load(Path dir, double transferRadiusM, double walkSpeedMps) throws IOException {
+        long started = System.nanoTime();
+
+        // 1) stops
+        Map<String, Integer> stopIndex = new HashMap<>();
+        List<String> stopIds = new ArrayList<>();
+        List<String> stopNames = new ArrayList<>();
+        DoubleList lats = new DoubleList();
+        DoubleList lons = new DoubleList();
+        readCsv(dir.resolve("stops.txt"), row -> {
+            String type = row.get("location_type");
+            if (type != null && !type.isBlank() && !"0".equals(type.trim())) return; // 역사(station) 등은 제외
+            String id = row.get("stop_id");
+            stopIndex.put(id, stopIds.size());
+            stopIds.add(id);
+            stopNames.add(row.get("stop_name"));
+            lats.add(Double.parseDouble(row.get("stop_lat")));
+            lons.add(Double.parseDouble(row.get("stop_lon")));
+        });
+
+        // 2) routes
+        Map<String, Integer> routeIndex = new HashMap<>();
+        List<String> routeIds = new ArrayList<>();
+        List<String> routeNames = new ArrayList<>();
+        IntList routeTypes = new IntList();
+        readCsv(dir.resolve("routes.txt"), row -> {
+            String id = row.get("route_id");
+            String name = row.get("route_short_name");
+            if (name == null || name.isBlank()) name = row.get("route_long_name");
+            routeIndex.put(id, routeIds.size());
+            routeIds.add(id);
+            routeNames.add(name);
+            String type = row.get("route_type");
+            routeTypes.add(type == null || type.isBlank() ? 3 : Integer.parseInt(type.trim()));
+        });
+
+        // 3) trips → route, service
+        Map<String, TripBuilder> trips = new LinkedHashMap<>();
+        Map<String, Integer> serviceIndex = new LinkedHashMap<>();
+        readCsv(dir.resolve("trips.txt"), row -> {
+            Integer r = routeIndex.get(row.get("route_id"));
+            if (r == null) return;
+            String service = row.get("service_id");
+            int sv = serviceIndex.computeIfAbsent(service == null ? "" : service.trim(), k -> serviceIndex.size());
+            trips.put(row.get("trip_id"), new TripBuilder(r, sv));
+        });
+        ServiceCalendar calendar = loadCalendar(dir, serviceIndex);
+
+        // 4) stop_times
+        readCsv(dir.resolve("stop_times.txt"), row -> {
+            TripBuilder t = trips.get(row.get("trip_id"));
+            Integer s = stopIndex.get(row.get("stop_id"));
+            if (t == null || s == null) return;
+            t.add(Integer.parseInt(row.get("stop_sequence").trim()), s,
+                    parseTime(row.get("arrival_time")), parseTime(row.get("departure_time")));
+        });
+
+        // 5) 정류장 순서가 같은 trip 을 pattern 으로 묶기
+        Map<String, List<TripBuilder>> byPattern = new LinkedHashMap<>();
+        for (TripBuilder t : trips.values()) {
+            if (!t.finish()) continue;
+            byPattern.computeIfAbsent(t.patternKey(), k -> new ArrayList<>()).add(t);
+        }
+
+        int patternCount = byPattern.size();
+        int[] patternStopStart = new int[patternCount];
+        int[] patternLength = new int[patternCount];
+        int[] patternTripCount = new int[patternCount];
+        int[] patternTimeStart = new int[patternCount];
+        int[] patternRoute = new int[patternCount];
+        IntList patternStops = new IntList();
+        IntList arrivals = new IntList();
+        IntList departures = new IntList();
+        IntList tripService = new IntList();
+
+        int p = 0;
+        for (List<TripBuilder> group : byPattern.values()) {
+            group.sort((a, b) -> Integer.compare(a.dep[0], b.dep[0]));
+            TripBuilder first = group.get(0);
+            patternStopStart[p] = patternStops.size();
+            patternLength[p] = first.size;
+            patternTripCount[p] = group.size();
+            patternTimeStart[p] = arrivals.size();
+            patternRoute[p] = first.route;
+            for (int i = 0; i < first.size; i++) patternStops.add(first.stops[i]);
+            for (TripBuilder t : group) {
+                tripService.add(t.service);
+                for (int i = 0; i < t.size; i++) {
+                    arrivals.add(t.arr[i]);
+                    departures.add(t.dep[i]);
+                }
+            }
+            p++;
+        }
+
+        // 6) stop → pattern (CSR)
+        int stopCount = stopIds.size();
+        int[] stopPatternCount = new int[stopCount + 1];
+        int[] stopsFlat = patternStops.toArray();
+        for (p = 0; p < patternCount; p++) {
+            for (int i = 0; i < patternLength[p]; i++) {
+                int s = stopsFlat[patternStopStart[p] + i];
+                if (!visitsEarlier(stopsFlat, patternStopStart[p], i, s)) stopPatternCount[s + 1]++;
+            }
+        }
+        int[] stopPatternStart = prefixSum(stopPatternCount);
+        int[] stopPatterns = new int[stopPatternStart[stopCount]];
+        int[] fill = Arrays.copyOf(stopPatternStart, stopCount);
+        for (p = 0; p < patternCount; p++) {
+            for (int i = 0; i < patternLength[p]; i++) {
+                int s = stopsFlat[patternStopStart[p] + i];
+                if (!visitsEarlier(stopsFlat, patternStopStart[p], i, s)) stopPatterns[fill[s]++] = p;
+            }
+        }
+
+        // 7) 도보 환승 (위도 순 정렬 후 창 안에서만 거리 계산)
+        double[] latArr = lats.toArray();
+        double[] lonArr = lons.toArray();
+        Integer[] byLat = new Integer[stopCount];
+        for (int i = 0; i < stopCount; i++) byLat[i] = i;
+        Arrays.sort(byLat, (a, b) -> Double.compare(latArr[a], latArr[b]));
+        double dLat = transferRadiusM / 111_320.0;
+
+        List<int[]> pairs = new ArrayList<>();
+        DoubleList pairDist = new DoubleList();
+        int[] transferCount = new int[stopCount + 1];
+        for (int i = 0; i < stopCount; i++) {
+            int a = byLat[i];
+            for (int j = i + 1; j < stopCount && latArr[byLat[j]] - latArr[a] <= dLat; j++) {
+                int b = byLat[j];
+                double d = GeoUtils.haversine(latArr[a], lonArr[a], latArr[b], lonArr[b]);
+                if (d > transferRadiusM) continue;
+                pairs.add(new int[]{a, b});
+                pairDist.add(d);
+                transferCount[a + 1]++;
+                transferCount[b + 1]++;
+            }
+        }
+        int[] transferStart = prefixSum(transferCount);
+        int[] transferTarget = new int[transferStart[stopCount]];
+        int[] transferSec = new int[transferTarget.length];
+        double[] transferM = new double[transferTarget.length];
+        fill = Arrays.copyOf(transferStart, stopCount);
+        double speed = Math.max(0.1, walkSpeedMps);
+        for (int k = 0; k < pairs.size(); k++) {
+            int a = pairs.get(k)[0], b = pairs.get(k)[1];
+            double d = pairDist.get(k);
+            int sec = (int) Math.ceil(d / speed);
+            transferTarget[fill[a]] = b; transferSec[fill[a]] = sec; transferM[fill[a]++] = d;
+            transferTarget[fill[b]] = a; transferSec[fill[b]] = sec; transferM[fill[b]++] = d;
+        }
+
+        RaptorTimetable tt = new RaptorTimetable(
+                stopIds.toArray(String[]::new), stopNames.toArray(String[]::new), latArr, lonArr,
+                patternStopStart, patternLength, stopsFlat, patternTripCount, patternTimeStart, patternRoute,
+                arrivals.toArray(), departures.toArray(),
+                routeIds.toArray(String[]::new), routeNames.toArray(String[]::new), routeTypes.toArray(),
+                stopPatternStart, stopPatterns,
+                transferStart, transferTarget, transferSec, transferM,
+                tripService.toArray(), calendar);
+
+        log.info("[RAPTOR] GTFS 로드 {} : stops={} patterns={} trips={} services={} transfers={} ({}ms)",
+                dir, stopCount, patternCount, tt.tripCount(), serviceIndex.size(), transferTarget.length,
+                (System.nanoTime() - started) / 1_000_000);
+        return tt;
+    }
+
+    /**
+     * calendar.txt / calendar_dates.txt → ServiceCalendar (둘 다 없으면 null = 매일 운행)
+     * trips.txt 에 없는 service 는 건너뛴다
+     */
+    private static ServiceCalendar loadCalendar(Path dir, Map<String, Integer> serviceIndex) throws IOException {
+        Path calendarFile = dir.resolve("calendar.txt");
+        Path datesFile = dir.resolve("calendar_dates.txt");
+        boolean hasCalendar = Files.exists(calendarFile);
+        boolean hasDates = Files.exists(datesFile);
+        if (!hasCalendar && !hasDates) {
+            log.warn("[RAPTOR] calendar.txt / calendar_dates.txt 없음 → 모든 trip 을 매일 운행하는 것으로 봅니다 ({})", dir);
+            return null;
+        }
+
+        int n = serviceIndex.size();
+        int[] weekdayMask = new int[n];
+        int[] startDate = new int[n];
+        int[] endDate = new int[n];
+        if (hasCalendar) {
+            String[] days = {"monday", "tuesday", "wednesday", "thursday", "friday", "saturday", "sunday"};
+            readCsv(calendarFile, row -> {
+                Integer s = serviceIndex.get(trimmed(row.get("service_id")));
+                if (s == null) return;
+                int mask = 0;
+                for (int d = 0; d < days.length; d++) {
+                    if ("1".equals(trimmed(row.get(days[d])))) mask |= 1 << d;
+                }
+                weekdayMask[s] = mask;
+                startDate[s] = Integer.parseInt(trimmed(row.get("start_date")));
+                endDate[s] = Integer.parseInt(trimmed(row.get("end_date")));
+            });
+        }
+
+        Map<Long, Boolean> exceptions = new HashMap<>();
+        if (hasDates) {
+            readCsv(datesFile, row -> {
+                Integer s = serviceIndex.get(trimmed(row.get("service_id")));
+                if (s == null) return;
+                int date = Integer.parseInt(trimmed(row.get("date")));
+                // 1 = 운행 추가, 2 = 운행 제외
+                exceptions.put(ServiceCalendar.exceptionKey(s, date), "1".equals(trimmed(row.get("exception_type"))));
+            });
+        }
+
+        return new ServiceCalendar(serviceIndex.keySet().toArray(String[]::new),
+                weekdayMask, startDate, endDate, exceptions);
+    }
+
+    private static String trimmed(String s) {
+        return (s == null) ? "" : s.trim();
+    }
+
+    private static boolean visitsEarlier(int[] stops, int start, int pos, int stop) {
+        for (int i = 0; i < pos; i++) {
+            if (stops[start + i] == stop) return true;
+        }
+        return false;
+    }
+
+    private static int[] prefixSum(int[] counts) {
+        for (int i = 1; i < counts.length; i++) counts[i] += counts[i - 1];
+        return counts;
+    }
+
+    /** "HH:MM:SS" → 초 (24시 이상 허용), 비어 있으면 -1 */
+    static int parseTime(String s) {
+        if (s == null || s.isBlank()) return -1;
+        String[] parts = s.trim().split(":");
+        return Integer.parseInt(parts[0]) * 3600 + Integer.parseInt(parts[1]) * 60
+                + (parts.length > 2 ? Integer.parseInt(parts[2]) : 0);
+    }
+
+    // ------------------------------------------------------------------
+    // CSV
+    // ------------------------------------------------------------------
+
+    private interface RowHandler {
+        void accept(Map<String, String> row);
+    }
+
+    private static void readCsv(Path file, RowHandler handler) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String headerLine = in.readLine();
+            if (headerLine == null) return;
+            if (!headerLine.isEmpty() && headerLine.charAt(0) == '\uFEFF') headerLine = headerLine.substring(1);
+            List<String> header = splitCsv(headerLine);
+
+            Map<String, String> row = new HashMap<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) continue;
+                List<String> cols = splitCsv(line);
+                row.clear();
+                for (int i = 0; i < header.size(); i++) {
+                    row.put(header.get(i).trim(), i < cols.size() ? cols.get(i) : null);
+                }
+                handler.accept(row);
+            }
+        }
+    }
+
+    /** 따옴표("a,b", "" 이스케이프)만 처리하는 최소 CSV 분리 */
+    static List<String> splitCsv(String line) {
+        List<String> out = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    sb.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    sb.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                out.add(sb.toString());
+                sb.setLength(0);
+            } else {
+                sb.append(c);
+            }
+        }
+        out.add(sb.toString());
+        return out;
+    }
+
+    // ------------------------------------------------------------------
+    // 로드 중 임시 구조
+    // ------------------------------------------------------------------
+
+    private static final class TripBuilder {
+        final int route;
+        final int service;
+        int size;
+        int[] seq = new int[16];
+        int[] stops = new int[16];
+        int[] arr = new int[16];
+        int[] dep = new int[16];
+
+        TripBuilder(int route, int service) {
+            this.route = route;
+            this.service = service;
+        }
+
+        void add(int sequence, int stop, int arrival, int departure) {
+            if (size == seq.length) {
+                seq = Arrays.copyOf(seq, size * 2);
+                stops = Arrays.copyOf(stops, size * 2);
+                arr = Arrays.copyOf(arr, size * 2);
+                dep = Arrays.copyOf(dep, size * 2);
+            }
+            seq[size] = sequence;
+            stops[size] = stop;
+            arr[size] = arrival;
+            dep[size] = departure;
+            size++;
+        }
+
+        /** stop_sequence 순 정렬 + 빈 시각 보간. 쓸 수 없는 trip 이면 false */
+        boolean finish() {
+            if (size < 2) return false;
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Integer.compare(seq[a], seq[b]));
+            int[] s2 = new int[size], a2 = new int[size], d2 = new int[size];
+            for (int i = 0; i < size; i++) {
+                s2[i] = stops[order[i]];
+                a2[i] = (arr[order[i]] >= 0) ? arr[order[i]] : dep[order[i]];
+                d2[i] = (dep[order[i]] >= 0) ? dep[order[i]] : arr[order[i]];
+            }
+            stops = s2;
+            arr = a2;
+            dep = d2;
+            if (arr[0] < 0 || arr[size - 1] < 0) return false;
+
+            // 시각 없는 중간 정류장: 앞뒤 시각 사이를 정류장 수로 나눠 보간
+            int prev = 0;
+            for (int i = 1; i < size; i++) {
+                if (arr[i] < 0) continue;
+                for (int k = prev + 1; k < i; k++) {
+                    int t = dep[prev] + (arr[i] - dep[prev]) * (k - prev) / (i - prev);
+                    arr[k] = t;
+                    dep[k] = t;
+                }
+                prev = i;
+            }
+            return true;
+        }
+
+        String patternKey() {
+            StringBuilder sb = new StringBuilder().append(route).append('|');
+            for (int i = 0; i < size; i++) sb.append(stops[i]).append(',');
+            return sb.toString();
+        }
+    }
+
+    private static final class IntList {
+        private int[] a = new int[64];
+        private int n;
+
+        void add(int v) {
+            if (n == a.length) a = Arrays.copyOf(a, n * 2);
+            a[n++] = v;
+        }
+
+        int size() {
+            return n;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(a, n);
+        }
+    }
+
+    private static final class DoubleList {
+        private double[] a = new double[64];
+        private int n;
+
+        void add(double v) {
+            if (n == a.length) a = Arrays.copyOf(a, n * 2);
+            a[n++] = v;
+        }
+
+        double get(int i) {
+            return a[i];
+        }
+
+        double[] toArray() {
+            return Arrays.copyOf(a, n);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.smartcane.transit.service.raptor;
+
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.util.GeoUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RaptorJourney → SK 응답과 같은 모양의 ItineraryDto
+ * - 진행 판정/안내/지오메트리 컴파일이 SK 경로와 똑같이 동작하도록 필드 의미를 맞춘다
+ *   (sectionTime/totalTime 은 초, distance 는 m, 좌표 문자열은 "lon,lat lon,lat")
+ * - 보행 구간은 도로망이 없으므로 직선 1 step, 차량 구간 passShape 는 정류장을 이은 선
+ */
+public final class RaptorItineraryMapper {
+
+    // SK pathType: 1 지하철, 2 버스, 3 버스+지하철, 5 기차, 7 해운
+    private static final int PATH_SUBWAY = 1;
+    private static final int PATH_BUS = 2;
+    private static final int PATH_MIXED = 3;
+    private static final int PATH_TRAIN = 5;
+    private static final int PATH_FERRY = 7;
+
+    private RaptorItineraryMapper() {
+    }
+
+    public static SkTransitRootDto.ItineraryDto toItinerary(RaptorTimetable tt, RaptorJourney journey) {
+        List<SkTransitRootDto.LegDto> legs = new ArrayList<>(journey.legs().size());
+        int totalDistance = 0;
+        int walkTime = 0;
+        int walkDistance = 0;
+        boolean bus = false;
+        boolean subway = false;
+        boolean train = false;
+        boolean ferry = false;
+
+        for (RaptorJourney.Leg leg : journey.legs()) {
+            SkTransitRootDto.PlaceDto start = place(tt, journey, leg.fromStop(), true);
+            SkTransitRootDto.PlaceDto end = place(tt, journey, leg.toStop(), false);
+            int sec = leg.arriveSec() - leg.departSec();
+
+            if (leg.kind() == RaptorJourney.Kind.WALK) {
+                int m = (int) Math.round(leg.distanceM());
+                legs.add(walkLeg(start, end, sec, m));
+                totalDistance += m;
+                walkTime += sec;
+                walkDistance += m;
+                continue;
+            }
+
+            int route = tt.patternRoute[leg.pattern()];
+            String mode = modeOf(tt.routeType[route]);
+            bus |= "BUS".equals(mode);
+            subway |= "SUBWAY".equals(mode);
+            train |= "TRAIN".equals(mode);
+            ferry |= "FERRY".equals(mode);
+
+            List<SkTransitRootDto.StationDto> stations = new ArrayList<>();
+            StringBuilder shape = new StringBuilder();
+            double meters = 0.0;
+            int prev = -1;
+            for (int pos = leg.boardPos(); pos <= leg.alightPos(); pos++) {
+                int s = tt.stopAt(leg.pattern(), pos);
+                stations.add(new SkTransitRootDto.StationDto(pos - leg.boardPos(), tt.stopName[s],
+                        Double.toString(tt.stopLon[s]), Double.toString(tt.stopLat[s]), tt.stopId[s]));
+                if (shape.length() > 0) shape.append(' ');
+                shape.append(tt.stopLon[s]).append(',').append(tt.stopLat[s]);
+                if (prev >= 0) {
+                    meters += GeoUtils.haversine(tt.stopLat[prev], tt.stopLon[prev], tt.stopLat[s], tt.stopLon[s]);
+                }
+                prev = s;
+            }
+            int m = (int) Math.round(meters);
+            totalDistance += m;
+
+            legs.add(new SkTransitRootDto.LegDto(
+                    mode, sec, m, null,
+                    tt.routeName[route], tt.routeId[route], 1, tt.routeType[route],
+                    start, end, null,
+                    new SkTransitRootDto.PassStopListDto(stations),
+                    new SkTransitRootDto.PassShapeDto(shape.toString())
+            ));
+        }
+
+        int transit = journey.transitLegCount();
+        int pathType = pathTypeOf(bus, subway, train, ferry);
+        return new SkTransitRootDto.ItineraryDto(
+                null,
+                journey.arriveSec() - journey.departSec(),
+                totalDistance,
+                walkTime,
+                walkDistance,
+                Math.max(0, transit - 1),
+                pathType,
+                legs
+        );
+    }
+
+    private static SkTransitRootDto.LegDto walkLeg(SkTransitRootDto.PlaceDto start, SkTransitRootDto.PlaceDto end,
+                                                   int sec, int meters) {
+        String line = start.lon() + "," + start.lat() + " " + end.lon() + "," + end.lat();
+        String description = (end.name() != null ? end.name() + "까지 " : "") + meters + "m 이동";
+        return new SkTransitRootDto.LegDto(
+                "WALK", sec, meters, null, null, null, null, null,
+                start, end,
+                List.of(new SkTransitRootDto.WalkStepDto(null, meters, description, line)),
+                null, null
+        );
+    }
+
+    private static SkTransitRootDto.PlaceDto place(RaptorTimetable tt, RaptorJourney journey, int stop, boolean from) {
+        if (stop >= 0) {
+            return new SkTransitRootDto.PlaceDto(tt.stopName[stop], tt.stopLon[stop], tt.stopLat[stop]);
+        }
+        return from
+                ? new SkTransitRootDto.PlaceDto("출발지", journey.originLon(), journey.originLat())
+                : new SkTransitRootDto.PlaceDto("도착지", journey.destLon(), journey.destLat());
+    }
+
+    /** 한 가지 수단만 탔으면 그 수단, 섞였으면 3 (SK 도 기차/해운 섞인 경로는 따로 구분하지 않음) */
+    static int pathTypeOf(boolean bus, boolean subway, boolean train, boolean ferry) {
+        int kinds = (bus ? 1 : 0) + (subway ? 1 : 0) + (train ? 1 : 0) + (ferry ? 1 : 0);
+        if (kinds > 1) return PATH_MIXED;
+        if (subway) return PATH_SUBWAY;
+        if (train) return PATH_TRAIN;
+        if (ferry) return PATH_FERRY;
+        return PATH_BUS;
+    }
+
+    /** GTFS route_type (기본 + 확장 코드) → SK leg mode */
+    static String modeOf(int routeType) {
+        if (routeType == 3 || (routeType >= 700 && routeType < 800)) return "BUS";
+        if (routeType == 0 || routeType == 1 || (routeType >= 400 && routeType < 500) || (routeType >= 900 && routeType < 1000)) {
+            return "SUBWAY";
+        }
+        if (routeType == 2 || (routeType >= 100 && routeType < 200)) return "TRAIN";
+        if (routeType == 4 || (routeType >= 1000 && routeType < 1100)) return "FERRY";
+        return "BUS";
+    }
+}
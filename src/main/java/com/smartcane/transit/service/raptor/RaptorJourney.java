@@ -0,0 +1,49 @@
+package com.smartcane.transit.service.raptor;
+
+import java.util.List;
+
+/**
+ * RAPTOR 탐색 결과 (시각은 서비스일 자정 기준 초)
+ * - legs 는 출발지 → 목적지 순. 출발지/목적지는 정류장이 아니므로 stop = -1
+ */
+public record RaptorJourney(
+        double originLat, double originLon,
+        double destLat, double destLon,
+        int departSec,
+        int arriveSec,
+        List<Leg> legs
+) {
+
+    public enum Kind { WALK, TRANSIT }
+
+    /**
+     * @param pattern  TRANSIT 일 때 pattern 인덱스 (WALK 는 -1)
+     * @param trip     pattern 안의 trip 순번
+     * @param boardPos / alightPos pattern 안에서 탄/내린 정류장 위치
+     * @param distanceM WALK 일 때 직선 보행 거리
+     */
+    public record Leg(
+            Kind kind,
+            int fromStop, int toStop,
+            int departSec, int arriveSec,
+            int pattern, int trip, int boardPos, int alightPos,
+            double distanceM
+    ) {
+        static Leg walk(int fromStop, int toStop, int departSec, int arriveSec, double distanceM) {
+            return new Leg(Kind.WALK, fromStop, toStop, departSec, arriveSec, -1, -1, -1, -1, distanceM);
+        }
+
+        static Leg transit(int fromStop, int toStop, int departSec, int arriveSec,
+                           int pattern, int trip, int boardPos, int alightPos) {
+            return new Leg(Kind.TRANSIT, fromStop, toStop, departSec, arriveSec, pattern, trip, boardPos, alightPos, 0.0);
+        }
+    }
+
+    public int transitLegCount() {
+        int n = 0;
+        for (Leg leg : legs) {
+            if (leg.kind() == Kind.TRANSIT) n++;
+        }
+        return n;
+    }
+}
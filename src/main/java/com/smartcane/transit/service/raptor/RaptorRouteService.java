@@ -0,0 +1,141 @@
+package com.smartcane.transit.service.raptor;
+
+import com.smartcane.transit.config.RaptorProperties;
+import com.smartcane.transit.dto.request.RoutePlanRequest;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * 내장 경로 탐색 (GTFS + RAPTOR)
+ * - 기동 시 smartcane.raptor.feed-dir 의 GTFS 를 읽어 시간표를 만든다 (enabled=false 거나 로드 실패면 사용 안 함)
+ * - 결과는 SK 응답과 같은 SkTransitRootDto 모양이라 /plan 이후 파이프라인은 그대로
+ * - 질의 날짜(searchDttm)에 운행하는 service 의 trip 만 탄다 (GTFS calendar)
+ * - 탐색은 CPU 작업이라 boundedElastic 에서 돌린다 (SK 실패 콜백의 Netty 이벤트 루프를 막지 않도록)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RaptorRouteService {
+
+    private static final ZoneId SEOUL = ZoneId.of("Asia/Seoul");
+    private static final DateTimeFormatter SEARCH_DTTM = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+    private static final int SECONDS_PER_DAY = 24 * 3600;
+
+    private final RaptorProperties props;
+
+    private volatile RaptorRouter router;
+
+    @PostConstruct
+    void loadFeed() {
+        if (!props.isEnabled()) return;
+        try {
+            RaptorTimetable tt = GtfsFeedLoader.load(Path.of(props.getFeedDir()),
+                    props.getTransferRadiusM(), props.getWalkSpeedMps());
+            router = new RaptorRouter(tt, props.getMaxRounds(), props.getWalkSpeedMps(),
+                    props.getAccessRadiusM(), props.getMinTransferSec());
+        } catch (Exception e) {
+            log.warn("[RAPTOR] GTFS 로드 실패, 내장 경로 탐색 비활성화 ({}) : {}", props.getFeedDir(), e.getMessage());
+        }
+    }
+
+    public boolean isAvailable() {
+        return router != null;
+    }
+
+    /** 출발/도착이 모두 피드 범위 안이고 primary 설정이면 SK 보다 먼저 쓴다 */
+    public boolean isPrimaryFor(RoutePlanRequest query) {
+        RaptorRouter r = router;
+        if (!props.isPrimary() || r == null || query == null) return false;
+        try {
+            double margin = props.getAccessRadiusM();
+            return r.timetable().covers(Double.parseDouble(query.startY()), Double.parseDouble(query.startX()), margin)
+                    && r.timetable().covers(Double.parseDouble(query.endY()), Double.parseDouble(query.endX()), margin);
+        } catch (NumberFormatException | NullPointerException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 경로가 없으면 empty
+     */
+    public Mono<SkTransitRootDto> search(RoutePlanRequest query) {
+        return Mono.fromCallable(() -> plan(query))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    SkTransitRootDto plan(RoutePlanRequest query) {
+        RaptorRouter r = router;
+        if (r == null) return null;
+
+        double startLon = Double.parseDouble(query.startX());
+        double startLat = Double.parseDouble(query.startY());
+        double endLon = Double.parseDouble(query.endX());
+        double endLat = Double.parseDouble(query.endY());
+        LocalDateTime when = departureOf(query.searchDttm());
+
+        long started = System.nanoTime();
+        RaptorJourney journey = route(r, startLat, startLon, endLat, endLon,
+                when.toLocalDate(), when.toLocalTime().toSecondOfDay());
+        log.info("[RAPTOR] 탐색 {}ms found={}", (System.nanoTime() - started) / 1_000_000, journey != null);
+        if (journey == null) return null;
+
+        SkTransitRootDto.ItineraryDto itinerary = RaptorItineraryMapper.toItinerary(r.timetable(), journey);
+        SkTransitRootDto.RequestParametersDto params = new SkTransitRootDto.RequestParametersDto(
+                0, 0, 0, 0, 0, 0, 0, 0, "ko",
+                query.startX(), query.startY(), query.endX(), query.endY(),
+                when.format(SEARCH_DTTM));
+        return new SkTransitRootDto(new SkTransitRootDto.MetaDataDto(params,
+                new SkTransitRootDto.PlanDto(List.of(itinerary))));
+    }
+
+    /** 달력 없이 (모든 trip 운행) */
+    static RaptorJourney route(RaptorRouter r, double startLat, double startLon, double endLat, double endLon,
+                               int secondOfDay) {
+        return route(r, startLat, startLon, endLat, endLon, null, secondOfDay);
+    }
+
+    /**
+     * GTFS 시각은 서비스일 자정 기준이라 자정 넘어 운행하는 막차는 24:xx 로 적힌다.
+     * 새벽 출발이면 "전날 서비스일 + 24시간" 으로도 찾아 더 일찍 도착하는 쪽을 쓴다 (운행 여부도 전날 달력 기준).
+     *
+     * @param date 출발 날짜 (null 이면 달력을 보지 않는다)
+     */
+    static RaptorJourney route(RaptorRouter r, double startLat, double startLon, double endLat, double endLon,
+                               LocalDate date, int secondOfDay) {
+        RaptorTimetable tt = r.timetable();
+        boolean[] todayServices = (date != null) ? tt.activeServices(date) : null;
+        RaptorJourney today = r.route(startLat, startLon, endLat, endLon, secondOfDay, todayServices);
+        int late = secondOfDay + SECONDS_PER_DAY;
+        if (late > tt.maxTimeSec()) return today;
+
+        boolean[] yesterdayServices = (date != null) ? tt.activeServices(date.minusDays(1)) : null;
+        RaptorJourney overnight = r.route(startLat, startLon, endLat, endLon, late, yesterdayServices);
+        if (overnight == null) return today;
+        if (today == null || overnight.arriveSec() - SECONDS_PER_DAY < today.arriveSec()) return overnight;
+        return today;
+    }
+
+    private static LocalDateTime departureOf(String searchDttm) {
+        if (searchDttm != null && !searchDttm.isBlank()) {
+            try {
+                return LocalDateTime.parse(searchDttm.trim(), SEARCH_DTTM);
+            } catch (DateTimeParseException ignore) {
+                // 형식이 다르면 현재 시각
+            }
+        }
+        return LocalDateTime.now(SEOUL);
+    }
+}
@@ -0,0 +1,327 @@
+package com.smartcane.transit.service.raptor;
+
+import com.smartcane.transit.util.GeoUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * RAPTOR (Round-bAsed Public Transit Optimized Router) 최단 도착 탐색
+ *
+ * - round k = "k 번 탑승"까지 허용했을 때 정류장별 최단 도착 시각
+ * - 각 round 는 직전 round 에 개선된 정류장을 지나는 pattern 만 한 번씩 훑고, 이어서 도보 환승을 편다
+ * - 목적지 도착 시각(targetBest)보다 늦는 도착은 기록하지 않는다 (가지치기)
+ * - 같은 도착 시각이면 탑승 횟수가 적은 쪽(앞 round)을 고른다
+ *
+ * - activeServices 가 있으면 그 서비스일에 운행하지 않는 trip 은 타지 않는다
+ *
+ * 질의용 (maxRounds + 1) × 정류장 수 크기의 배열은 스레드마다 한 벌(Workspace)을 잡아 두고 질의마다 초기화해서 다시 쓴다.
+ * 라우터 자체는 불변이라 여러 스레드에서 같이 써도 된다.
+ */
+public final class RaptorRouter {
+
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    private final RaptorTimetable tt;
+    private final int maxRounds;
+    private final double walkSpeedMps;
+    private final double accessRadiusM;
+    private final int minTransferSec;
+
+    private final ThreadLocal<Workspace> workspaces;
+
+    public RaptorRouter(RaptorTimetable tt, int maxRounds, double walkSpeedMps, double accessRadiusM, int minTransferSec) {
+        this.tt = tt;
+        this.maxRounds = Math.max(1, maxRounds);
+        this.walkSpeedMps = Math.max(0.1, walkSpeedMps);
+        this.accessRadiusM = accessRadiusM;
+        this.minTransferSec = Math.max(0, minTransferSec);
+        this.workspaces = ThreadLocal.withInitial(() -> new Workspace(this.maxRounds + 1, tt.stopCount(), tt.patternCount()));
+    }
+
+    /** 질의 하나에 쓰는 배열 묶음 (피드 크기에 맞춰 한 번만 할당) */
+    private static final class Workspace {
+        final int[][] arr;        // round k 까지의 최단 도착
+        final int[][] transitArr; // round k 에 차량으로 도착한 시각
+        final int[][] tPattern;
+        final int[][] tTrip;
+        final int[][] tBoardPos;
+        final int[][] tAlightPos;
+        final int[][] walkFrom;   // round k 에 도보 환승으로 개선됐으면 출발 정류장, 아니면 -1
+        final boolean[] marked;
+        final int[] markedList;
+        final int[] near;
+        final double[] nearDist;
+        final int[] egressSec;
+        final double[] egressM;
+        final int[] queuePos;
+        final int[] queue;
+        final int[] improved;
+
+        Workspace(int rounds, int n, int patterns) {
+            arr = new int[rounds][n];
+            transitArr = new int[rounds][n];
+            tPattern = new int[rounds][n];
+            tTrip = new int[rounds][n];
+            tBoardPos = new int[rounds][n];
+            tAlightPos = new int[rounds][n];
+            walkFrom = new int[rounds][n];
+            marked = new boolean[n];
+            markedList = new int[n];
+            near = new int[n];
+            nearDist = new double[n];
+            egressSec = new int[n];
+            egressM = new double[n];
+            queuePos = new int[patterns];
+            queue = new int[patterns];
+            improved = new int[n];
+        }
+
+        /** 이전 질의 값 지우기 (tTrip/tBoardPos/tAlightPos 는 tPattern >= 0 일 때만 읽으므로 그대로 둔다) */
+        void reset() {
+            for (int k = 0; k < arr.length; k++) {
+                Arrays.fill(arr[k], INF);
+                Arrays.fill(transitArr[k], INF);
+                Arrays.fill(tPattern[k], -1);
+                Arrays.fill(walkFrom[k], -1);
+            }
+            Arrays.fill(marked, false);
+            Arrays.fill(egressSec, INF);
+            Arrays.fill(queuePos, -1);
+        }
+    }
+
+    public RaptorTimetable timetable() {
+        return tt;
+    }
+
+    private int walkSec(double meters) {
+        return (int) Math.ceil(meters / walkSpeedMps);
+    }
+
+    /**
+     * 달력 없이 (모든 trip 운행) 탐색
+     */
+    public RaptorJourney route(double originLat, double originLon, double destLat, double destLon, int departSec) {
+        return route(originLat, originLon, destLat, destLon, departSec, null);
+    }
+
+    /**
+     * @param departSec      출발 시각 (서비스일 자정 기준 초)
+     * @param activeServices 그 서비스일에 운행하는 service (RaptorTimetable.activeServices), null 이면 모두 운행
+     * @return 도착할 수 없으면 null
+     */
+    public RaptorJourney route(double originLat, double originLon, double destLat, double destLon, int departSec,
+                               boolean[] activeServices) {
+        int n = tt.stopCount();
+        int rounds = maxRounds + 1;
+
+        Workspace w = workspaces.get();
+        w.reset();
+        int[][] arr = w.arr;
+        int[][] transitArr = w.transitArr;
+        int[][] tPattern = w.tPattern;
+        int[][] tTrip = w.tTrip;
+        int[][] tBoardPos = w.tBoardPos;
+        int[][] tAlightPos = w.tAlightPos;
+        int[][] walkFrom = w.walkFrom;
+
+        boolean[] marked = w.marked;
+        int[] markedList = w.markedList;
+        int markedCount = 0;
+
+        // 출발지 → 주변 정류장 (round 0)
+        int[] near = w.near;
+        double[] nearDist = w.nearDist;
+        int access = tt.nearbyStops(originLat, originLon, accessRadiusM, near, nearDist);
+        for (int i = 0; i < access; i++) {
+            int s = near[i];
+            arr[0][s] = departSec + walkSec(nearDist[i]);
+            if (!marked[s]) {
+                marked[s] = true;
+                markedList[markedCount++] = s;
+            }
+        }
+
+        // 주변 정류장 → 목적지
+        int[] egressSec = w.egressSec;
+        double[] egressM = w.egressM;
+        int egress = tt.nearbyStops(destLat, destLon, accessRadiusM, near, nearDist);
+        int[] egressStops = Arrays.copyOf(near, egress);
+        for (int i = 0; i < egress; i++) {
+            egressSec[near[i]] = walkSec(nearDist[i]);
+            egressM[near[i]] = nearDist[i];
+        }
+
+        // 걸어서만 가는 경우
+        double directM = GeoUtils.haversine(originLat, originLon, destLat, destLon);
+        int targetBest = (directM <= accessRadiusM) ? departSec + walkSec(directM) : INF;
+        int targetRound = -1;
+        int targetStop = -1;
+
+        int[] queuePos = w.queuePos;
+        int[] queue = w.queue;
+        int[] improved = w.improved;
+
+        for (int k = 1; k < rounds && markedCount > 0; k++) {
+            System.arraycopy(arr[k - 1], 0, arr[k], 0, n);
+
+            // 1) 개선된 정류장을 지나는 pattern 과 가장 앞선 위치
+            int queued = 0;
+            for (int m = 0; m < markedCount; m++) {
+                int s = markedList[m];
+                marked[s] = false;
+                for (int j = tt.stopPatternStart[s]; j < tt.stopPatternStart[s + 1]; j++) {
+                    int p = tt.stopPatterns[j];
+                    int pos = positionOf(p, s);
+                    if (queuePos[p] < 0) {
+                        queue[queued++] = p;
+                        queuePos[p] = pos;
+                    } else if (pos < queuePos[p]) {
+                        queuePos[p] = pos;
+                    }
+                }
+            }
+            markedCount = 0;
+
+            // 2) pattern 훑기
+            // 최소 환승 시간은 앞 round 에 차량/환승으로 도착한 정류장에만 (출발지에서 걸어온 값이 그대로 복사된 정류장은 제외)
+            int improvedCount = 0;
+            for (int q = 0; q < queued; q++) {
+                int p = queue[q];
+                int len = tt.patternLength[p];
+                int trip = -1;
+                int boardPos = -1;
+                for (int pos = queuePos[p]; pos < len; pos++) {
+                    int s = tt.stopAt(p, pos);
+
+                    if (trip >= 0) {
+                        int a = tt.arrival(p, trip, pos);
+                        if (a < arr[k][s] && a < targetBest) {
+                            arr[k][s] = a;
+                            transitArr[k][s] = a;
+                            tPattern[k][s] = p;
+                            tTrip[k][s] = trip;
+                            tBoardPos[k][s] = boardPos;
+                            tAlightPos[k][s] = pos;
+                            if (!marked[s]) {
+                                marked[s] = true;
+                                markedList[markedCount++] = s;
+                                improved[improvedCount++] = s;
+                            }
+                        }
+                    }
+
+                    int prev = arr[k - 1][s];
+                    int slack = (k > 1 && prev != arr[0][s]) ? minTransferSec : 0;
+                    if (prev < INF && (trip < 0 || prev + slack <= tt.departure(p, trip, pos))) {
+                        int t = earliestTrip(p, pos, prev + slack, trip < 0 ? tt.patternTripCount[p] : trip + 1,
+                                activeServices);
+                        if (t >= 0 && t != trip) {
+                            trip = t;
+                            boardPos = pos;
+                        }
+                    }
+                }
+                queuePos[p] = -1;
+            }
+
+            // 3) 도보 환승 (이번 round 에 차량으로 도착한 정류장에서만)
+            for (int i = 0; i < improvedCount; i++) {
+                int s = improved[i];
+                int from = transitArr[k][s];
+                for (int j = tt.transferStart[s]; j < tt.transferStart[s + 1]; j++) {
+                    int u = tt.transferTarget[j];
+                    int t = from + tt.transferSec[j];
+                    if (t < arr[k][u] && t < targetBest) {
+                        arr[k][u] = t;
+                        walkFrom[k][u] = s;
+                        if (!marked[u]) {
+                            marked[u] = true;
+                            markedList[markedCount++] = u;
+                        }
+                    }
+                }
+            }
+
+            // 4) 목적지 도착 갱신 (이번 round 에 개선된 정류장만 — 앞 round 값은 그때 이미 반영됐다)
+            for (int e : egressStops) {
+                if (arr[k][e] >= INF || (tPattern[k][e] < 0 && walkFrom[k][e] < 0)) continue;
+                int t = arr[k][e] + egressSec[e];
+                if (t < targetBest) {
+                    targetBest = t;
+                    targetRound = k;
+                    targetStop = e;
+                }
+            }
+        }
+
+        if (targetBest >= INF) return null;
+        if (targetRound < 0) {
+            // 걸어서 가는 게 가장 빠름
+            return new RaptorJourney(originLat, originLon, destLat, destLon, departSec, targetBest,
+                    List.of(RaptorJourney.Leg.walk(-1, -1, departSec, targetBest, directM)));
+        }
+
+        // 5) 역추적
+        List<RaptorJourney.Leg> legs = new ArrayList<>();
+        legs.add(RaptorJourney.Leg.walk(targetStop, -1, arr[targetRound][targetStop], targetBest, egressM[targetStop]));
+        int k = targetRound;
+        int s = targetStop;
+        while (k > 0) {
+            // (k, s) 는 round k 에 개선된 정류장: 도보 환승으로 왔으면 그 출발 정류장은 같은 round 에 차량으로 도착한 곳
+            int from = walkFrom[k][s];
+            if (from >= 0) {
+                double m = GeoUtils.haversine(tt.stopLat[from], tt.stopLon[from], tt.stopLat[s], tt.stopLon[s]);
+                legs.add(RaptorJourney.Leg.walk(from, s, transitArr[k][from], arr[k][s], m));
+                s = from;
+            }
+            int p = tPattern[k][s];
+            int trip = tTrip[k][s];
+            int bp = tBoardPos[k][s];
+            int board = tt.stopAt(p, bp);
+            legs.add(RaptorJourney.Leg.transit(board, s, tt.departure(p, trip, bp), transitArr[k][s],
+                    p, trip, bp, tAlightPos[k][s]));
+            s = board;
+            k--;
+            // 이 round 에서 개선되지 않은 정류장이면 앞 round 값이 그대로 복사된 것
+            while (k > 0 && arr[k][s] == arr[k - 1][s]) k--;
+        }
+
+        // 출발지 → 첫 정류장: 첫 차량 출발에 맞춰 늦게 출발 (대기 시간을 총 소요 시간에 넣지 않음)
+        double accessM = GeoUtils.haversine(originLat, originLon, tt.stopLat[s], tt.stopLon[s]);
+        int firstBoard = legs.get(legs.size() - 1).departSec();
+        int leave = Math.max(departSec, firstBoard - walkSec(accessM));
+        legs.add(RaptorJourney.Leg.walk(-1, s, leave, leave + walkSec(accessM), accessM));
+
+        Collections.reverse(legs);
+        return new RaptorJourney(originLat, originLon, destLat, destLon, leave, targetBest, List.copyOf(legs));
+    }
+
+    private int positionOf(int pattern, int stop) {
+        int start = tt.patternStopStart[pattern];
+        int len = tt.patternLength[pattern];
+        for (int i = 0; i < len; i++) {
+            if (tt.patternStops[start + i] == stop) return i;
+        }
+        return len;
+    }
+
+    /**
+     * pos 에서 readySec 이후 출발하는 가장 이른 운행 trip (trip 은 출발 시각 순)
+     * — upper 미만에서 이분 탐색 후, 그날 운행하지 않는 trip 은 건너뛴다
+     */
+    private int earliestTrip(int pattern, int pos, int readySec, int upper, boolean[] activeServices) {
+        int lo = 0;
+        int hi = upper;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (tt.departure(pattern, mid, pos) >= readySec) hi = mid;
+            else lo = mid + 1;
+        }
+        while (lo < upper && !tt.runs(activeServices, pattern, lo)) lo++;
+        return (lo < upper) ? lo : -1;
+    }
+}
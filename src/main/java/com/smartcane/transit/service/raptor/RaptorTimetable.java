@@ -0,0 +1,219 @@
+package com.smartcane.transit.service.raptor;
+
+import com.smartcane.transit.util.GeoUtils;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * RAPTOR 탐색용 시간표 (GTFS 를 원시 배열로 압축한 것, 불변)
+ *
+ * - stop    : 정류장 좌표/이름 (인덱스 0..stopCount-1)
+ * - pattern : 정류장 순서가 같은 trip 묶음 (GTFS route 하나가 여러 pattern 이 될 수 있음)
+ *             patternStops[patternStopStart[p] .. +patternLength[p]) = 정류장 순서
+ *             시각은 trip 단위로 이어 붙인다: arrivals[patternTimeStart[p] + trip * len + pos]
+ *             trip 은 첫 정류장 출발 시각 순 (추월 없음 가정)
+ * - stop → pattern, stop → 도보 환승 은 CSR(offset + 목록) 형태
+ * 시각은 모두 "서비스일 자정 기준 초" (GTFS 처럼 24시를 넘을 수 있음)
+ * - trip 별 service: tripService[patternTripStart[p] + trip], 날짜별 운행 여부는 ServiceCalendar (없으면 매일 운행)
+ */
+public final class RaptorTimetable {
+
+    final String[] stopId;
+    final String[] stopName;
+    final double[] stopLat;
+    final double[] stopLon;
+
+    final int[] patternStopStart;
+    final int[] patternLength;
+    final int[] patternStops;
+    final int[] patternTripCount;
+    final int[] patternTimeStart;
+    final int[] patternRoute;
+    final int[] arrivals;
+    final int[] departures;
+
+    final String[] routeId;
+    final String[] routeName;
+    final int[] routeType;
+
+    final int[] stopPatternStart;
+    final int[] stopPatterns;
+
+    final int[] transferStart;
+    final int[] transferTarget;
+    final int[] transferSec;
+    final double[] transferM;
+
+    final int[] patternTripStart;
+    final int[] tripService;
+    private final ServiceCalendar calendar;
+
+    /** 가장 늦은 도착/출발 시각 (24시를 넘는 trip 이 있으면 86400 이상) */
+    private final int maxTimeSec;
+
+    // 위도 순 정류장 (접근 구간 반경 검색용)
+    private final int[] stopsByLat;
+    private final double[] sortedLat;
+
+    // 피드가 덮는 범위 (정류장 좌표 bbox)
+    private final double minLat, maxLat, minLon, maxLon;
+
+    RaptorTimetable(String[] stopId, String[] stopName, double[] stopLat, double[] stopLon,
+                    int[] patternStopStart, int[] patternLength, int[] patternStops,
+                    int[] patternTripCount, int[] patternTimeStart, int[] patternRoute,
+                    int[] arrivals, int[] departures,
+                    String[] routeId, String[] routeName, int[] routeType,
+                    int[] stopPatternStart, int[] stopPatterns,
+                    int[] transferStart, int[] transferTarget, int[] transferSec, double[] transferM) {
+        this(stopId, stopName, stopLat, stopLon,
+                patternStopStart, patternLength, patternStops, patternTripCount, patternTimeStart, patternRoute,
+                arrivals, departures, routeId, routeName, routeType, stopPatternStart, stopPatterns,
+                transferStart, transferTarget, transferSec, transferM, null, null);
+    }
+
+    RaptorTimetable(String[] stopId, String[] stopName, double[] stopLat, double[] stopLon,
+                    int[] patternStopStart, int[] patternLength, int[] patternStops,
+                    int[] patternTripCount, int[] patternTimeStart, int[] patternRoute,
+                    int[] arrivals, int[] departures,
+                    String[] routeId, String[] routeName, int[] routeType,
+                    int[] stopPatternStart, int[] stopPatterns,
+                    int[] transferStart, int[] transferTarget, int[] transferSec, double[] transferM,
+                    int[] tripService, ServiceCalendar calendar) {
+        this.stopId = stopId;
+        this.stopName = stopName;
+        this.stopLat = stopLat;
+        this.stopLon = stopLon;
+        this.patternStopStart = patternStopStart;
+        this.patternLength = patternLength;
+        this.patternStops = patternStops;
+        this.patternTripCount = patternTripCount;
+        this.patternTimeStart = patternTimeStart;
+        this.patternRoute = patternRoute;
+        this.arrivals = arrivals;
+        this.departures = departures;
+        this.routeId = routeId;
+        this.routeName = routeName;
+        this.routeType = routeType;
+        this.stopPatternStart = stopPatternStart;
+        this.stopPatterns = stopPatterns;
+        this.transferStart = transferStart;
+        this.transferTarget = transferTarget;
+        this.transferSec = transferSec;
+        this.transferM = transferM;
+        this.calendar = calendar;
+
+        this.patternTripStart = new int[patternTripCount.length];
+        int trips = 0;
+        for (int p = 0; p < patternTripCount.length; p++) {
+            patternTripStart[p] = trips;
+            trips += patternTripCount[p];
+        }
+        this.tripService = (tripService != null) ? tripService : new int[trips];
+
+        int maxTime = 0;
+        for (int t : arrivals) maxTime = Math.max(maxTime, t);
+        for (int t : departures) maxTime = Math.max(maxTime, t);
+        this.maxTimeSec = maxTime;
+
+        double aLat = Double.POSITIVE_INFINITY, bLat = Double.NEGATIVE_INFINITY;
+        double aLon = Double.POSITIVE_INFINITY, bLon = Double.NEGATIVE_INFINITY;
+        for (int s = 0; s < stopLat.length; s++) {
+            aLat = Math.min(aLat, stopLat[s]);
+            bLat = Math.max(bLat, stopLat[s]);
+            aLon = Math.min(aLon, stopLon[s]);
+            bLon = Math.max(bLon, stopLon[s]);
+        }
+        Integer[] order = new Integer[stopLat.length];
+        for (int s = 0; s < order.length; s++) order[s] = s;
+        Arrays.sort(order, (a, b) -> Double.compare(stopLat[a], stopLat[b]));
+        this.stopsByLat = new int[order.length];
+        this.sortedLat = new double[order.length];
+        for (int i = 0; i < order.length; i++) {
+            stopsByLat[i] = order[i];
+            sortedLat[i] = stopLat[order[i]];
+        }
+
+        this.minLat = aLat;
+        this.maxLat = bLat;
+        this.minLon = aLon;
+        this.maxLon = bLon;
+    }
+
+    public int stopCount() {
+        return stopId.length;
+    }
+
+    public int maxTimeSec() {
+        return maxTimeSec;
+    }
+
+    public int patternCount() {
+        return patternLength.length;
+    }
+
+    public int tripCount() {
+        int n = 0;
+        for (int c : patternTripCount) n += c;
+        return n;
+    }
+
+    /**
+     * 그 서비스일에 운행하는 service 표시 (null = 달력 없음, 모든 trip 운행)
+     */
+    public boolean[] activeServices(LocalDate serviceDate) {
+        return (calendar != null) ? calendar.activeOn(serviceDate) : null;
+    }
+
+    boolean runs(boolean[] activeServices, int pattern, int trip) {
+        return activeServices == null || activeServices[tripService[patternTripStart[pattern] + trip]];
+    }
+
+    int stopAt(int pattern, int pos) {
+        return patternStops[patternStopStart[pattern] + pos];
+    }
+
+    int arrival(int pattern, int trip, int pos) {
+        return arrivals[patternTimeStart[pattern] + trip * patternLength[pattern] + pos];
+    }
+
+    int departure(int pattern, int trip, int pos) {
+        return departures[patternTimeStart[pattern] + trip * patternLength[pattern] + pos];
+    }
+
+    /**
+     * 피드 범위(bbox) 안인지 — marginM 만큼 바깥까지 허용
+     */
+    public boolean covers(double lat, double lon, double marginM) {
+        if (stopLat.length == 0) return false;
+        double dLat = marginM / 111_320.0;
+        double dLon = marginM / (111_320.0 * Math.max(0.1, Math.cos(Math.toRadians(lat))));
+        return lat >= minLat - dLat && lat <= maxLat + dLat
+                && lon >= minLon - dLon && lon <= maxLon + dLon;
+    }
+
+    /**
+     * 반경 안의 정류장과 거리(m) — 출발/도착 접근 구간용
+     * 위도 순 배열에서 [lat - dLat, lat + dLat] 구간만 이분 탐색으로 찾아 훑는다
+     */
+    int nearbyStops(double lat, double lon, double radiusM, int[] outStops, double[] outDist) {
+        double dLat = radiusM / 111_320.0;
+        int lo = 0, hi = sortedLat.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sortedLat[mid] < lat - dLat) lo = mid + 1;
+            else hi = mid;
+        }
+        int n = 0;
+        for (int i = lo; i < sortedLat.length && sortedLat[i] <= lat + dLat && n < outStops.length; i++) {
+            int s = stopsByLat[i];
+            double d = GeoUtils.haversine(lat, lon, stopLat[s], stopLon[s]);
+            if (d <= radiusM) {
+                outStops[n] = s;
+                outDist[n] = d;
+                n++;
+            }
+        }
+        return n;
+    }
+}
@@ -0,0 +1,62 @@
+package com.smartcane.transit.service.raptor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * GTFS 운행 달력 (calendar.txt + calendar_dates.txt)
+ *
+ * - service 는 0..serviceCount-1 인덱스로 부르고, trip 마다 service 인덱스를 RaptorTimetable 이 들고 있다
+ * - calendar: 요일 비트(월=bit0 … 일=bit6) + 시작/종료일(yyyyMMdd 정수)
+ * - calendar_dates: 날짜별 예외 (추가/제외) — 요일 규칙보다 우선
+ * - 두 파일 어디에도 없는 service 는 운행하지 않는 것으로 본다 (GTFS 규칙)
+ */
+public final class ServiceCalendar {
+
+    private final String[] serviceId;
+    private final int[] weekdayMask;
+    private final int[] startDate;
+    private final int[] endDate;
+    /** (service << 32 | yyyyMMdd) → true = 추가, false = 제외 */
+    private final Map<Long, Boolean> exceptions;
+
+    ServiceCalendar(String[] serviceId, int[] weekdayMask, int[] startDate, int[] endDate,
+                    Map<Long, Boolean> exceptions) {
+        this.serviceId = serviceId;
+        this.weekdayMask = weekdayMask;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.exceptions = exceptions;
+    }
+
+    public int serviceCount() {
+        return serviceId.length;
+    }
+
+    static long exceptionKey(int service, int yyyymmdd) {
+        return ((long) service << 32) | yyyymmdd;
+    }
+
+    static int dateKey(LocalDate date) {
+        return date.getYear() * 10_000 + date.getMonthValue() * 100 + date.getDayOfMonth();
+    }
+
+    /**
+     * 그 날짜에 운행하는 service 표시 (인덱스 = service)
+     */
+    public boolean[] activeOn(LocalDate date) {
+        int day = dateKey(date);
+        int bit = 1 << (date.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue());
+        boolean[] active = new boolean[serviceId.length];
+        for (int s = 0; s < active.length; s++) {
+            Boolean exception = exceptions.get(exceptionKey(s, day));
+            if (exception != null) {
+                active[s] = exception;
+            } else {
+                active[s] = (weekdayMask[s] & bit) != 0 && day >= startDate[s] && day <= endDate[s];
+            }
+        }
+        return active;
+    }
+}
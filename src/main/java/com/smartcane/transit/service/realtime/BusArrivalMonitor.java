@@ -0,0 +1,159 @@
+package com.smartcane.transit.service.realtime;
+
+import com.smartcane.transit.config.RealtimeProperties;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.dto.response.TripPushMessage;
+import com.smartcane.transit.service.BusStationService;
+import com.smartcane.transit.service.GuidanceTextGenerator;
+import com.smartcane.transit.service.RealTimeBusService;
+import com.smartcane.transit.service.RealTimeBusService.BusArrivalInfo;
+import com.smartcane.transit.service.TripState;
+import com.smartcane.transit.service.TripStore;
+import com.smartcane.transit.service.state.TripPhase;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 버스 도착 정보 모니터
+ *
+ * - lookup : 진행 응답에서 사용. 같은 trip/leg 의 최근 조회 결과가 신선하면 원격 호출 없이 재사용
+ * - poll   : 실시간 채널이 열린 trip 중 정류장 대기(WAITING_TRANSIT) 상태인 것만 주기적으로 조회하고,
+ *            도착 정보가 바뀌었으면 바로 푸시 (클라이언트 업링크를 기다리지 않음)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BusArrivalMonitor {
+
+    private final RealtimeProperties props;
+    private final TripStore tripStore;
+    private final TripUpdateBroadcaster broadcaster;
+    private final BusStationService busStationService;
+    private final RealTimeBusService realTimeBusService;
+    private final GuidanceTextGenerator guidanceTextGenerator;
+
+    /** tripId → 마지막 조회 결과 (info 는 null 가능: "정보 없음"도 캐시) */
+    private final Map<String, Snapshot> latest = new ConcurrentHashMap<>();
+
+    /** routeNo 도 함께 비교: 후보 경로 전환/재탐색으로 같은 leg 번호에 다른 노선이 올 수 있다 */
+    private record Snapshot(int legIndex, String routeNo, BusArrivalInfo info, long fetchedAtMs) {
+        boolean isFresh(int legIdx, String route, long ttlMs, long now) {
+            return legIndex == legIdx && Objects.equals(routeNo, route) && now - fetchedAtMs < ttlMs;
+        }
+    }
+
+    /**
+     * SK 노선명에서 공공데이터 노선 번호 추출
+     * 예: "간선:매월26" → "매월26"
+     */
+    public static String routeNo(SkTransitRootDto.LegDto leg) {
+        String full = (leg != null && leg.route() != null) ? leg.route() : "";
+        return full.contains(":") ? full.substring(full.indexOf(":") + 1) : full;
+    }
+
+    /**
+     * 현재 leg 의 버스 도착 정보 (캐시 우선, 없으면 원격 조회 후 캐시 — Blocking)
+     */
+    public BusArrivalInfo lookup(String tripId, int legIndex, SkTransitRootDto.LegDto leg) {
+        long now = System.currentTimeMillis();
+        String route = routeNo(leg);
+        Snapshot cached = latest.get(tripId);
+        if (cached != null && cached.isFresh(legIndex, route, props.getArrivalCacheTtlSec() * 1000L, now)) {
+            return cached.info();
+        }
+        BusArrivalInfo info = fetch(leg).block();
+        latest.put(tripId, new Snapshot(legIndex, route, info, System.currentTimeMillis()));
+        return info;
+    }
+
+    /** 좌표 → 정류장 → 노선별 도착 정보 */
+    private Mono<BusArrivalInfo> fetch(SkTransitRootDto.LegDto leg) {
+        String targetRouteNo = routeNo(leg);
+        Double startLat = (leg.start() != null) ? leg.start().lat() : null;
+        Double startLon = (leg.start() != null) ? leg.start().lon() : null;
+        if (startLat == null || startLon == null || targetRouteNo.isBlank()) {
+            return Mono.empty();
+        }
+        return busStationService.findNearestStation(startLat, startLon)
+                .flatMap(station -> realTimeBusService
+                        .getArrivalInfo(station.cityCode(), station.nodeId(), targetRouteNo));
+    }
+
+    // ------------------------------------------------------------------
+    // 폴링 + 푸시
+    // ------------------------------------------------------------------
+
+    @Scheduled(fixedDelayString = "${smartcane.realtime.arrival-poll-ms:15000}")
+    public void poll() {
+        Set<String> trips = broadcaster.activeTrips();
+
+        // 오래된 캐시 정리 (구독이 끊긴 trip 포함)
+        long staleBefore = System.currentTimeMillis() - props.getArrivalCacheTtlSec() * 1000L * 10;
+        latest.entrySet().removeIf(e -> e.getValue().fetchedAtMs() < staleBefore);
+
+        if (trips.isEmpty()) return;
+
+        Flux.fromIterable(trips)
+                .flatMap(this::pollTrip, Math.max(1, props.getArrivalPollConcurrency()))
+                .blockLast();
+    }
+
+    private Mono<Void> pollTrip(String tripId) {
+        TripState state = tripStore.load(tripId);
+        if (state == null || TripPhase.of(state.getPhase()) != TripPhase.WAITING_TRANSIT) {
+            return Mono.empty();
+        }
+        SkTransitRootDto.LegDto leg = currentLeg(tripStore.loadMeta(tripId), state);
+        if (leg == null) {
+            return Mono.empty();
+        }
+        int legIndex = state.getLegIndex();
+        String routeNo = routeNo(leg);
+
+        return fetch(leg)
+                .doOnNext(info -> {
+                    Snapshot prev = latest.put(tripId, new Snapshot(legIndex, routeNo, info, System.currentTimeMillis()));
+                    if (!changed(prev, legIndex, routeNo, info)) return;
+
+                    String tts = guidanceTextGenerator.arrivalSuffix(state.getLang(), routeNo, info).trim();
+                    broadcaster.publish(tripId, TripPushMessage.busArrival(
+                            tripId, legIndex, state.getPhase(), tts,
+                            routeNo, info.stopsLeft(), info.secondsLeft()));
+                })
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("[ARRIVAL] 폴링 실패 tripId={} : {}", tripId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private static SkTransitRootDto.LegDto currentLeg(SkTransitRootDto.MetaDataDto meta, TripState state) {
+        if (meta == null || meta.plan() == null || meta.plan().itineraries() == null) return null;
+        var itineraries = meta.plan().itineraries();
+        if (state.getItineraryIndex() < 0 || state.getItineraryIndex() >= itineraries.size()) return null;
+        var legs = itineraries.get(state.getItineraryIndex()).legs();
+        if (legs == null || state.getLegIndex() < 0 || state.getLegIndex() >= legs.size()) return null;
+        return legs.get(state.getLegIndex());
+    }
+
+    /** 안내할 만큼 바뀌었는지: 정거장 수 또는 분 단위 남은 시간 */
+    private static boolean changed(Snapshot prev, int legIndex, String routeNo, BusArrivalInfo now) {
+        if (prev == null || prev.info() == null || prev.legIndex() != legIndex) return true;
+        if (!Objects.equals(prev.routeNo(), routeNo)) return true;
+        BusArrivalInfo before = prev.info();
+        if (!Objects.equals(before.stopsLeft(), now.stopsLeft())) return true;
+        Integer m0 = before.secondsLeft() != null ? before.secondsLeft() / 60 : null;
+        Integer m1 = now.secondsLeft() != null ? now.secondsLeft() / 60 : null;
+        if (!Objects.equals(m0, m1)) return true;
+        return m1 == null && !Objects.equals(before.message(), now.message());
+    }
+}
@@ -0,0 +1,29 @@
+package com.smartcane.transit.service.realtime;
+
+import com.smartcane.transit.dto.response.TripPushMessage;
+import com.smartcane.transit.service.state.TripTransition;
+import com.smartcane.transit.service.state.TripTransitionListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * phase 전이 → 구독자(SSE/WebSocket)에게 PHASE_CHANGED 푸시
+ * - 구독자가 없으면 broadcaster 가 바로 0 을 돌려주므로 비용 거의 없음
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PhasePushListener implements TripTransitionListener {
+
+    private final TripUpdateBroadcaster broadcaster;
+
+    @Override
+    public void onTransition(TripTransition t) {
+        int delivered = broadcaster.publish(t.tripId(),
+                TripPushMessage.phaseChanged(t.tripId(), t.legIndex(), t.from().name(), t.to().name()));
+        if (delivered > 0) {
+            log.info("[PUSH] phase {} -> {} tripId={} leg={} ({})", t.from(), t.to(), t.tripId(), t.legIndex(), t.event());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.smartcane.transit.service.realtime;
+
+import com.smartcane.transit.config.RealtimeProperties;
+import com.smartcane.transit.dto.response.TripPushMessage;
+import com.smartcane.transit.service.TripState;
+import com.smartcane.transit.service.TripStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * trip 이벤트 SSE 구독
+ * - 구독 직후 현재 상태(STATE) 1회, 이후 BUS_ARRIVAL / PHASE_CHANGED 를 발생 즉시 전송
+ * - event name = TripPushMessage.type
+ * - 대기 중 클라이언트는 업링크 주기를 늘리고 푸시에 의존할 수 있다
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TripEventStreamService {
+
+    private final RealtimeProperties props;
+    private final TripStore tripStore;
+    private final TripUpdateBroadcaster broadcaster;
+
+    /** heartbeat 용 (emitter → 구독 정보) */
+    private final Map<SseEmitter, Subscription> emitters = new ConcurrentHashMap<>();
+
+    private record Subscription(String tripId, TripSubscriber subscriber) {}
+
+    public SseEmitter subscribe(String tripId) {
+        TripState state = tripStore.load(tripId);
+        if (state == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "trip 이 없습니다. tripId=" + tripId);
+        }
+
+        SseEmitter emitter = new SseEmitter(props.getSseTimeoutMs());
+        TripSubscriber subscriber = message -> send(emitter, message);
+        Subscription subscription = new Subscription(tripId, subscriber);
+
+        Runnable cleanup = () -> {
+            emitters.remove(emitter);
+            broadcaster.unsubscribe(tripId, subscriber);
+        };
+        emitter.onCompletion(cleanup);
+        emitter.onTimeout(cleanup);
+        emitter.onError(e -> cleanup.run());
+
+        // 현재 상태 먼저 보내고 구독 등록
+        if (!send(emitter, TripPushMessage.state(tripId, state.getLegIndex(), state.getPhase()))) {
+            return emitter;
+        }
+        emitters.put(emitter, subscription);
+        broadcaster.subscribe(tripId, subscriber);
+        log.info("[SSE] 구독 tripId={} phase={}", tripId, state.getPhase());
+        return emitter;
+    }
+
+    /** 프록시/ALB idle timeout 으로 끊기지 않도록 주석 이벤트 */
+    @Scheduled(fixedDelayString = "${smartcane.realtime.sse-heartbeat-ms:20000}")
+    public void heartbeat() {
+        emitters.forEach((emitter, sub) -> {
+            try {
+                emitter.send(SseEmitter.event().comment("ping"));
+            } catch (IOException | IllegalStateException e) {
+                emitters.remove(emitter);
+                broadcaster.unsubscribe(sub.tripId(), sub.subscriber());
+            }
+        });
+    }
+
+    private static boolean send(SseEmitter emitter, Object message) {
+        String name = (message instanceof TripPushMessage m) ? m.type() : "message";
+        try {
+            emitter.send(SseEmitter.event().name(name).data(message, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.smartcane.transit.service.realtime;
+
+/**
+ * trip 단위 서버 푸시 수신자 (WebSocket 세션 등)
+ */
+@FunctionalInterface
+public interface TripSubscriber {
+
+    /**
+     * 메시지 전달
+     * @return false 면 더 이상 받을 수 없는 구독자 → 브로드캐스터에서 제거
+     */
+    boolean send(Object message);
+}
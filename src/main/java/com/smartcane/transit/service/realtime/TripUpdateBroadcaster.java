@@ -0,0 +1,66 @@
+package com.smartcane.transit.service.realtime;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * tripId 별 구독자 레지스트리 + 팬아웃
+ * - 실시간 채널이 열려 있는 trip 에만 서버 발 메시지(버스 도착 변화 등)를 보낸다
+ */
+@Slf4j
+@Component
+public class TripUpdateBroadcaster {
+
+    private final Map<String, Set<TripSubscriber>> subscribers = new ConcurrentHashMap<>();
+
+    public void subscribe(String tripId, TripSubscriber subscriber) {
+        subscribers.computeIfAbsent(tripId, k -> new CopyOnWriteArraySet<>()).add(subscriber);
+    }
+
+    public void unsubscribe(String tripId, TripSubscriber subscriber) {
+        subscribers.computeIfPresent(tripId, (k, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /** 구독자가 하나라도 있는 trip 목록 */
+    public Set<String> activeTrips() {
+        return Set.copyOf(subscribers.keySet());
+    }
+
+    public boolean hasSubscribers(String tripId) {
+        return subscribers.containsKey(tripId);
+    }
+
+    /**
+     * trip 의 모든 구독자에게 전달
+     * @return 전달에 성공한 구독자 수
+     */
+    public int publish(String tripId, Object message) {
+        Set<TripSubscriber> set = subscribers.get(tripId);
+        if (set == null) return 0;
+
+        int delivered = 0;
+        for (TripSubscriber s : set) {
+            boolean ok;
+            try {
+                ok = s.send(message);
+            } catch (RuntimeException e) {
+                log.debug("[PUSH] 전송 실패 tripId={} : {}", tripId, e.getMessage());
+                ok = false;
+            }
+            if (ok) {
+                delivered++;
+            } else {
+                unsubscribe(tripId, s);
+            }
+        }
+        return delivered;
+    }
+}
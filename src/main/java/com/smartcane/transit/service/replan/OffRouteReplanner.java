@@ -0,0 +1,200 @@
+package com.smartcane.transit.service.replan;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.request.RoutePlanRequest;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.RouteService;
+import com.smartcane.transit.service.guidance.phrase.PhraseCatalog;
+import com.smartcane.transit.service.state.LegMode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 경로 이탈 자동 재탐색
+ *
+ * - 진행 처리에서 연속 이탈이 확인되면 request() 로 SK 길찾기를 비동기 호출한다
+ *   (현재 위치 → trip 최종 목적지, trip 당 동시에 1건)
+ * - 결과는 splice 된 itinerary 로 만들어 보관만 하고, 적용은 다음 진행 샘플에서 ProgressCoordinator 가 한다
+ *   (상태 로드/저장 사이클 안에서 바꿔야 진행 처리와 섞이지 않으므로)
+ * - splice: [이미 지난 leg] + [새 경로의 앞부분] + [기존 경로와 같은 뒷부분(기존 LegDto 그대로)]
+ *   → 뒷부분은 지오메트리도 재사용된다 (TripGeometryCache.splice)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OffRouteReplanner {
+
+    /** 같은 leg 로 볼 출발/도착 좌표 허용 오차 (도) ≈ 30m */
+    private static final double SAME_PLACE_DEG = 0.0003;
+
+    private final RouteService routeService;
+    private final GuidanceProperties props;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<String, Replan> ready = new ConcurrentHashMap<>();
+
+    /**
+     * 재탐색 결과
+     * @param itineraryIndex / legIndex 요청 당시 위치 (적용 시점에 달라졌으면 버린다)
+     * @param planRevision   요청 당시 TripState.planRevision (그 사이 경로가 교체됐으면 버린다)
+     * @param previous       요청 당시 itinerary
+     * @param spliced        교체할 itinerary (legIndex 부터 새 경로)
+     * @param keptLegs       뒷부분에서 기존 leg 를 그대로 쓴 개수
+     */
+    public record Replan(
+            int itineraryIndex,
+            int legIndex,
+            int planRevision,
+            SkTransitRootDto.ItineraryDto previous,
+            SkTransitRootDto.ItineraryDto spliced,
+            int keptLegs
+    ) {}
+
+    /**
+     * 재탐색 요청 (이미 진행 중이면 무시)
+     * @return 새로 요청했으면 true
+     */
+    public boolean request(String tripId, String lang, String profile,
+                           int itineraryIndex, int legIndex, int planRevision,
+                           SkTransitRootDto.ItineraryDto itinerary,
+                           double lat, double lon) {
+        SkTransitRootDto.PlaceDto destination = destinationOf(itinerary);
+        if (destination == null || !inFlight.add(tripId)) {
+            return false;
+        }
+        ready.remove(tripId);
+
+        RoutePlanRequest query = new RoutePlanRequest(
+                String.valueOf(lon), String.valueOf(lat),
+                String.valueOf(destination.lon()), String.valueOf(destination.lat()),
+                PhraseCatalog.LANG_EN.equals(lang) ? 1 : 0,
+                "json",
+                null,
+                null,
+                profile
+        );
+        log.info("[Replan] 요청 tripId={} it={} leg={} from=({}, {})", tripId, itineraryIndex, legIndex, lat, lon);
+
+        routeService.searchRoutes(query)
+                .timeout(Duration.ofSeconds(Math.max(1, props.getReplanTimeoutSec())))
+                .doFinally(sig -> inFlight.remove(tripId))
+                .subscribe(
+                        root -> {
+                            SkTransitRootDto.ItineraryDto fresh = firstItinerary(root);
+                            if (fresh == null) {
+                                log.warn("[Replan] 새 경로 없음 tripId={}", tripId);
+                                return;
+                            }
+                            Replan replan = splice(itineraryIndex, legIndex, planRevision, itinerary, fresh);
+                            ready.put(tripId, replan);
+                            log.info("[Replan] 준비 완료 tripId={} legs {} -> {} (재사용 {})", tripId,
+                                    itinerary.legs().size(), replan.spliced().legs().size(), replan.keptLegs());
+                        },
+                        e -> log.warn("[Replan] 실패 tripId={} : {}", tripId, e.getMessage())
+                );
+        return true;
+    }
+
+    /** 준비된 재탐색 결과를 꺼낸다 (없으면 null) */
+    public Replan poll(String tripId) {
+        return ready.remove(tripId);
+    }
+
+    public boolean isInFlight(String tripId) {
+        return inFlight.contains(tripId);
+    }
+
+    /**
+     * [0, legIndex) 는 기존 그대로, legIndex 부터는 새 경로.
+     * 새 경로 뒷부분이 기존 경로 뒷부분과 같은 leg 면 기존 LegDto 를 그대로 둔다.
+     * (새 경로 첫 leg 와 기존의 현재 leg 는 재사용 대상에서 제외)
+     */
+    static Replan splice(int itineraryIndex, int legIndex, int planRevision,
+                         SkTransitRootDto.ItineraryDto previous,
+                         SkTransitRootDto.ItineraryDto fresh) {
+        List<SkTransitRootDto.LegDto> oldLegs = previous.legs();
+        List<SkTransitRootDto.LegDto> newLegs = fresh.legs();
+
+        int oldRemaining = oldLegs.size() - legIndex;
+        int maxKeep = Math.min(newLegs.size() - 1, oldRemaining - 1);
+        int kept = 0;
+        while (kept < maxKeep
+                && sameLeg(oldLegs.get(oldLegs.size() - 1 - kept), newLegs.get(newLegs.size() - 1 - kept))) {
+            kept++;
+        }
+
+        List<SkTransitRootDto.LegDto> legs = new ArrayList<>(legIndex + newLegs.size());
+        legs.addAll(oldLegs.subList(0, legIndex));
+        legs.addAll(newLegs.subList(0, newLegs.size() - kept));
+        legs.addAll(oldLegs.subList(oldLegs.size() - kept, oldLegs.size()));
+
+        int totalTime = 0, totalDistance = 0, walkTime = 0, walkDistance = 0;
+        for (SkTransitRootDto.LegDto leg : legs) {
+            int t = (leg.sectionTime() != null) ? leg.sectionTime() : 0;
+            int d = (leg.distance() != null) ? leg.distance() : 0;
+            totalTime += t;
+            totalDistance += d;
+            if (LegMode.of(leg.mode()).isWalk()) {
+                walkTime += t;
+                walkDistance += d;
+            }
+        }
+
+        SkTransitRootDto.ItineraryDto spliced = new SkTransitRootDto.ItineraryDto(
+                fresh.fare(),
+                totalTime,
+                totalDistance,
+                walkTime,
+                walkDistance,
+                fresh.transferCount(),
+                fresh.pathType(),
+                List.copyOf(legs)
+        );
+        return new Replan(itineraryIndex, legIndex, planRevision, previous, spliced, kept);
+    }
+
+    /** 메타의 itineraryIndex 번째 itinerary 만 교체한 새 메타 */
+    public static SkTransitRootDto.MetaDataDto withItinerary(SkTransitRootDto.MetaDataDto meta, int itineraryIndex,
+                                                             SkTransitRootDto.ItineraryDto itinerary) {
+        List<SkTransitRootDto.ItineraryDto> its = new ArrayList<>(meta.plan().itineraries());
+        its.set(itineraryIndex, itinerary);
+        return new SkTransitRootDto.MetaDataDto(meta.requestParameters(), new SkTransitRootDto.PlanDto(its));
+    }
+
+    private static boolean sameLeg(SkTransitRootDto.LegDto a, SkTransitRootDto.LegDto b) {
+        return LegMode.of(a.mode()) == LegMode.of(b.mode())
+                && Objects.equals(a.route(), b.route())
+                && samePlace(a.start(), b.start())
+                && samePlace(a.end(), b.end());
+    }
+
+    private static boolean samePlace(SkTransitRootDto.PlaceDto a, SkTransitRootDto.PlaceDto b) {
+        if (a == null || b == null || a.lat() == null || a.lon() == null || b.lat() == null || b.lon() == null) {
+            return false;
+        }
+        return Math.abs(a.lat() - b.lat()) <= SAME_PLACE_DEG && Math.abs(a.lon() - b.lon()) <= SAME_PLACE_DEG;
+    }
+
+    private static SkTransitRootDto.PlaceDto destinationOf(SkTransitRootDto.ItineraryDto itinerary) {
+        if (itinerary == null || itinerary.legs() == null || itinerary.legs().isEmpty()) return null;
+        SkTransitRootDto.PlaceDto end = itinerary.legs().get(itinerary.legs().size() - 1).end();
+        return (end != null && end.lat() != null && end.lon() != null) ? end : null;
+    }
+
+    private static SkTransitRootDto.ItineraryDto firstItinerary(SkTransitRootDto root) {
+        if (root == null || root.metaData() == null || root.metaData().plan() == null) return null;
+        List<SkTransitRootDto.ItineraryDto> its = root.metaData().plan().itineraries();
+        if (its == null || its.isEmpty()) return null;
+        SkTransitRootDto.ItineraryDto it = its.get(0);
+        return (it.legs() != null && !it.legs().isEmpty()) ? it : null;
+    }
+}
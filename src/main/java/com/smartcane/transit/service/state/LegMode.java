@@ -0,0 +1,30 @@
+package com.smartcane.transit.service.state;
+
+/**
+ * leg 이동 수단
+ * - SK 응답의 mode 문자열은 컴파일 시점(LegGeometry)에 한 번만 해석한다
+ */
+public enum LegMode {
+    WALK,
+    BUS,
+    SUBWAY,
+    /** 고속/시외버스, 기차, 항공, 해운 등 — 대중교통으로 취급 */
+    OTHER_TRANSIT;
+
+    public boolean isWalk() {
+        return this == WALK;
+    }
+
+    public boolean isTransit() {
+        return this != WALK;
+    }
+
+    /** null 은 WALK (기존 동작과 동일), 대소문자 무시 */
+    public static LegMode of(String raw) {
+        if (raw == null || raw.isBlank()) return WALK;
+        if (raw.equalsIgnoreCase("WALK")) return WALK;
+        if (raw.equalsIgnoreCase("BUS")) return BUS;
+        if (raw.equalsIgnoreCase("SUBWAY")) return SUBWAY;
+        return OTHER_TRANSIT;
+    }
+}
@@ -0,0 +1,40 @@
+package com.smartcane.transit.service.state;
+
+/**
+ * 상태 전이 입력
+ * - 도착 판정/속도 등 진행 업링크에서 파생되는 것과, 클라이언트 /event 로 들어오는 것이 있다
+ */
+public enum TripEvent {
+
+    // --- 진행 업링크(도착 판정) ---
+    /** 도착 판정으로 WALK leg 에 진입 */
+    LEG_ENTERED_WALK,
+    /** 도착 판정으로 대중교통 leg 에 진입 (정류장 대기 시작) */
+    LEG_ENTERED_TRANSIT,
+    /** 대기 중 일정 속도 이상 + 정류장 이탈 → 탑승으로 간주 */
+    DEPARTED_STOP,
+    /** 현재 leg 가 WALK 인데 phase 가 대중교통 쪽에 남아 있는 경우 보정 */
+    SYNC_WALK_LEG,
+    /** 현재 leg 가 대중교통인데 phase 가 WALKING 으로 남아 있는 경우 보정 */
+    SYNC_TRANSIT_LEG,
+
+    // --- 클라이언트 이벤트 (/trips/{tripId}/event) ---
+    BOARD,
+    ALIGHT,
+    TRANSFER_CONFIRMED,
+    ARRIVED,
+    CANCEL;
+
+    /** /event 의 type 문자열 → enum (모르는 값은 null) */
+    public static TripEvent ofClientType(String type) {
+        if (type == null) return null;
+        return switch (type) {
+            case "BOARD" -> BOARD;
+            case "ALIGHT" -> ALIGHT;
+            case "TRANSFER_CONFIRMED" -> TRANSFER_CONFIRMED;
+            case "ARRIVED" -> ARRIVED;
+            case "CANCEL" -> CANCEL;
+            default -> null;
+        };
+    }
+}
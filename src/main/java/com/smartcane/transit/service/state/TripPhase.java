@@ -0,0 +1,36 @@
+package com.smartcane.transit.service.state;
+
+/**
+ * trip 진행 단계
+ * - TripState 에는 호환을 위해 이름 문자열(TripState.PHASE_*)로 저장된다
+ */
+public enum TripPhase {
+    WALKING,
+    WAITING_TRANSIT,
+    ONBOARD,
+    TRANSFER,
+    ARRIVED,
+    CANCELLED;
+
+    /** 더 이상 전이하지 않는 단계 */
+    public boolean isTerminal() {
+        return this == ARRIVED || this == CANCELLED;
+    }
+
+    /**
+     * 저장된 문자열 → enum
+     * - null/빈 값/모르는 값은 WALKING (초기 상태와 같게 취급)
+     */
+    public static TripPhase of(String raw) {
+        if (raw == null || raw.isBlank()) return WALKING;
+        return switch (raw) {
+            case "WALKING" -> WALKING;
+            case "WAITING_TRANSIT" -> WAITING_TRANSIT;
+            case "ONBOARD" -> ONBOARD;
+            case "TRANSFER" -> TRANSFER;
+            case "ARRIVED" -> ARRIVED;
+            case "CANCELLED" -> CANCELLED;
+            default -> WALKING;
+        };
+    }
+}
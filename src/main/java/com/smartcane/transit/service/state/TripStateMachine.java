@@ -0,0 +1,173 @@
+package com.smartcane.transit.service.state;
+
+import com.smartcane.transit.service.TripState;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * trip phase 상태 기계
+ *
+ * - 전이 표(from, event) → to 를 선언적으로 정의하고, 진행 처리/이벤트 API 는 fire() 만 호출한다
+ * - 표에 없는 조합은 무시(현재 phase 유지) → 종료 단계에서 되살아나는 등의 잘못된 전이가 생기지 않는다
+ * - 실제 전이마다 Micrometer 카운터/단계 체류 시간 타이머 기록 + 리스너 호출
+ */
+@Slf4j
+@Component
+public class TripStateMachine {
+
+    private static final Map<TripPhase, Map<TripEvent, TripPhase>> TABLE = new EnumMap<>(TripPhase.class);
+
+    static {
+        on(TripPhase.WALKING)
+                .to(TripEvent.LEG_ENTERED_TRANSIT, TripPhase.WAITING_TRANSIT)
+                .to(TripEvent.SYNC_TRANSIT_LEG, TripPhase.ONBOARD)
+                .to(TripEvent.BOARD, TripPhase.ONBOARD)
+                .to(TripEvent.ALIGHT, TripPhase.TRANSFER)
+                .to(TripEvent.ARRIVED, TripPhase.ARRIVED)
+                .to(TripEvent.CANCEL, TripPhase.CANCELLED);
+
+        on(TripPhase.WAITING_TRANSIT)
+                .to(TripEvent.DEPARTED_STOP, TripPhase.ONBOARD)
+                .to(TripEvent.BOARD, TripPhase.ONBOARD)
+                .to(TripEvent.LEG_ENTERED_WALK, TripPhase.WALKING)
+                .to(TripEvent.SYNC_WALK_LEG, TripPhase.WALKING)
+                .to(TripEvent.TRANSFER_CONFIRMED, TripPhase.WALKING)
+                .to(TripEvent.ALIGHT, TripPhase.TRANSFER)
+                .to(TripEvent.ARRIVED, TripPhase.ARRIVED)
+                .to(TripEvent.CANCEL, TripPhase.CANCELLED);
+
+        on(TripPhase.ONBOARD)
+                .to(TripEvent.LEG_ENTERED_WALK, TripPhase.WALKING)
+                .to(TripEvent.LEG_ENTERED_TRANSIT, TripPhase.WAITING_TRANSIT)
+                .to(TripEvent.SYNC_WALK_LEG, TripPhase.WALKING)
+                .to(TripEvent.ALIGHT, TripPhase.TRANSFER)
+                .to(TripEvent.TRANSFER_CONFIRMED, TripPhase.WALKING)
+                .to(TripEvent.ARRIVED, TripPhase.ARRIVED)
+                .to(TripEvent.CANCEL, TripPhase.CANCELLED);
+
+        on(TripPhase.TRANSFER)
+                .to(TripEvent.LEG_ENTERED_WALK, TripPhase.WALKING)
+                .to(TripEvent.LEG_ENTERED_TRANSIT, TripPhase.WAITING_TRANSIT)
+                .to(TripEvent.SYNC_WALK_LEG, TripPhase.WALKING)
+                .to(TripEvent.TRANSFER_CONFIRMED, TripPhase.WALKING)
+                .to(TripEvent.BOARD, TripPhase.ONBOARD)
+                .to(TripEvent.ARRIVED, TripPhase.ARRIVED)
+                .to(TripEvent.CANCEL, TripPhase.CANCELLED);
+
+        on(TripPhase.ARRIVED)
+                .to(TripEvent.CANCEL, TripPhase.CANCELLED);
+
+        on(TripPhase.CANCELLED);
+    }
+
+    private final ObjectProvider<TripTransitionListener> listeners;
+
+    /** (from, to, event) 별 카운터 / phase 별 체류 타이머 — 태그 조합이 작아서 미리 만든다 */
+    private final Map<TripPhase, Map<TripPhase, Map<TripEvent, Counter>>> counters = new EnumMap<>(TripPhase.class);
+    private final Map<TripPhase, Timer> dwellTimers = new EnumMap<>(TripPhase.class);
+
+    public TripStateMachine(ObjectProvider<TripTransitionListener> listeners, MeterRegistry meterRegistry) {
+        this.listeners = listeners;
+
+        TABLE.forEach((from, row) -> row.forEach((event, to) -> {
+            if (from == to) return;
+            counters.computeIfAbsent(from, k -> new EnumMap<>(TripPhase.class))
+                    .computeIfAbsent(to, k -> new EnumMap<>(TripEvent.class))
+                    .put(event, Counter.builder("smartcane.trip.transitions")
+                            .description("trip phase 전이 횟수")
+                            .tag("from", from.name())
+                            .tag("to", to.name())
+                            .tag("event", event.name())
+                            .register(meterRegistry));
+        }));
+        for (TripPhase phase : TripPhase.values()) {
+            dwellTimers.put(phase, Timer.builder("smartcane.trip.phase.dwell")
+                    .description("phase 에 머문 시간")
+                    .tag("phase", phase.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    /** 전이 표 조회만 (상태 변경 없음). 표에 없으면 null */
+    public static TripPhase next(TripPhase from, TripEvent event) {
+        Map<TripEvent, TripPhase> row = TABLE.get(from);
+        return (row != null) ? row.get(event) : null;
+    }
+
+    /**
+     * 이벤트 적용
+     * @return 실제로 phase 가 바뀌었으면 전이 정보, 아니면 null (표에 없는 조합 포함)
+     */
+    public TripTransition fire(TripState state, TripEvent event) {
+        TripPhase from = TripPhase.of(state.getPhase());
+        TripPhase to = next(from, event);
+        if (to == null) {
+            log.debug("[StateMachine] 무시된 전이 {} --{}--> (tripId={})", from, event, state.getTripId());
+            return null;
+        }
+        if (to == from) {
+            // 저장 값이 비어 있던 경우 등은 정규화만
+            if (!from.name().equals(state.getPhase())) state.setPhase(from.name());
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        long dwell = (state.getPhaseSinceEpochMs() > 0) ? now - state.getPhaseSinceEpochMs() : -1;
+
+        state.setPhase(to.name());
+        state.setPhaseSinceEpochMs(now);
+
+        counters.get(from).get(to).get(event).increment();
+        if (dwell >= 0) {
+            dwellTimers.get(from).record(dwell, TimeUnit.MILLISECONDS);
+        }
+
+        TripTransition transition = new TripTransition(state.getTripId(), from, to, event, state.getLegIndex(), now, dwell);
+        log.info("[StateChange] {} --{}--> {} (tripId={}, leg={})", from, event, to, state.getTripId(), state.getLegIndex());
+
+        for (TripTransitionListener l : listeners) {
+            try {
+                l.onTransition(transition);
+            } catch (RuntimeException e) {
+                log.warn("[StateMachine] 전이 리스너 실패 {} : {}", l.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+        return transition;
+    }
+
+    /** 현재 phase 에서 받을 수 있는 이벤트인지 */
+    public static boolean accepts(TripPhase from, TripEvent event) {
+        return next(from, event) != null;
+    }
+
+    /** 다른 단계에서 이 이벤트를 받으면 current 로 가는지 (= 같은 이벤트의 재전송으로 볼 수 있는지) */
+    public static boolean isRepeat(TripPhase current, TripEvent event) {
+        for (Map<TripEvent, TripPhase> row : TABLE.values()) {
+            if (row.get(event) == current) return true;
+        }
+        return false;
+    }
+
+    // --- 표 정의 DSL ---
+
+    private static Row on(TripPhase from) {
+        Map<TripEvent, TripPhase> row = new EnumMap<>(TripEvent.class);
+        TABLE.put(from, row);
+        return new Row(row, from);
+    }
+
+    private record Row(Map<TripEvent, TripPhase> row, TripPhase from) {
+        Row to(TripEvent event, TripPhase target) {
+            row.put(event, target);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.smartcane.transit.service.state;
+
+/**
+ * 실제로 일어난 phase 전이 1건 (from != to)
+ * @param dwellMs from 단계에 머문 시간 (알 수 없으면 -1)
+ */
+public record TripTransition(
+        String tripId,
+        TripPhase from,
+        TripPhase to,
+        TripEvent event,
+        int legIndex,
+        long atEpochMs,
+        long dwellMs
+) {}
@@ -0,0 +1,11 @@
+package com.smartcane.transit.service.state;
+
+/**
+ * phase 전이 훅 — 빈으로 등록하면 TripStateMachine 이 전이마다 호출한다
+ * (호출 스레드에서 동기 실행되므로 무거운 작업은 넘기지 말 것)
+ */
+@FunctionalInterface
+public interface TripTransitionListener {
+
+    void onTransition(TripTransition transition);
+}
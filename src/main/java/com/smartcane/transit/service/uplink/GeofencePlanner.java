@@ -0,0 +1,88 @@
+package com.smartcane.transit.service.uplink;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.response.GeofenceZone;
+import com.smartcane.transit.service.geometry.ItineraryGeometry;
+import com.smartcane.transit.service.geometry.LegGeometry;
+import com.smartcane.transit.service.guidance.DecisionPoint;
+import com.smartcane.transit.service.guidance.GuidancePlan;
+import com.smartcane.transit.service.state.TripPhase;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 응답에 실어 보낼 다음 안내 지점 지오펜스
+ * - GuidancePlan 에서 현재 offset 뒤의 지점(step 시작, 승/하차 정류장, leg 끝, 목적지)을 앞에서부터 몇 개
+ * - 하차 정류장 앞에는 직전 정류장 접근 구역을 하나 더 둔다 (하차 준비 안내 시점)
+ * - 단말은 이 구역에 들어갈 때나 nextUplinkSec(keep-alive)가 지났을 때만 업링크하면 된다
+ */
+@Component
+@RequiredArgsConstructor
+public class GeofencePlanner {
+
+    /** leg 끝 = 다음 leg 시작처럼 같은 자리에 겹친 지점은 하나만 */
+    private static final double SAME_POINT_M = 1.0;
+
+    private final GuidanceProperties props;
+
+    /**
+     * @param routeOffsetM itinerary 시작점부터 현재 위치까지 경로상 거리 (모르면 현재 leg 시작으로 본다)
+     */
+    public List<GeofenceZone> upcoming(ItineraryGeometry geometry, int legIndex, Double routeOffsetM, String phase) {
+        int count = props.getGeofenceZoneCount();
+        if (count <= 0 || geometry == null || TripPhase.of(phase).isTerminal()) return List.of();
+
+        GuidancePlan plan = geometry.guidance();
+        boolean located = routeOffsetM != null && Double.isFinite(routeOffsetM);
+        double offset = located ? routeOffsetM : plan.legStartM(legIndex);
+        int i = plan.nextIndexAfter(offset);
+        if (i < 0) return List.of();
+
+        List<GeofenceZone> zones = new ArrayList<>(count + 1);
+        double lastOffset = Double.NaN;
+        for (; i < plan.size() && zones.size() < count; i++) {
+            DecisionPoint dp = plan.point(i);
+            if (Double.isNaN(dp.lat()) || Double.isNaN(dp.lon())) continue;
+            if (Math.abs(dp.offsetM() - lastOffset) < SAME_POINT_M) continue;
+            double ahead = dp.offsetM() - offset;
+
+            if (dp.kind() == DecisionPoint.Kind.ALIGHT && ahead > props.getGeofenceApproachRadiusM()) {
+                GeofenceZone approach = approachZone(geometry.leg(dp.legIndex()), dp.legIndex());
+                if (approach != null) zones.add(approach);
+                if (zones.size() >= count) break;
+            }
+
+            zones.add(new GeofenceZone(
+                    dp.kind().name(),
+                    dp.legIndex(),
+                    dp.kind() == DecisionPoint.Kind.STEP ? dp.stepIndex() : null,
+                    dp.lat(), dp.lon(),
+                    radiusOf(dp.kind()),
+                    located ? Math.max(0.0, ahead) : null
+            ));
+            lastOffset = dp.offsetM();
+        }
+        return zones;
+    }
+
+    /** 하차 직전 정류장 (승차/하차 사이에 정류장이 있을 때만) */
+    private GeofenceZone approachZone(LegGeometry leg, int legIndex) {
+        if (leg == null || leg.stationCount() < 3) return null;
+        int s = leg.stationCount() - 2;
+        double lat = leg.stationLat()[s];
+        double lon = leg.stationLon()[s];
+        if (Double.isNaN(lat) || Double.isNaN(lon)) return null;
+        return new GeofenceZone(GeofenceZone.KIND_STOP_APPROACH, legIndex, null, lat, lon,
+                props.getGeofenceApproachRadiusM(), null);
+    }
+
+    private double radiusOf(DecisionPoint.Kind kind) {
+        return switch (kind) {
+            case BOARD, ALIGHT -> props.getArriveRadiusTransitM();
+            default -> props.getLookAheadWalkM();
+        };
+    }
+}
@@ -0,0 +1,120 @@
+package com.smartcane.transit.service.uplink;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.service.eta.EtaEstimator;
+import com.smartcane.transit.service.state.TripPhase;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 다음 업링크 권고 (응답마다 "몇 초 뒤 또는 몇 m 이동 후")
+ * - 다음 안내 지점까지 ETA/거리의 일정 비율 → 멀리 직진 중이거나 하차까지 정류장이 많이 남았으면 성기게,
+ *   회전/하차 지점에 다가갈수록 기존 고정 규칙(1초/3m)까지 촘촘하게
+ * - phase 별 상한: 보행은 짧게, 차량 대기는 출발 감지용 거리 권고 고정, 탑승 중은 길게
+ * - 이 노드의 progress 처리량이 높으면 간격을 늘리되, 안내 지점에 다가가는 중(ETA ≤ phase 상한)에는 늘리지 않고
+ *   늘려도 다음 안내 지점 ETA 의 절반은 넘기지 않는다
+ */
+@Component
+public class UplinkAdvisor {
+
+    private final GuidanceProperties props;
+
+    // 초 단위 처리량 (직전 1초 완료분 / 진행 중인 1초)
+    private final AtomicLong bucketSecond = new AtomicLong();
+    private final AtomicInteger bucketCount = new AtomicInteger();
+    private volatile int lastSecondCount;
+
+    public UplinkAdvisor(GuidanceProperties props, MeterRegistry meterRegistry) {
+        this.props = props;
+        Gauge.builder("smartcane.progress.rate", this, UplinkAdvisor::currentRate)
+                .description("초당 progress 처리 수 (업링크 권고 부하 기준)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param sec    권장 다음 업링크 간격(초)
+     * @param meters 권장 다음 업링크 이동 거리(m)
+     */
+    public record Advice(Integer sec, Integer meters) {
+        public static final Advice NONE = new Advice(null, null);
+    }
+
+    /** progress 응답 한 번 = 1 (배치도 응답 단위로 한 번) */
+    public void record(long nowMs) {
+        long sec = nowMs / 1000;
+        long cur = bucketSecond.get();
+        if (sec > cur && bucketSecond.compareAndSet(cur, sec)) {
+            int n = bucketCount.getAndSet(0);
+            lastSecondCount = (sec - cur == 1) ? n : 0;
+        }
+        bucketCount.incrementAndGet();
+    }
+
+    /** 초당 처리량 추정 */
+    public double currentRate() {
+        return Math.max(lastSecondCount, bucketCount.get());
+    }
+
+    /** 부하에 따른 간격 배율 (1 = 평소) */
+    double loadStretch() {
+        double high = props.getUplinkLoadHighRps();
+        if (high <= 0) return 1.0;
+        double over = currentRate() / high;
+        return Math.max(1.0, Math.min(props.getUplinkLoadMaxStretch(), over));
+    }
+
+    public Advice advise(String phase, EtaEstimator.Eta eta) {
+        if (!props.isUplinkAdviceEnabled()) return Advice.NONE;
+        record(System.currentTimeMillis());
+
+        TripPhase p = TripPhase.of(phase);
+        if (p.isTerminal()) return Advice.NONE;
+
+        int minSec = Math.max(1, props.getUplinkMinSec());
+        double minM = props.getUplinkMinM();
+        int maxSec;
+        double maxM;
+        switch (p) {
+            case WAITING_TRANSIT -> {
+                maxSec = props.getUplinkMaxWaitSec();
+                maxM = props.getUplinkWaitM();
+            }
+            case ONBOARD -> {
+                maxSec = props.getUplinkMaxOnboardSec();
+                maxM = props.getUplinkMaxOnboardM();
+            }
+            default -> {
+                maxSec = props.getUplinkMaxWalkSec();
+                maxM = props.getUplinkMaxWalkM();
+            }
+        }
+
+        // ETA 를 모르면 기존 고정 규칙
+        Integer etaSec = (eta != null) ? eta.toTargetSec() : null;
+        if (etaSec == null) return new Advice(minSec, (int) Math.round(minM));
+
+        double f = props.getUplinkFraction();
+        double sec = clamp(etaSec * f, minSec, maxSec);
+        double toTargetM = eta.toTargetM();
+        double m = Double.isFinite(toTargetM) ? clamp(toTargetM * f, minM, maxM) : minM;
+        if (p == TripPhase.WAITING_TRANSIT) m = maxM;
+
+        double stretch = loadStretch();
+        if (stretch > 1.0 && etaSec > maxSec) {
+            double cap = Math.max(minSec, etaSec * 0.5);
+            sec = Math.min(sec * stretch, Math.max(sec, cap));
+            if (Double.isFinite(toTargetM) && p != TripPhase.WAITING_TRANSIT) {
+                m = Math.min(m * stretch, Math.max(m, toTargetM * 0.5));
+            }
+        }
+        return new Advice((int) Math.round(sec), (int) Math.round(m));
+    }
+
+    private static double clamp(double v, double lo, double hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+}
@@ -0,0 +1,37 @@
+package com.smartcane.transit.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * 지오코딩 캐시 키용 주소 정규화.
+ * - 유니코드 NFKC 정규화 (전각/반각, 조합형 한글 통일)
+ * - 앞뒤 공백 제거 + 연속 공백 1칸으로
+ * - 쉼표/마침표 등 구분 기호 제거, 영문 소문자화
+ * 같은 주소를 조금 다르게 입력해도 같은 키가 되도록 하는 것이 목적이다.
+ */
+public final class AddressNormalizer {
+    private AddressNormalizer() {}
+
+    public static String normalize(String address) {
+        if (address == null) return "";
+        String s = Normalizer.normalize(address, Normalizer.Form.NFKC);
+        StringBuilder sb = new StringBuilder(s.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == ',' || c == '.' || c == '·' || c == '"' || c == '\'') {
+                pendingSpace = true;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace && sb.length() > 0) sb.append(' ');
+            pendingSpace = false;
+            sb.append(c);
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,226 @@
+package com.smartcane.transit.util;
+
+import java.util.Arrays;
+
+import static com.smartcane.transit.util.GeoUtils.haversine;
+
+/**
+ * 한 번 파싱해서 재사용하는 폴리라인 (프리미티브 배열)
+ * - lat/lon     : 꼭짓점 좌표
+ * - acc         : 시작점부터 각 꼭짓점까지 누적거리(m, 하버사인)
+ * - east/north  : 첫 점 기준 로컬 ENU 좌표(m) → 스냅 시 매번 변환하지 않도록 미리 계산
+ *
+ * "lon,lat lon,lat ..." 문자열을 split/박싱 없이 바로 배열로 읽는다.
+ */
+public final class CompiledPolyline {
+
+    public static final CompiledPolyline EMPTY = new CompiledPolyline(new double[0], new double[0], 0);
+
+    private static final double M_PER_DEG_LAT = 111_320.0;
+
+    private final double[] lat;
+    private final double[] lon;
+    private final double[] acc;
+    private final double[] east;
+    private final double[] north;
+    private final int size;
+    private final double refLat;
+    private final double refLon;
+    private final double mPerDegLon;
+
+    private CompiledPolyline(double[] lat, double[] lon, int size) {
+        this.lat = (lat.length == size) ? lat : Arrays.copyOf(lat, size);
+        this.lon = (lon.length == size) ? lon : Arrays.copyOf(lon, size);
+        this.size = size;
+        this.acc = new double[size];
+        this.east = new double[size];
+        this.north = new double[size];
+
+        this.refLat = (size > 0) ? this.lat[0] : 0.0;
+        this.refLon = (size > 0) ? this.lon[0] : 0.0;
+        this.mPerDegLon = M_PER_DEG_LAT * Math.cos(Math.toRadians(refLat));
+
+        for (int i = 0; i < size; i++) {
+            east[i] = (this.lon[i] - refLon) * mPerDegLon;
+            north[i] = (this.lat[i] - refLat) * M_PER_DEG_LAT;
+            if (i > 0) {
+                acc[i] = acc[i - 1] + haversine(this.lat[i - 1], this.lon[i - 1], this.lat[i], this.lon[i]);
+            }
+        }
+    }
+
+    /** [lat] / [lon] 배열로 직접 생성 (배열은 복사하지 않는다) */
+    public static CompiledPolyline of(double[] lat, double[] lon) {
+        if (lat.length != lon.length) throw new IllegalArgumentException("lat/lon 길이가 다릅니다.");
+        return (lat.length == 0) ? EMPTY : new CompiledPolyline(lat, lon, lat.length);
+    }
+
+    /**
+     * "lon,lat lon,lat ..." 라인스트링 파싱.
+     * 형식이 깨진 좌표쌍은 GeoUtils.parseLineString 과 동일하게 건너뛴다.
+     */
+    public static CompiledPolyline parse(String line) {
+        if (line == null || line.isBlank()) return EMPTY;
+
+        int cap = 16;
+        double[] lats = new double[cap];
+        double[] lons = new double[cap];
+        int n = 0;
+
+        int len = line.length();
+        int i = 0;
+        while (i < len) {
+            // 공백 스킵
+            while (i < len && Character.isWhitespace(line.charAt(i))) i++;
+            if (i >= len) break;
+
+            // 토큰 범위 [start, end)
+            int start = i;
+            while (i < len && !Character.isWhitespace(line.charAt(i))) i++;
+            int end = i;
+
+            int comma = -1;
+            boolean valid = true;
+            for (int k = start; k < end; k++) {
+                if (line.charAt(k) == ',') {
+                    if (comma >= 0) { valid = false; break; } // 쉼표 2개 이상 → 스킵
+                    comma = k;
+                }
+            }
+            if (!valid || comma <= start || comma >= end - 1) continue;
+
+            double x = parseDouble(line, start, comma);
+            double y = parseDouble(line, comma + 1, end);
+            if (Double.isNaN(x) || Double.isNaN(y)) continue;
+
+            if (n == cap) {
+                cap *= 2;
+                lats = Arrays.copyOf(lats, cap);
+                lons = Arrays.copyOf(lons, cap);
+            }
+            lats[n] = y;
+            lons[n] = x;
+            n++;
+        }
+        return (n == 0) ? EMPTY : new CompiledPolyline(lats, lons, n);
+    }
+
+    /**
+     * 부호/정수부/소수부만 있는 일반적인 좌표 표기를 직접 파싱.
+     * 지수 표기 등 그 밖의 형식은 Double.parseDouble 로 넘기고, 실패하면 NaN.
+     */
+    static double parseDouble(CharSequence s, int from, int to) {
+        int i = from;
+        boolean neg = false;
+        if (i < to && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            neg = s.charAt(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fracDigits = 0;
+        boolean dot = false;
+        for (; i < to; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digits >= 17) return slowParse(s, from, to);
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (dot) fracDigits++;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                return slowParse(s, from, to);
+            }
+        }
+        if (digits == 0) return Double.NaN;
+        double v = mantissa;
+        if (fracDigits > 0) v = v / POW10[fracDigits];
+        return neg ? -v : v;
+    }
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+            1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17
+    };
+
+    private static double slowParse(CharSequence s, int from, int to) {
+        try {
+            return Double.parseDouble(s.subSequence(from, to).toString());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // 조회
+    // ------------------------------------------------------------------
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public double lat(int i) { return lat[i]; }
+
+    public double lon(int i) { return lon[i]; }
+
+    /** 시작점부터 i 번째 꼭짓점까지 누적거리(m) */
+    public double accAt(int i) { return acc[i]; }
+
+    /** 전체 길이(m) */
+    public double length() { return (size == 0) ? 0.0 : acc[size - 1]; }
+
+    double east(int i) { return east[i]; }
+
+    double north(int i) { return north[i]; }
+
+    double refLat() { return refLat; }
+
+    double refLon() { return refLon; }
+
+    double mPerDegLon() { return mPerDegLon; }
+
+    static double mPerDegLat() { return M_PER_DEG_LAT; }
+
+    /**
+     * 지정한 꼭짓점만 남긴 새 폴리라인 (indices 는 오름차순)
+     */
+    public CompiledPolyline select(int[] indices) {
+        if (indices.length == size) return this;
+        double[] la = new double[indices.length];
+        double[] lo = new double[indices.length];
+        for (int k = 0; k < indices.length; k++) {
+            la[k] = lat[indices[k]];
+            lo[k] = lon[indices[k]];
+        }
+        return of(la, lo);
+    }
+
+    /**
+     * 가장 가까운 꼭짓점 인덱스. 비어 있으면 -1
+     */
+    public int nearestVertexIndex(double pLat, double pLon) {
+        int best = -1;
+        double bestD = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            double d = haversine(pLat, pLon, lat[i], lon[i]);
+            if (d < bestD) {
+                bestD = d;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 꼭짓점 중 가장 가까운 점까지의 거리(m). 비어 있으면 +∞
+     */
+    public double nearestVertexDistance(double pLat, double pLon) {
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            double d = haversine(pLat, pLon, lat[i], lon[i]);
+            if (d < best) best = d;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,79 @@
+package com.smartcane.transit.util;
+
+import java.util.Arrays;
+
+/**
+ * Google Encoded Polyline (delta + zigzag + base64 유사 varint) 인코더/디코더
+ * - 좌표 순서: lat,lon (표준)
+ * - 정밀도 6 (polyline6, 1e-6° ≈ 0.1m) : step/정류장 경계 좌표가 사실상 그대로 유지된다
+ */
+public final class PolylineCodec {
+
+    public static final String ENCODING_NAME = "polyline6";
+    private static final double FACTOR = 1e6;
+
+    private PolylineCodec() {}
+
+    /**
+     * 지정한 꼭짓점(indices)만 인코딩
+     */
+    public static String encode(CompiledPolyline line, int[] indices) {
+        StringBuilder sb = new StringBuilder(indices.length * 6);
+        long prevLat = 0, prevLon = 0;
+        for (int idx : indices) {
+            long lat = Math.round(line.lat(idx) * FACTOR);
+            long lon = Math.round(line.lon(idx) * FACTOR);
+            writeSigned(sb, lat - prevLat);
+            writeSigned(sb, lon - prevLon);
+            prevLat = lat;
+            prevLon = lon;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 디코딩 → [0]=lat[], [1]=lon[]
+     */
+    public static double[][] decode(String encoded) {
+        int len = encoded.length();
+        double[] lats = new double[Math.max(4, len / 4)];
+        double[] lons = new double[lats.length];
+        int n = 0;
+
+        long lat = 0, lon = 0;
+        int[] pos = {0};
+        while (pos[0] < len) {
+            lat += readSigned(encoded, pos);
+            lon += readSigned(encoded, pos);
+            if (n == lats.length) {
+                lats = Arrays.copyOf(lats, n * 2);
+                lons = Arrays.copyOf(lons, n * 2);
+            }
+            lats[n] = lat / FACTOR;
+            lons[n] = lon / FACTOR;
+            n++;
+        }
+        return new double[][]{Arrays.copyOf(lats, n), Arrays.copyOf(lons, n)};
+    }
+
+    private static void writeSigned(StringBuilder sb, long v) {
+        long u = (v < 0) ? ~(v << 1) : (v << 1);
+        while (u >= 0x20) {
+            sb.append((char) ((0x20 | (u & 0x1f)) + 63));
+            u >>>= 5;
+        }
+        sb.append((char) (u + 63));
+    }
+
+    private static long readSigned(String s, int[] pos) {
+        long result = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = s.charAt(pos[0]++) - 63;
+            result |= (long) (b & 0x1f) << shift;
+            shift += 5;
+        } while (b >= 0x20);
+        return ((result & 1) != 0) ? ~(result >>> 1) : (result >>> 1);
+    }
+}
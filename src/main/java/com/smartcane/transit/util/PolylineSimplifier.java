@@ -0,0 +1,96 @@
+package com.smartcane.transit.util;
+
+/**
+ * Douglas–Peucker 폴리라인 단순화
+ * - CompiledPolyline 의 로컬 ENU(m) 좌표로 계산하므로 허용오차를 미터로 준다
+ * - 재귀 대신 명시적 스택 (꼭짓점 수천 개 passShape 에서도 스택 오버플로 없음)
+ * - mustKeep 으로 지정한 꼭짓점(정류장 투영점, step 경계 등)은 항상 남긴다
+ */
+public final class PolylineSimplifier {
+
+    private PolylineSimplifier() {}
+
+    /**
+     * @return 남길 꼭짓점 인덱스 (오름차순, 첫/끝 점 포함)
+     */
+    public static int[] simplify(CompiledPolyline line, double toleranceM) {
+        return simplify(line, toleranceM, null);
+    }
+
+    /**
+     * @param mustKeep null 가능. true 인 꼭짓점은 허용오차와 상관없이 남긴다
+     * @return 남길 꼭짓점 인덱스 (오름차순, 첫/끝 점 포함)
+     */
+    public static int[] simplify(CompiledPolyline line, double toleranceM, boolean[] mustKeep) {
+        int n = line.size();
+        if (n <= 2 || toleranceM <= 0) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) all[i] = i;
+            return all;
+        }
+
+        boolean[] keep = new boolean[n];
+        keep[0] = true;
+        keep[n - 1] = true;
+
+        // 강제 보존점으로 구간을 나눈 뒤 구간마다 DP
+        int[] stack = new int[2 * n];
+        int sp = 0;
+        int segStart = 0;
+        for (int i = 1; i < n; i++) {
+            boolean forced = (i == n - 1) || (mustKeep != null && i < mustKeep.length && mustKeep[i]);
+            if (!forced) continue;
+            keep[i] = true;
+            stack[sp++] = segStart;
+            stack[sp++] = i;
+            segStart = i;
+        }
+
+        double tol2 = toleranceM * toleranceM;
+        while (sp > 0) {
+            int b = stack[--sp];
+            int a = stack[--sp];
+            if (b - a < 2) continue;
+
+            double ax = line.east(a), ay = line.north(a);
+            double bx = line.east(b), by = line.north(b);
+            double dx = bx - ax, dy = by - ay;
+            double len2 = dx * dx + dy * dy;
+
+            int far = -1;
+            double farD2 = tol2;
+            for (int i = a + 1; i < b; i++) {
+                double px = line.east(i) - ax, py = line.north(i) - ay;
+                double d2;
+                if (len2 == 0) {
+                    d2 = px * px + py * py;
+                } else {
+                    double t = (px * dx + py * dy) / len2;
+                    if (t < 0) t = 0;
+                    else if (t > 1) t = 1;
+                    double ex = px - t * dx, ey = py - t * dy;
+                    d2 = ex * ex + ey * ey;
+                }
+                if (d2 > farD2) {
+                    farD2 = d2;
+                    far = i;
+                }
+            }
+
+            if (far >= 0) {
+                keep[far] = true;
+                stack[sp++] = a;
+                stack[sp++] = far;
+                stack[sp++] = far;
+                stack[sp++] = b;
+            }
+        }
+
+        int count = 0;
+        for (boolean k : keep) if (k) count++;
+        int[] out = new int[count];
+        int j = 0;
+        for (int i = 0; i < n; i++) if (keep[i]) out[j++] = i;
+        return out;
+    }
+}
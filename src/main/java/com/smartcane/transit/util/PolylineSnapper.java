@@ -109,6 +109,60 @@ public final class PolylineSnapper {
         return new SnapResult(bestAcc, bestDist, bestLat, bestLon);
     }
 
+    /**
+     * CompiledPolyline 버전: 누적거리/ENU 좌표를 미리 계산해 둔 폴리라인에 스냅.
+     * 결과는 List 버전과 동일하지만, 호출마다 좌표 변환·배열 할당을 하지 않는다.
+     */
+    public static SnapResult snapToPolyline(double lat, double lon, CompiledPolyline line) {
+        if (line == null || line.isEmpty()) {
+            return new SnapResult(0, Double.POSITIVE_INFINITY, Double.NaN, Double.NaN);
+        }
+        final int n = line.size();
+        if (n == 1) {
+            double d = haversine(lat, lon, line.lat(0), line.lon(0));
+            return new SnapResult(0, d, line.lat(0), line.lon(0));
+        }
+
+        double refLat = line.refLat();
+        double refLon = line.refLon();
+        double mPerDegLon = line.mPerDegLon();
+        double px = (lon - refLon) * mPerDegLon;
+        double py = (lat - refLat) * CompiledPolyline.mPerDegLat();
+
+        double bestDist = Double.POSITIVE_INFINITY;
+        double bestAcc = 0;
+        double bestX = Double.NaN;
+        double bestY = Double.NaN;
+
+        for (int i = 1; i < n; i++) {
+            double ax = line.east(i - 1), ay = line.north(i - 1);
+            double vx = line.east(i) - ax;
+            double vy = line.north(i) - ay;
+            double wx = px - ax;
+            double wy = py - ay;
+
+            double segLen2 = vx * vx + vy * vy;
+            double t = (segLen2 == 0) ? 0 : ((wx * vx + wy * vy) / segLen2);
+            if (t < 0) t = 0;
+            else if (t > 1) t = 1;
+
+            double projx = ax + t * vx;
+            double projy = ay + t * vy;
+            double dist = Math.hypot(px - projx, py - projy);
+
+            if (dist < bestDist) {
+                bestDist = dist;
+                bestX = projx;
+                bestY = projy;
+                bestAcc = line.accAt(i - 1) + Math.hypot(projx - ax, projy - ay);
+            }
+        }
+
+        double bestLat = refLat + bestY / CompiledPolyline.mPerDegLat();
+        double bestLon = refLon + bestX / mPerDegLon;
+        return new SnapResult(bestAcc, bestDist, bestLat, bestLon);
+    }
+
     // --- WGS84 <-> 로컬 ENU 근사 변환 (고도=0 가정, 수십~수백 m 스케일에서 충분히 정확) ---
     // 위도/경도를 기준(refLat, refLon)에서 동(E), 북(N) 미터로 변환
     private static double[] wgs84ToENU(double lat, double lon, double refLat, double refLon) {
@@ -0,0 +1,103 @@
+package com.smartcane.transit.controller;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.smartcane.transit.dto.request.CompactProgressUpdate;
+import com.smartcane.transit.dto.request.ProgressUpdateEnvelope;
+import com.smartcane.transit.dto.request.ProgressUpdateRequest;
+import com.smartcane.transit.dto.response.CompactGuidance;
+import com.smartcane.transit.dto.response.GuidanceResponse;
+import com.smartcane.transit.service.NearbyStopService;
+import com.smartcane.transit.service.ProgressCoordinator.ConditionalGuidance;
+import com.smartcane.transit.service.RouteProgressService;
+import com.smartcane.transit.service.TripPlanService;
+import com.smartcane.transit.service.TripStore;
+import com.smartcane.transit.service.realtime.TripEventStreamService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * application/cbor 로 progress 업로드 → CompactGuidance CBOR 응답
+ * - CBOR 컨버터는 하나뿐이고, spring.jackson.* 설정이 적용된 것이어야 한다 (WireFormatConfig)
+ */
+@WebMvcTest(RouteController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@TestPropertySource(properties = "spring.jackson.mapper.accept-case-insensitive-properties=true")
+class RouteControllerCborTest {
+
+    private static final String TRIP_ID = "3f2b6a1c-7d4e-4a8b-9c11-0e5f7a2d9b34";
+
+    @Autowired MockMvc mockMvc;
+    @Autowired RequestMappingHandlerAdapter handlerAdapter;
+
+    @MockitoBean TripPlanService tripPlanService;
+    @MockitoBean RouteProgressService progressService;
+    @MockitoBean TripStore tripStore;
+    @MockitoBean NearbyStopService nearbyStopService;
+    @MockitoBean TripEventStreamService tripEventStreamService;
+
+    private final CBORMapper cbor = new CBORMapper();
+
+    @Test
+    void progressRoundTripsAsCbor() throws Exception {
+        GuidanceResponse guidance = new GuidanceResponse(TRIP_ID, 0, 1, "WAITING_TRANSIT",
+                "버스를 기다리는 중입니다.", 12.34, 95, 1200, 10, 30, null);
+        when(progressService.updateProgressConditional(eq(TRIP_ID), any()))
+                .thenReturn(new ConditionalGuidance(guidance, "\"abc\"", true));
+
+        ProgressUpdateRequest sample = new ProgressUpdateRequest(
+                126.9779692, 37.5662952, 1.23, 1_760_000_000_000L, null, null, null);
+        byte[] body = cbor.writeValueAsBytes(CompactProgressUpdate.from(sample));
+
+        byte[] response = mockMvc.perform(post("/api/transit/trips/{tripId}/progress", TRIP_ID)
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        CompactGuidance decoded = cbor.readValue(response, CompactGuidance.class);
+        assertThat(decoded.legIndex()).isEqualTo(1);
+        assertThat(CompactGuidance.PHASES.get(decoded.phase())).isEqualTo("WAITING_TRANSIT");
+        assertThat(decoded.distanceToTargetDm()).isEqualTo(123);
+        assertThat(decoded.etaToTargetSec()).isEqualTo(95);
+        assertThat(decoded.nextUplinkSec()).isEqualTo(10);
+
+        ArgumentCaptor<ProgressUpdateEnvelope> sent = ArgumentCaptor.forClass(ProgressUpdateEnvelope.class);
+        verify(progressService).updateProgressConditional(eq(TRIP_ID), sent.capture());
+        assertThat(sent.getValue().progress().lat()).isCloseTo(sample.lat(), within(1e-6));
+        assertThat(sent.getValue().progress().lon()).isCloseTo(sample.lon(), within(1e-6));
+    }
+
+    @Test
+    void singleCborConverterUsesBootJacksonSettings() {
+        var cborConverters = handlerAdapter.getMessageConverters().stream()
+                .filter(MappingJackson2CborHttpMessageConverter.class::isInstance)
+                .map(MappingJackson2CborHttpMessageConverter.class::cast)
+                .toList();
+
+        assertThat(cborConverters).hasSize(1);
+        assertThat(cborConverters.get(0).getObjectMapper().isEnabled(
+                MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES)).isTrue();
+    }
+}
@@ -0,0 +1,97 @@
+package com.smartcane.transit.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.smartcane.transit.dto.request.CompactProgressUpdate;
+import com.smartcane.transit.dto.request.ProgressUpdateEnvelope;
+import com.smartcane.transit.dto.request.ProgressUpdateRequest;
+import com.smartcane.transit.dto.response.CompactGuidance;
+import com.smartcane.transit.dto.response.GuidanceResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * JSON(기존) vs CBOR + 양자화(압축) 포맷 비교
+ * - 크기/왕복 정밀도: 항상 검증
+ * - 인코딩/디코딩 비용: "benchmark" 태그 (기본 test 에서 제외, ./gradlew benchmark 로 실행)
+ *   측정값은 환경에 따라 달라지므로 검증하지 않고 테스트 리포트에만 남긴다
+ */
+class WireFormatBenchmarkTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int ROUNDS = 100_000;
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final CBORMapper cbor = new CBORMapper();
+
+    private final ProgressUpdateRequest sample = new ProgressUpdateRequest(
+            126.9779692, 37.5662952, 1.23, 1_760_000_000_000L, 87.5, 14.0, 25.0);
+
+    private final GuidanceResponse guidance = new GuidanceResponse(
+            "3f2b6a1c-7d4e-4a8b-9c11-0e5f7a2d9b34", 0, 2, "WALKING",
+            "다음 안내까지 약 42미터 남았습니다. 안내된 경로를 따라 계속 이동해 주세요.",
+            42.37, null, null, null, null, null);
+
+    @Test
+    void uplinkIsSmallerAndRoundTripsWithinQuantisation() throws Exception {
+        byte[] jsonBytes = json.writeValueAsBytes(new ProgressUpdateEnvelope(null, sample));
+        byte[] cborBytes = cbor.writeValueAsBytes(CompactProgressUpdate.from(sample));
+
+        ProgressUpdateRequest decoded = cbor.readValue(cborBytes, CompactProgressUpdate.class).toRequest();
+
+        assertThat(cborBytes.length).isLessThan(jsonBytes.length / 2);
+        assertThat(decoded.lat()).isCloseTo(sample.lat(), within(1e-6));
+        assertThat(decoded.lon()).isCloseTo(sample.lon(), within(1e-6));
+        assertThat(decoded.speedMps()).isCloseTo(sample.speedMps(), within(0.01));
+        assertThat(decoded.timestampEpochMs()).isEqualTo(sample.timestampEpochMs());
+    }
+
+    @Test
+    void downlinkIsSmaller() throws Exception {
+        byte[] jsonBytes = json.writeValueAsBytes(guidance);
+        byte[] cborBytes = cbor.writeValueAsBytes(CompactGuidance.from(guidance));
+
+        CompactGuidance decoded = cbor.readValue(cborBytes, CompactGuidance.class);
+
+        assertThat(cborBytes.length).isLessThan(jsonBytes.length);
+        assertThat(CompactGuidance.PHASES.get(decoded.phase())).isEqualTo(guidance.phase());
+        assertThat(decoded.distanceToTargetDm()).isEqualTo(424);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void encodeDecodeCost(TestReporter reporter) throws Exception {
+        byte[] jsonUp = json.writeValueAsBytes(new ProgressUpdateEnvelope(null, sample));
+        byte[] cborUp = cbor.writeValueAsBytes(CompactProgressUpdate.from(sample));
+
+        // 서버 한 번 왕복 = 업링크 디코드 + 응답 인코드
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += jsonRoundTrip(jsonUp) + cborRoundTrip(cborUp);
+        }
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) sink += jsonRoundTrip(jsonUp);
+        long t1 = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) sink += cborRoundTrip(cborUp);
+        long t2 = System.nanoTime();
+
+        assertThat(sink).isPositive();
+        reporter.publishEntry("json.nsPerOp", String.valueOf((t1 - t0) / ROUNDS));
+        reporter.publishEntry("cbor.nsPerOp", String.valueOf((t2 - t1) / ROUNDS));
+    }
+
+    private int jsonRoundTrip(byte[] body) throws Exception {
+        ProgressUpdateEnvelope env = json.readValue(body, ProgressUpdateEnvelope.class);
+        return json.writeValueAsBytes(guidance).length + (int) env.progress().lat();
+    }
+
+    private int cborRoundTrip(byte[] body) throws Exception {
+        ProgressUpdateRequest p = cbor.readValue(body, CompactProgressUpdate.class).toRequest();
+        return cbor.writeValueAsBytes(CompactGuidance.from(guidance)).length + (int) p.lat();
+    }
+}
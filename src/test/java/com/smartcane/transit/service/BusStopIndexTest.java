@@ -0,0 +1,117 @@
+package com.smartcane.transit.service;
+
+import com.smartcane.transit.config.PublicDataProperties;
+import com.smartcane.transit.service.BusStationService.PublicStationInfo;
+import com.smartcane.transit.service.BusStopIndex.StopHit;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 작은 정류장 CSV 픽스처(src/test/resources/stops/bus-stops.csv)로 격자 색인 검증
+ *
+ * 질의점 Q(37.502290, 127.0) 는 250m 격자 칸 경계(위도 약 37.5022458)에서 북쪽으로 약 5m
+ * A: Q 남쪽 20m (경계 너머 칸), B: 북쪽 30m, C: 동쪽 60m, D: 북쪽 400m, E: 동쪽 2km
+ * Z(0,0) / X(숫자 아닌 위도) 줄은 버려진다. 헤더는 BOM + 한글 별칭, 이름에 따옴표 필드
+ */
+class BusStopIndexTest {
+
+    private static final double Q_LAT = 37.502290, Q_LON = 127.0;
+
+    private static BusStopIndex index;
+
+    @BeforeAll
+    static void load() throws Exception {
+        index = indexOf(Path.of(BusStopIndexTest.class.getResource("/stops/bus-stops.csv").toURI()).toString());
+    }
+
+    private static BusStopIndex indexOf(String file) {
+        PublicDataProperties props = new PublicDataProperties();
+        props.setStopCatalogFile(file);
+        props.setStopCatalogCharset("UTF-8");
+        props.setStopCatalogCellM(250.0);
+        BusStopIndex idx = new BusStopIndex(props);
+        idx.load();
+        return idx;
+    }
+
+    private static List<String> ids(List<StopHit> hits) {
+        return hits.stream().map(h -> h.station().nodeId()).toList();
+    }
+
+    @Test
+    void parsesBomHeaderAliasesAndQuotedFields() {
+        assertThat(index.isLoaded()).isTrue();
+        assertThat(index.size()).isEqualTo(5);
+
+        List<StopHit> hits = index.nearest(Q_LAT, Q_LON, 2, 1_000.0);
+        assertThat(hits.get(0).station()).isEqualTo(new PublicStationInfo("A", "11", "시청역, 3번 출구"));
+        assertThat(hits.get(1).station().nodeName()).isEqualTo("구청 \"본관\" 앞");
+    }
+
+    @Test
+    void nearestOrdersByDistanceAcrossCellBoundary() {
+        List<StopHit> hits = index.nearest(Q_LAT, Q_LON, 3, 1_000.0);
+
+        assertThat(ids(hits)).containsExactly("A", "B", "C");
+        assertThat(hits.get(0).distanceM()).isCloseTo(20.0, within(0.5));
+        assertThat(hits.get(1).distanceM()).isCloseTo(30.0, within(0.5));
+        assertThat(hits.get(2).distanceM()).isCloseTo(60.0, within(0.5));
+    }
+
+    @Test
+    void nearestStopsAtMaxDistance() {
+        assertThat(ids(index.nearest(Q_LAT, Q_LON, 3, 25.0))).containsExactly("A");
+        assertThat(ids(index.nearest(Q_LAT, Q_LON, 10, 500.0))).containsExactly("A", "B", "C", "D");
+        assertThat(index.nearest(Q_LAT, Q_LON, 3, 10.0)).isEmpty();
+    }
+
+    @Test
+    void withinFiltersByRadius() {
+        List<StopHit> hits = index.within(Q_LAT, Q_LON, 100.0);
+        // within 은 정렬하지 않는다 (호출하는 쪽에서 정렬)
+        assertThat(ids(hits)).containsExactlyInAnyOrder("A", "B", "C");
+
+        List<StopHit> sorted = hits.stream().sorted(Comparator.comparingDouble(StopHit::distanceM)).toList();
+        assertThat(ids(sorted)).containsExactly("A", "B", "C");
+        assertThat(hits).allSatisfy(h -> assertThat(h.distanceM()).isLessThanOrEqualTo(100.0));
+
+        assertThat(ids(index.within(Q_LAT, Q_LON, 500.0))).containsExactlyInAnyOrder("A", "B", "C", "D");
+        assertThat(index.within(Q_LAT, Q_LON, 0.0)).isEmpty();
+    }
+
+    @Test
+    void nearestStationUsesIndexWhenLoaded() {
+        BusStationService service = spy(new BusStationService(new PublicDataProperties(), index));
+
+        PublicStationInfo station = service.findNearestStation(Q_LAT, Q_LON).block();
+
+        assertThat(station.nodeId()).isEqualTo("A");
+        verify(service, never()).findNearestStationRemote(anyDouble(), anyDouble());
+    }
+
+    @Test
+    void nearestStationFallsBackToRemoteWhenIndexEmpty() {
+        BusStopIndex empty = indexOf("");
+        assertThat(empty.isLoaded()).isFalse();
+
+        BusStationService service = spy(new BusStationService(new PublicDataProperties(), empty));
+        PublicStationInfo remote = new PublicStationInfo("R1", "11", "원격 정류장");
+        doReturn(Mono.just(remote)).when(service).findNearestStationRemote(Q_LAT, Q_LON);
+
+        assertThat(service.findNearestStation(Q_LAT, Q_LON).block()).isEqualTo(remote);
+        verify(service).findNearestStationRemote(Q_LAT, Q_LON);
+    }
+}
@@ -0,0 +1,62 @@
+package com.smartcane.transit.service;
+
+import com.smartcane.transit.config.RouteScoringProperties;
+import com.smartcane.transit.service.SkRouteSelector.ItineraryHeader;
+import com.smartcane.transit.service.SkRouteSelector.Scorer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * application.yml 의 smartcane.route-scoring 이 SkRouteSelector 빈에 실제로 주입되는지 검증
+ * (DB 등 나머지 빈 없이 두 클래스만 띄운다)
+ */
+@SpringBootTest(classes = SkRouteSelectorTest.Config.class)
+class SkRouteSelectorTest {
+
+    @Configuration
+    @EnableConfigurationProperties
+    @Import({RouteScoringProperties.class, SkRouteSelector.class})
+    static class Config {
+    }
+
+    @Autowired
+    SkRouteSelector selector;
+
+    // 버스 위주지만 많이 걷는 경로 vs 지하철+버스지만 적게 걷는 경로
+    private static final ItineraryHeader BUS_LONG_WALK = new ItineraryHeader(2, 3000, 900, 1200, 0);
+    private static final ItineraryHeader MIXED_SHORT_WALK = new ItineraryHeader(3, 2600, 150, 200, 0);
+
+    @Test
+    void appliesProfileWeightsFromYml() {
+        Scorer lowVision = selector.scorer("low-vision");
+        assertThat(lowVision.tierPenaltySec()).isEqualTo(600.0);
+        assertThat(lowVision.walkDistanceWeight()).isEqualTo(1.5);
+        assertThat(lowVision.transferPenaltySec()).isEqualTo(600.0);
+
+        Scorer wheelchair = selector.scorer("wheelchair");
+        assertThat(wheelchair.tierPenaltySec()).isEqualTo(300.0);
+        assertThat(wheelchair.walkTimeWeight()).isEqualTo(1.0);
+        assertThat(wheelchair.transferPenaltySec()).isEqualTo(900.0);
+    }
+
+    @Test
+    void unknownProfileFallsBackToDefaults() {
+        assertThat(selector.scorer("no-such-profile")).isEqualTo(selector.scorer(null));
+        assertThat(selector.scorer(null).tierPenaltySec()).isEqualTo(1_000_000.0);
+    }
+
+    @Test
+    void profileChangesRanking() {
+        Scorer defaults = selector.scorer(null);
+        assertThat(defaults.score(BUS_LONG_WALK)).isLessThan(defaults.score(MIXED_SHORT_WALK));
+
+        Scorer lowVision = selector.scorer("low-vision");
+        assertThat(lowVision.score(MIXED_SHORT_WALK)).isLessThan(lowVision.score(BUS_LONG_WALK));
+    }
+}
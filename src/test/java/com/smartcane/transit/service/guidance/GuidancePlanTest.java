@@ -0,0 +1,162 @@
+package com.smartcane.transit.service.guidance;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.response.GeofenceZone;
+import com.smartcane.transit.dto.response.SkTransitRootDto.ItineraryDto;
+import com.smartcane.transit.dto.response.SkTransitRootDto.LegDto;
+import com.smartcane.transit.dto.response.SkTransitRootDto.PlaceDto;
+import com.smartcane.transit.dto.response.SkTransitRootDto.WalkStepDto;
+import com.smartcane.transit.service.TripState;
+import com.smartcane.transit.service.eta.EtaEstimator;
+import com.smartcane.transit.service.geometry.ItineraryGeometry;
+import com.smartcane.transit.service.guidance.DecisionPoint.Kind;
+import com.smartcane.transit.service.uplink.GeofencePlanner;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 손으로 만든 2-leg itinerary 로 안내 계획 / ETA / 지오펜스 검증
+ *
+ * leg 0 WALK : step 0 (100m) → step 1 (50m), 정류장 P 에서 끝 (라인스트링 없음 → SK distance 로 길이 계산)
+ * leg 1 BUS  : P 에서 승차, 2000m / sectionTime 600s, 목적지 D 에서 하차
+ *
+ * offset: STEP0=0, STEP1=100, LEG_END=150, BOARD=150, DESTINATION=2150
+ * step 1 은 라인이 없어 좌표가 NaN (지오펜스에서 빠짐)
+ */
+class GuidancePlanTest {
+
+    private static final PlaceDto ORIGIN = new PlaceDto("출발", 127.0000, 37.5000);
+    private static final PlaceDto STOP = new PlaceDto("P 정류장", 127.0017, 37.5000);
+    private static final PlaceDto DEST = new PlaceDto("D 정류장", 127.0240, 37.5000);
+
+    private static GuidanceProperties props;
+    private static ItineraryGeometry geometry;
+    private static GuidancePlan plan;
+
+    @BeforeAll
+    static void compile() {
+        LegDto walk = new LegDto("WALK", 120, 150, null, null, null, null, null, ORIGIN, STOP,
+                List.of(new WalkStepDto("A로", 100, "A로를 따라 100m 직진", null),
+                        new WalkStepDto("B로", 50, "우회전 후 50m 이동", null)),
+                null, null);
+        LegDto bus = new LegDto("BUS", 600, 2000, null, "간선:100", null, null, null, STOP, DEST,
+                null, null, null);
+        ItineraryDto it = new ItineraryDto(null, 720, 2150, 120, 150, 0, 1, List.of(walk, bus));
+
+        props = new GuidanceProperties();
+        geometry = ItineraryGeometry.compile(it);
+        plan = geometry.guidance();
+    }
+
+    private static TripState state(String phase, double walkSpeedMps) {
+        TripState s = new TripState("t-1", 0, 0, null, phase);
+        s.setWalkSpeedMps(walkSpeedMps);
+        return s;
+    }
+
+    @Test
+    void decisionPointsAreInRouteOrderWithOffsets() {
+        assertThat(plan.size()).isEqualTo(5);
+        assertThat(List.of(plan.point(0).kind(), plan.point(1).kind(), plan.point(2).kind(),
+                plan.point(3).kind(), plan.point(4).kind()))
+                .containsExactly(Kind.STEP, Kind.STEP, Kind.LEG_END, Kind.BOARD, Kind.DESTINATION);
+        assertThat(List.of(plan.point(0).offsetM(), plan.point(1).offsetM(), plan.point(2).offsetM(),
+                plan.point(3).offsetM(), plan.point(4).offsetM()))
+                .containsExactly(0.0, 100.0, 150.0, 150.0, 2150.0);
+
+        assertThat(plan.point(1).legIndex()).isZero();
+        assertThat(plan.point(1).stepIndex()).isEqualTo(1);
+        assertThat(plan.point(1).announcement()).isEqualTo("우회전 후 50m 이동");
+        assertThat(plan.point(3).legIndex()).isEqualTo(1);
+
+        assertThat(plan.totalLengthM()).isEqualTo(2150.0);
+        assertThat(plan.legStartM(1)).isEqualTo(150.0);
+        assertThat(plan.legEndM(1)).isEqualTo(2150.0);
+        assertThat(plan.stepPoint(0, 1)).isSameAs(plan.point(1));
+        assertThat(plan.legEndPoint(0)).isSameAs(plan.point(2));
+    }
+
+    @Test
+    void offsetOfAddsStepOrLegStartAndClampsToLegEnd() {
+        assertThat(plan.offsetOf(0, 1, 20.0)).isEqualTo(120.0);
+        assertThat(plan.offsetOf(0, 1, 999.0)).isEqualTo(150.0);
+        assertThat(plan.offsetOf(0, 0, -5.0)).isEqualTo(0.0);
+        assertThat(plan.offsetOf(1, -1, 500.0)).isEqualTo(650.0);
+        assertThat(plan.offsetOf(2, -1, 0.0)).isNaN();
+        assertThat(plan.offsetOf(0, 0, Double.NaN)).isNaN();
+    }
+
+    @Test
+    void nextIndexAfterSkipsEveryPointTiedAtTheLegBoundary() {
+        assertThat(plan.nextIndexAfter(-1.0)).isZero();
+        assertThat(plan.nextIndexAfter(0.0)).isEqualTo(1);
+        // 경계 바로 앞이면 겹친 두 지점 중 앞의 것 (LEG_END)
+        assertThat(plan.nextIndexAfter(149.9)).isEqualTo(2);
+        // 경계 위면 LEG_END/BOARD 를 모두 지나 목적지
+        assertThat(plan.nextIndexAfter(150.0)).isEqualTo(4);
+        assertThat(plan.nextIndexAfter(2150.0)).isEqualTo(-1);
+        assertThat(plan.nextIndexAfter(Double.NaN)).isEqualTo(-1);
+        assertThat(plan.nextAfter(149.9).kind()).isEqualTo(Kind.LEG_END);
+    }
+
+    @Test
+    void suffixSumsSplitWalkMetersAndTransitSeconds() {
+        assertThat(plan.walkMetersFrom(0)).isEqualTo(150.0);
+        assertThat(plan.walkMetersFrom(1)).isEqualTo(0.0);
+        assertThat(plan.walkMetersFrom(2)).isEqualTo(0.0);
+        assertThat(plan.transitSecFrom(0)).isEqualTo(600);
+        assertThat(plan.transitSecFrom(1)).isEqualTo(600);
+        assertThat(plan.transitSecFrom(2)).isZero();
+        assertThat(plan.legSectionSec(0)).isEqualTo(120);
+    }
+
+    @Test
+    void etaWhileWalkingUsesNextStepAndRemainingLegs() {
+        EtaEstimator eta = new EtaEstimator(props);
+        // offset 40, 2 m/s: 다음 지점 STEP1 까지 60m → 30s, 목적지 = 남은 보행 110m/2 + 버스 600s
+        EtaEstimator.Eta e = eta.estimate(state(TripState.PHASE_WALKING, 2.0), plan, 0, true, 40.0, 0.0, null);
+
+        assertThat(e.toTargetM()).isEqualTo(60.0);
+        assertThat(e.toTargetSec()).isEqualTo(30);
+        assertThat(e.toDestinationSec()).isEqualTo(655);
+    }
+
+    @Test
+    void etaWhileWaitingAddsBusArrivalToFullRide() {
+        EtaEstimator eta = new EtaEstimator(props);
+        // 승차 정류장에서 대기: 다음 = 차량 도착 120s, 목적지 = 120s + sectionTime 600s
+        EtaEstimator.Eta e = eta.estimate(state(TripState.PHASE_WAITING_TRANSIT, 0.0), plan, 1, false, 150.0, 0.0, 120);
+
+        assertThat(e.toTargetSec()).isEqualTo(120);
+        assertThat(e.toDestinationSec()).isEqualTo(720);
+        assertThat(e.toTargetM()).isEqualTo(2000.0);
+    }
+
+    @Test
+    void geofencesMergeLegEndWithBoardAtTheSameStop() {
+        GeofencePlanner planner = new GeofencePlanner(props);
+        List<GeofenceZone> zones = planner.upcoming(geometry, 0, 120.0, TripState.PHASE_WALKING);
+
+        assertThat(zones).extracting(GeofenceZone::kind).containsExactly("LEG_END", "DESTINATION");
+        GeofenceZone stop = zones.get(0);
+        assertThat(stop.legIndex()).isZero();
+        assertThat(stop.lat()).isEqualTo(STOP.lat());
+        assertThat(stop.lon()).isEqualTo(STOP.lon());
+        assertThat(stop.aheadM()).isEqualTo(30.0);
+        assertThat(zones.get(1).aheadM()).isEqualTo(2030.0);
+    }
+
+    @Test
+    void geofencesFromTheStopStartAfterTheBoundary() {
+        GeofencePlanner planner = new GeofencePlanner(props);
+        // 위치를 모르면 leg 1 시작(150) 기준 → 겹친 LEG_END/BOARD 는 지난 것으로 보고 목적지만
+        List<GeofenceZone> zones = planner.upcoming(geometry, 1, null, TripState.PHASE_WAITING_TRANSIT);
+
+        assertThat(zones).extracting(GeofenceZone::kind).containsExactly("DESTINATION");
+        assertThat(zones.get(0).aheadM()).isNull();
+    }
+}
@@ -0,0 +1,200 @@
+package com.smartcane.transit.service.raptor;
+
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.geometry.ItineraryGeometry;
+import com.smartcane.transit.service.state.LegMode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 작은 GTFS 픽스처(src/test/resources/gtfs/fixture)로 RAPTOR 탐색 검증
+ *
+ * 노선: 101 버스 S1→S2→S3, 202 버스 S4→S5→S6, 2호선 S2→S6 (08:12 한 편)
+ * S3–S4 는 약 110m 떨어져 도보 환승
+ * 운행: 모두 WEEKDAY (월~금, 2025-10-03 제외)
+ */
+class RaptorRouterTest {
+
+    private static final double ORIGIN_LAT = 37.5000, ORIGIN_LON = 126.9990;  // S1 서쪽 약 90m
+    private static final double DEST_LAT = 37.5210, DEST_LON = 127.0200;      // S6 북쪽 약 110m
+
+    private static RaptorTimetable tt;
+    private static RaptorRouter router;
+
+    @BeforeAll
+    static void load() throws Exception {
+        Path dir = Path.of(RaptorRouterTest.class.getResource("/gtfs/fixture").toURI());
+        tt = GtfsFeedLoader.load(dir, 300.0, 1.0);
+        router = new RaptorRouter(tt, 5, 1.0, 800.0, 60);
+    }
+
+    private static int hms(int h, int m, int s) {
+        return h * 3600 + m * 60 + s;
+    }
+
+    @Test
+    void loadsFeedIntoPatterns() {
+        // 역사(location_type=1)는 제외, 같은 정류장 순서의 trip 은 한 pattern
+        assertThat(tt.stopCount()).isEqualTo(6);
+        assertThat(tt.patternCount()).isEqualTo(3);
+        assertThat(tt.tripCount()).isEqualTo(5);
+        assertThat(tt.stopName).contains("시청역, 3번 출구");
+        // S3 ↔ S4 양방향
+        assertThat(tt.transferTarget).hasSize(2);
+    }
+
+    @Test
+    void transfersToFasterSubwayAtSameStop() {
+        RaptorJourney j = router.route(ORIGIN_LAT, ORIGIN_LON, DEST_LAT, DEST_LON, hms(8, 0, 0));
+
+        assertThat(j).isNotNull();
+        assertThat(j.legs()).extracting(RaptorJourney.Leg::kind).containsExactly(
+                RaptorJourney.Kind.WALK, RaptorJourney.Kind.TRANSIT, RaptorJourney.Kind.TRANSIT, RaptorJourney.Kind.WALK);
+
+        RaptorJourney.Leg bus = j.legs().get(1);
+        assertThat(tt.stopId[bus.fromStop()]).isEqualTo("S1");
+        assertThat(tt.stopId[bus.toStop()]).isEqualTo("S2");
+        assertThat(bus.departSec()).isEqualTo(hms(8, 5, 0));
+
+        RaptorJourney.Leg subway = j.legs().get(2);
+        assertThat(tt.stopId[subway.toStop()]).isEqualTo("S6");
+        assertThat(subway.departSec()).isEqualTo(hms(8, 12, 30));
+        assertThat(subway.arriveSec()).isEqualTo(hms(8, 24, 0));
+
+        // 첫 차 출발에 맞춰 늦게 출발
+        assertThat(j.legs().get(0).arriveSec()).isLessThanOrEqualTo(hms(8, 5, 0));
+        assertThat(j.departSec()).isGreaterThan(hms(8, 0, 0));
+        assertThat(j.arriveSec()).isEqualTo(j.legs().get(3).arriveSec());
+    }
+
+    @Test
+    void walksBetweenStopsWhenSubwayIsGone() {
+        // 08:15 출발이면 2호선(08:12)은 놓치고, 101 두 번째 차 → 중앙시장에서 건너편까지 걸어서 202
+        RaptorJourney j = router.route(ORIGIN_LAT, ORIGIN_LON, DEST_LAT, DEST_LON, hms(8, 15, 0));
+
+        assertThat(j).isNotNull();
+        assertThat(j.legs()).extracting(RaptorJourney.Leg::kind).containsExactly(
+                RaptorJourney.Kind.WALK, RaptorJourney.Kind.TRANSIT, RaptorJourney.Kind.WALK,
+                RaptorJourney.Kind.TRANSIT, RaptorJourney.Kind.WALK);
+
+        RaptorJourney.Leg transfer = j.legs().get(2);
+        assertThat(tt.stopId[transfer.fromStop()]).isEqualTo("S3");
+        assertThat(tt.stopId[transfer.toStop()]).isEqualTo("S4");
+        assertThat(transfer.distanceM()).isBetween(100.0, 120.0);
+
+        // 빈 시각(S2)은 보간, 101 두 번째 차는 08:35 중앙시장 도착
+        assertThat(j.legs().get(1).arriveSec()).isEqualTo(hms(8, 35, 0));
+        assertThat(j.legs().get(3).departSec()).isEqualTo(hms(8, 40, 0));
+        assertThat(j.legs().get(3).arriveSec()).isEqualTo(hms(8, 50, 0));
+    }
+
+    @Test
+    void walksWhenDestinationIsClose() {
+        RaptorJourney j = router.route(ORIGIN_LAT, ORIGIN_LON, 37.5000, 127.0030, hms(8, 0, 0));
+
+        assertThat(j).isNotNull();
+        assertThat(j.legs()).hasSize(1);
+        assertThat(j.legs().get(0).kind()).isEqualTo(RaptorJourney.Kind.WALK);
+    }
+
+    @Test
+    void returnsNullWhenNoTripLeft() {
+        assertThat(router.route(ORIGIN_LAT, ORIGIN_LON, DEST_LAT, DEST_LON, hms(9, 0, 0))).isNull();
+    }
+
+    @Test
+    void ignoresAccessStopsCarriedOverWithoutRide() {
+        // 출발지 근처 S1 이 목적지 근처이기도 하지만 더 탈 차가 없음 — round 0 값만으로 목적지를 갱신하면 안 된다
+        assertThat(router.route(ORIGIN_LAT, ORIGIN_LON, 37.5000, 127.0085, hms(9, 0, 0))).isNull();
+    }
+
+    @Test
+    void findsOvernightTripsListedAfterMidnight() {
+        // 24:xx 로 적힌 막차는 자정 이후 출발이면 전날 서비스일 시각으로 찾는다
+        RaptorTimetable late = new RaptorTimetable(
+                new String[]{"A", "B"}, new String[]{"A", "B"},
+                new double[]{37.5000, 37.5000}, new double[]{127.0000, 127.0200},
+                new int[]{0}, new int[]{2}, new int[]{0, 1},
+                new int[]{1}, new int[]{0}, new int[]{0},
+                new int[]{hms(24, 30, 0), hms(24, 40, 0)}, new int[]{hms(24, 30, 0), hms(24, 40, 0)},
+                new String[]{"N"}, new String[]{"N16"}, new int[]{3},
+                new int[]{0, 1, 2}, new int[]{0, 0},
+                new int[]{0, 0, 0}, new int[0], new int[0], new double[0]);
+        RaptorRouter nightRouter = new RaptorRouter(late, 5, 1.0, 800.0, 60);
+
+        RaptorJourney j = RaptorRouteService.route(nightRouter, 37.5000, 126.9995, 37.5000, 127.0205, hms(0, 20, 0));
+
+        assertThat(j).isNotNull();
+        assertThat(j.legs().get(1).departSec()).isEqualTo(hms(24, 30, 0));
+    }
+
+    @Test
+    void ridesOnlyServicesRunningOnQueryDate() {
+        // 픽스처 trip 은 모두 WEEKDAY (월~금), 2025-10-03(금, 개천절)은 calendar_dates 로 운행 제외
+        RaptorJourney monday = RaptorRouteService.route(router, ORIGIN_LAT, ORIGIN_LON, DEST_LAT, DEST_LON,
+                LocalDate.of(2025, 10, 6), hms(8, 0, 0));
+        assertThat(monday).isNotNull();
+        assertThat(monday.arriveSec()).isEqualTo(
+                router.route(ORIGIN_LAT, ORIGIN_LON, DEST_LAT, DEST_LON, hms(8, 0, 0)).arriveSec());
+
+        assertThat(RaptorRouteService.route(router, ORIGIN_LAT, ORIGIN_LON, DEST_LAT, DEST_LON,
+                LocalDate.of(2025, 10, 4), hms(8, 0, 0))).isNull();
+        assertThat(RaptorRouteService.route(router, ORIGIN_LAT, ORIGIN_LON, DEST_LAT, DEST_LON,
+                LocalDate.of(2025, 10, 3), hms(8, 0, 0))).isNull();
+    }
+
+    @Test
+    void loadsServiceCalendar() {
+        assertThat(tt.activeServices(LocalDate.of(2025, 10, 6))).containsExactly(true);
+        assertThat(tt.activeServices(LocalDate.of(2025, 10, 5))).containsExactly(false);
+        assertThat(tt.activeServices(LocalDate.of(2025, 10, 3))).containsExactly(false);
+        assertThat(tt.activeServices(LocalDate.of(2031, 1, 6))).containsExactly(false);
+    }
+
+    @Test
+    void pathTypeFollowsModesRidden() {
+        assertThat(RaptorItineraryMapper.pathTypeOf(true, false, false, false)).isEqualTo(2);
+        assertThat(RaptorItineraryMapper.pathTypeOf(false, true, false, false)).isEqualTo(1);
+        assertThat(RaptorItineraryMapper.pathTypeOf(false, false, true, false)).isEqualTo(5);
+        assertThat(RaptorItineraryMapper.pathTypeOf(false, false, false, true)).isEqualTo(7);
+        assertThat(RaptorItineraryMapper.pathTypeOf(true, false, true, false)).isEqualTo(3);
+    }
+
+    @Test
+    void mapsToSkItineraryShape() {
+        RaptorJourney j = router.route(ORIGIN_LAT, ORIGIN_LON, DEST_LAT, DEST_LON, hms(8, 0, 0));
+        SkTransitRootDto.ItineraryDto it = RaptorItineraryMapper.toItinerary(tt, j);
+
+        assertThat(it.legs()).extracting(SkTransitRootDto.LegDto::mode)
+                .containsExactly("WALK", "BUS", "SUBWAY", "WALK");
+        assertThat(it.pathType()).isEqualTo(3);
+        assertThat(it.transferCount()).isEqualTo(1);
+        assertThat(it.totalTime()).isEqualTo(j.arriveSec() - j.departSec());
+
+        SkTransitRootDto.LegDto bus = it.legs().get(1);
+        assertThat(bus.route()).isEqualTo("101");
+        assertThat(bus.passStopList().stations()).extracting(SkTransitRootDto.StationDto::stationID)
+                .containsExactly("S1", "S2");
+
+        // 진행 판정용 지오메트리가 SK 경로와 똑같이 컴파일되는지
+        ItineraryGeometry geo = ItineraryGeometry.compile(it);
+        assertThat(geo.legs()).hasSize(4);
+        assertThat(geo.leg(0).mode()).isEqualTo(LegMode.WALK);
+        assertThat(geo.leg(0).steps()).hasSize(1);
+        assertThat(geo.leg(2).mode()).isEqualTo(LegMode.SUBWAY);
+        assertThat(geo.leg(2).shape().size()).isEqualTo(2);
+        assertThat(geo.guidance().totalLengthM()).isGreaterThan(0.0);
+    }
+
+    @Test
+    void splitsQuotedCsv() {
+        assertThat(GtfsFeedLoader.splitCsv("S2,\"시청역, 3번 \"\"출구\"\"\",37.5"))
+                .isEqualTo(List.of("S2", "시청역, 3번 \"출구\"", "37.5"));
+    }
+}